@@ -22,6 +22,10 @@ package org.ff4j;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -29,6 +33,8 @@ import org.ff4j.audit.EventPublisher;
 import org.ff4j.audit.EventType;
 import org.ff4j.audit.repository.EventRepository;
 import org.ff4j.audit.repository.InMemoryEventRepository;
+import org.ff4j.cache.FeatureSnapshot;
+import org.ff4j.cache.FeatureStoreSnapshotProxy;
 import org.ff4j.conf.XmlParser;
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
@@ -92,7 +98,7 @@ public class FF4j {
     private EventRepository eventRepository = new InMemoryEventRepository();
 
     /** Event Publisher (threadpool, executor) to send data into {@link EventRepository} */
-    private EventPublisher eventPublisher = null;
+    private volatile EventPublisher eventPublisher = null;
     
     private volatile boolean shutdownEventPublisher;
 
@@ -144,7 +150,138 @@ public class FF4j {
      * @return current feature status
      */
     public boolean check(String featureID, FlippingExecutionContext executionContext) {
-        Feature fp = getFeature(featureID);
+        boolean flipped;
+        FeatureSnapshot snapshot = getFeatureSnapshot();
+        int slot = (snapshot == null) ? -1 : snapshot.slotOf(featureID);
+        if (slot >= 0) {
+            // Compiled snapshot available, no access to store
+            flipped = evaluate(snapshot, slot, executionContext);
+        } else {
+            flipped = evaluate(getFeature(featureID), executionContext);
+        }
+        // Update current context
+        currentExecutionContext.set(executionContext);
+        
+        // Any access is logged into audit system
+        if (isEnableAudit()) {
+            getEventPublisher().publish(featureID, flipped);
+        }
+
+        return flipped;
+    }
+
+    /**
+     * Ask if flipped, a missing feature is neither created nor raising {@link FeatureNotFoundException}.
+     * 
+     * @param featureID
+     *            feature unique identifier.
+     * @param defaultValue
+     *            value returned if the feature does not exist
+     * @return current feature status or default value
+     */
+    public boolean checkOrDefault(String featureID, boolean defaultValue) {
+        return checkOrDefault(featureID, defaultValue, null);
+    }
+
+    /**
+     * Ask if flipped, a missing feature is neither created nor raising {@link FeatureNotFoundException}.
+     * 
+     * @param featureID
+     *            feature unique identifier.
+     * @param defaultValue
+     *            value returned if the feature does not exist
+     * @param executionContext
+     *            current execution context
+     * @return current feature status or default value
+     */
+    public boolean checkOrDefault(String featureID, boolean defaultValue, FlippingExecutionContext executionContext) {
+        boolean flipped;
+        FeatureSnapshot snapshot = getFeatureSnapshot();
+        int slot = (snapshot == null) ? -1 : snapshot.slotOf(featureID);
+        if (slot >= 0) {
+            flipped = evaluate(snapshot, slot, executionContext);
+        } else {
+            Feature fp = getFeatureStore().findIfExists(featureID);
+            if (fp == null) {
+                return defaultValue;
+            }
+            flipped = evaluate(fp, executionContext);
+        }
+        // Update current context
+        currentExecutionContext.set(executionContext);
+
+        // Any access is logged into audit system
+        if (isEnableAudit()) {
+            getEventPublisher().publish(featureID, flipped);
+        }
+        return flipped;
+    }
+
+    /**
+     * Ask if several features are flipped, features are read from store in a single operation.
+     * 
+     * @param featureIDs
+     *            features unique identifiers.
+     * @return status of each feature (in the order of the identifiers)
+     */
+    public Map<String, Boolean> checkAll(Collection<String> featureIDs) {
+        return checkAll(featureIDs, null);
+    }
+
+    /**
+     * Ask if several features are flipped, features are read from store in a single operation.
+     * 
+     * @param featureIDs
+     *            features unique identifiers.
+     * @param executionContext
+     *            current execution context
+     * @return status of each feature (in the order of the identifiers)
+     */
+    public Map<String, Boolean> checkAll(Collection<String> featureIDs, FlippingExecutionContext executionContext) {
+        if (featureIDs == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        FeatureSnapshot snapshot = getFeatureSnapshot();
+        Map<String, Feature> features = new HashMap<String, Feature>();
+        if (snapshot == null) {
+            features.putAll(getFeatureStore().readMany(new HashSet<String>(featureIDs)));
+        }
+        
+        // Missing features are created (autocreate) or raise FeatureNotFoundException before any evaluation
+        for (String featureID : featureIDs) {
+            if (!features.containsKey(featureID) && (snapshot == null || snapshot.slotOf(featureID) < 0)) {
+                features.put(featureID, getFeature(featureID));
+            }
+        }
+        
+        Map<String, Boolean> statuses = new LinkedHashMap<String, Boolean>();
+        for (String featureID : featureIDs) {
+            if (statuses.containsKey(featureID)) {
+                continue;
+            }
+            int slot = (snapshot == null) ? -1 : snapshot.slotOf(featureID);
+            boolean flipped = (slot >= 0) ? evaluate(snapshot, slot, executionContext) : //
+                    evaluate(features.get(featureID), executionContext);
+            statuses.put(featureID, flipped);
+            if (isEnableAudit()) {
+                getEventPublisher().publish(featureID, flipped);
+            }
+        }
+        // Update current context
+        currentExecutionContext.set(executionContext);
+        return statuses;
+    }
+
+    /**
+     * Evaluate feature read from store.
+     * 
+     * @param fp
+     *            current feature
+     * @param executionContext
+     *            current execution context
+     * @return current feature status
+     */
+    private boolean evaluate(Feature fp, FlippingExecutionContext executionContext) {
         boolean flipped = fp.isEnable();
 
         // If authorization manager provided, apply security filter
@@ -154,16 +291,49 @@ public class FF4j {
 
         // If custom strategy has been defined, delegate flipping to
         if (flipped && fp.getFlippingStrategy() != null) {
-            flipped = flipped && fp.getFlippingStrategy().evaluate(featureID, getFeatureStore(), executionContext);
+            flipped = flipped && fp.getFlippingStrategy().evaluate(fp.getUid(), getFeatureStore(), executionContext);
         }
-        // Update current context
-        currentExecutionContext.set(executionContext);
-        
-        // Any access is logged into audit system
-        if (isEnableAudit()) {
-            getEventPublisher().publish(featureID, flipped);
+        return flipped;
+    }
+
+    /**
+     * Retrieve a reusable handle on feature to check it several times without resolving the identifier each time.
+     * 
+     * @param featureID
+     *            feature unique identifier.
+     * @return handle on the feature
+     */
+    public FeatureHandle handle(String featureID) {
+        if (featureID == null || featureID.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
+        }
+        return new FeatureHandle(this, featureID);
+    }
+
+    /**
+     * Evaluate feature from a compiled snapshot.
+     * 
+     * @param snapshot
+     *            current snapshot
+     * @param slot
+     *            slot of the feature within snapshot
+     * @param executionContext
+     *            current execution context
+     * @return current feature status
+     */
+    boolean evaluate(FeatureSnapshot snapshot, int slot, FlippingExecutionContext executionContext) {
+        boolean flipped = snapshot.isEnable(slot);
+
+        // If authorization manager provided, apply security filter
+        if (flipped && getAuthorizationsManager() != null) {
+            flipped = isAllowed(snapshot.getPermissions(slot));
         }
 
+        // If custom strategy has been defined, delegate flipping to
+        FlippingStrategy strategy = snapshot.getFlippingStrategy(slot);
+        if (flipped && strategy != null) {
+            flipped = strategy.evaluate(snapshot.getUid(slot), getFeatureStore(), executionContext);
+        }
         return flipped;
     }
 
@@ -228,6 +398,27 @@ public class FF4j {
         return false;
     }
 
+    /**
+     * Check permissions copied within snapshot against current user roles.
+     * 
+     * @param expectedRoles
+     *            roles allowed to use the feature
+     * @return if the feature is allowed
+     */
+    private boolean isAllowed(String[] expectedRoles) {
+        // if no permissions, the feature is public
+        if (expectedRoles.length == 0) {
+            return true;
+        }
+        Set<String> userRoles = getAuthorizationsManager().getCurrentUserPermissions();
+        for (String expectedRole : expectedRoles) {
+            if (userRoles.contains(expectedRole)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Read Features from store.
      * 
@@ -382,16 +573,13 @@ public class FF4j {
      * @return target feature.
      */
     public Feature getFeature(String featureID) {
-        Feature fp = null;
-        try {
-            fp = getFeatureStore().read(featureID);
-        } catch (FeatureNotFoundException fnfe) {
-            if (this.autocreate) {
-                fp = new Feature(featureID, false);
-                getFeatureStore().create(fp);
-            } else {
-                throw fnfe;
+        Feature fp = getFeatureStore().findIfExists(featureID);
+        if (fp == null) {
+            if (!this.autocreate) {
+                throw new FeatureNotFoundException(featureID);
             }
+            fp = new Feature(featureID, false);
+            getFeatureStore().create(fp);
         }
         return fp;
     }
@@ -418,6 +606,32 @@ public class FF4j {
         return this;
     }
 
+    /**
+     * Compile features into an immutable snapshot : {@link #check(String)} will not reach the store anymore. The current
+     * store is wrapped with a {@link FeatureStoreSnapshotProxy}.
+     * 
+     * @return current instance
+     */
+    public FF4j enableSnapshot() {
+        if (!(getFeatureStore() instanceof FeatureStoreSnapshotProxy)) {
+            setFeatureStore(new FeatureStoreSnapshotProxy(getFeatureStore()));
+        }
+        return this;
+    }
+
+    /**
+     * Access compiled snapshot if the store is a {@link FeatureStoreSnapshotProxy}.
+     * 
+     * @return current snapshot or null if store is not compiled
+     */
+    public FeatureSnapshot getFeatureSnapshot() {
+        FeatureStore store = getFeatureStore();
+        if (store instanceof FeatureStoreSnapshotProxy) {
+            return ((FeatureStoreSnapshotProxy) store).getSnapshot();
+        }
+        return null;
+    }
+
     /**
      * Delete feature name.
      * 
@@ -572,12 +786,19 @@ public class FF4j {
      * @return current value of 'eventPublisher'
      */
     public EventPublisher getEventPublisher() {
-        // TODO: this is not thread-safe
-        if (eventPublisher == null) {
-            eventPublisher = new EventPublisher(eventRepository);
-            this.shutdownEventPublisher = true;
+        EventPublisher publisher = eventPublisher;
+        if (publisher == null) {
+            // Double-checked locking (volatile field) : a single publisher is created
+            synchronized (this) {
+                publisher = eventPublisher;
+                if (publisher == null) {
+                    publisher = new EventPublisher(eventRepository);
+                    this.shutdownEventPublisher = true;
+                    eventPublisher = publisher;
+                }
+            }
         }
-        return eventPublisher;
+        return publisher;
     }
 
     /**
@@ -0,0 +1,151 @@
+package org.ff4j;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.ff4j.cache.FeatureSnapshot;
+import org.ff4j.cache.FeatureStoreSnapshotProxy;
+import org.ff4j.core.FlippingExecutionContext;
+
+/**
+ * Pre-resolved reference to a feature, obtained once through {@link FF4j#handle(String)} and kept by hot code.
+ *
+ * When the store is compiled with a {@link FeatureStoreSnapshotProxy}, the slot of the feature is resolved once per
+ * snapshot version and {@link #check()} does not allocate : no hashing of the identifier, no store access. The slot is
+ * resolved again only when the snapshot has been rebuilt (a feature has been modified). Without snapshot, the handle
+ * delegates to {@link FF4j#check(String, FlippingExecutionContext)}.
+ *
+ * Unlike {@link FF4j#check(String)}, checking through a handle does not update the current execution context of the
+ * thread.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public final class FeatureHandle {
+
+    /** Owner. */
+    private final FF4j ff4j;
+
+    /** Unique feature identifier. */
+    private final String uid;
+
+    /** Slot resolved for a snapshot, replaced when snapshot changes. */
+    private volatile Resolution resolution;
+
+    /**
+     * Handle are created through {@link FF4j#handle(String)}.
+     *
+     * @param ff4j
+     *            owner
+     * @param uid
+     *            unique feature identifier
+     */
+    FeatureHandle(FF4j ff4j, String uid) {
+        this.ff4j = ff4j;
+        this.uid = uid;
+    }
+
+    /**
+     * Ask if flipped.
+     *
+     * @return current feature status
+     */
+    public boolean check() {
+        return check(null);
+    }
+
+    /**
+     * Ask if flipped.
+     *
+     * @param executionContext
+     *            current execution context
+     * @return current feature status
+     */
+    public boolean check(FlippingExecutionContext executionContext) {
+        FeatureSnapshot snapshot = ff4j.getFeatureSnapshot();
+        if (snapshot == null) {
+            return ff4j.check(uid, executionContext);
+        }
+        Resolution current = resolution;
+        if (current == null || current.snapshot != snapshot) {
+            current = new Resolution(snapshot, snapshot.slotOf(uid));
+            resolution = current;
+        }
+        if (current.slot < 0) {
+            // Not found in snapshot : autocreate or FeatureNotFoundException
+            return ff4j.check(uid, executionContext);
+        }
+        boolean flipped = ff4j.evaluate(snapshot, current.slot, executionContext);
+        if (ff4j.isEnableAudit()) {
+            ff4j.getEventPublisher().publish(uid, flipped);
+        }
+        return flipped;
+    }
+
+    /**
+     * Version of the snapshot the slot has been resolved against.
+     *
+     * @return snapshot version or -1 if not resolved yet
+     */
+    public long getResolvedVersion() {
+        Resolution current = resolution;
+        return (current == null) ? -1 : current.snapshot.getVersion();
+    }
+
+    /**
+     * Getter accessor for attribute 'uid'.
+     *
+     * @return current value of 'uid'
+     */
+    public String getUid() {
+        return uid;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "{\"uid\":\"" + uid + "\",\"resolvedVersion\":" + getResolvedVersion() + "}";
+    }
+
+    /**
+     * Slot of the feature within a dedicated snapshot.
+     */
+    private static final class Resolution {
+
+        /** Snapshot used to resolve. */
+        private final FeatureSnapshot snapshot;
+
+        /** Slot of feature, -1 if not found. */
+        private final int slot;
+
+        /**
+         * Parameterized constructor.
+         *
+         * @param snapshot
+         *            snapshot used to resolve
+         * @param slot
+         *            slot of feature
+         */
+        private Resolution(FeatureSnapshot snapshot, int slot) {
+            this.snapshot = snapshot;
+            this.slot = slot;
+        }
+    }
+
+}
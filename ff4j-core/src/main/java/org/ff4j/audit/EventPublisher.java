@@ -23,18 +23,21 @@ package org.ff4j.audit;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
-import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.ff4j.audit.repository.EventRepository;
 import org.ff4j.audit.repository.InMemoryEventRepository;
 
 /**
- * Default implementation of repository.
+ * Publish events to the {@link EventRepository} asynchronously.
+ * 
+ * Publication is fire-and-forget : the calling thread only enqueues the event and never waits for it to be saved. When
+ * the queue is full the event is dropped and counted as rejected, the caller is never blocked.
  * 
  * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
  */
@@ -46,7 +49,13 @@ public class EventPublisher {
     /** DEFAULT. */
     public static final int DEFAULT_POOL_SIZE = 4;
     
-    /** 2s to save the event other wize skip. */
+    /**
+     * 2s to save the event other wize skip.
+     * 
+     * @deprecated publication is fire-and-forget, the value is not used anymore : bound the work with the queue
+     *             capacity and pool size instead.
+     */
+    @Deprecated
     public static long timeout = 2000L;
     
     /** Executor for item writer. */
@@ -55,11 +64,29 @@ public class EventPublisher {
     /** Repository to save events. */
     private EventRepository repository;
 
-    /** the amount of time to wait after submitting for the task to complete. */
-    private final long submitTimeout;
-
     private final boolean shutdownExecutor;
 
+    /** Events accepted by the executor. */
+    private final AtomicLong publishedCount = new AtomicLong();
+
+    /** Events dropped as the executor was saturated. */
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /** Events saved by the repository. */
+    private final AtomicLong savedCount = new AtomicLong();
+
+    /** Events the repository could not save. */
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /** Number of publications measured. */
+    private final AtomicLong enqueueCount = new AtomicLong();
+
+    /** Cumulated time spent by callers to enqueue events. */
+    private final AtomicLong enqueueNanos = new AtomicLong();
+
+    /** Maximum time spent by a caller to enqueue an event. */
+    private final AtomicLong maxEnqueueNanos = new AtomicLong();
+
     /**
      * Default constructor.
      */
@@ -78,29 +105,8 @@ public class EventPublisher {
      * Default constructor.
      */
     public EventPublisher(int queueCapacity, int poolSize, EventRepository er) {
-        this(queueCapacity, poolSize, er, timeout);
-    }
-
-    /**
-     * Default constructor.
-     */
-    public EventPublisher(int queueCapacity, int poolSize, EventRepository er, long submitTimeout) {
         // Initializing queue
         final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<Runnable>(queueCapacity);
-
-        // Executor with worker to process threads
-        RejectedExecutionHandler rej = (new RejectedExecutionHandler() {
-            @Override
-            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-                // try once again
-                executor.execute(r);
-            }
-        });
         
          class CustomThreadFactory implements ThreadFactory {
             final AtomicInteger poolNumber = new AtomicInteger(1);
@@ -124,50 +130,107 @@ public class EventPublisher {
             }
         }
 
-        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, new CustomThreadFactory() , rej);
+        // Saturated executor rejects (AbortPolicy) : the event is dropped, caller not blocked
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, new CustomThreadFactory());
 
         // Override repository
         repository = er;
 
-        this.submitTimeout = submitTimeout;
         this.shutdownExecutor = true;
     }
 
+    /**
+     * Default constructor.
+     * 
+     * @deprecated events are not awaited anymore, use {@link #EventPublisher(int, int, EventRepository)}
+     */
+    @Deprecated
+    public EventPublisher(int queueCapacity, int poolSize, EventRepository er, long submitTimeout) {
+        this(queueCapacity, poolSize, er);
+    }
+
     /**
      * @param er the event repository to use
      * @param executorService the executor service
      */
     public EventPublisher(EventRepository er, ExecutorService executorService) {
-        this(er, executorService, timeout);
+        repository = er;
+        executor = executorService;
+        this.shutdownExecutor = false;
     }
 
     /**
      * @param er the event repository to use
      * @param executorService the executor service
      * @param submitTimeout
+     * @deprecated events are not awaited anymore, use {@link #EventPublisher(EventRepository, ExecutorService)}
      */
+    @Deprecated
     public EventPublisher(EventRepository er, ExecutorService executorService, long submitTimeout) {
-        repository = er;
-        executor = executorService;
-        this.submitTimeout = submitTimeout;
-        this.shutdownExecutor = false;
+        this(er, executorService);
     }
 
     /**
-     * Publish event to repository
+     * Publish event to repository, does not wait for the event to be saved.
      * 
      * @param e
      *            event.
      */
     public void publish(Event e) {
-        final Future<Boolean> check = executor.submit(new EventWorker(e, repository));
+        long start = System.nanoTime();
+        boolean accepted = true;
         try {
-            if (submitTimeout != 0) {
-                check.get(submitTimeout, TimeUnit.MILLISECONDS);
-            }
-        } catch (Exception e1) {
-            e1.printStackTrace();
-            System.err.println("Cannot push event into monitoring");
+            executor.execute(new PublishTask(e));
+        } catch (RejectedExecutionException ree) {
+            // Queue full or publisher stopped : monitoring must not slow down the caller
+            accepted = false;
+        }
+        recordEnqueue(start, accepted);
+    }
+
+    /**
+     * Record the outcome of a publication for metrics.
+     * 
+     * @param startNanos
+     *            value of {@link System#nanoTime()} when the caller started to publish
+     * @param accepted
+     *            if the event has been enqueued
+     */
+    protected void recordEnqueue(long startNanos, boolean accepted) {
+        if (accepted) {
+            publishedCount.incrementAndGet();
+        } else {
+            rejectedCount.incrementAndGet();
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        enqueueCount.incrementAndGet();
+        enqueueNanos.addAndGet(elapsed);
+        long max = maxEnqueueNanos.get();
+        while (elapsed > max && !maxEnqueueNanos.compareAndSet(max, elapsed)) {
+            max = maxEnqueueNanos.get();
+        }
+    }
+
+    /**
+     * Record an event dropped after having been enqueued.
+     */
+    protected void recordDropped() {
+        rejectedCount.incrementAndGet();
+    }
+
+    /**
+     * Record the outcome of saving events into repository.
+     * 
+     * @param count
+     *            number of events
+     * @param saved
+     *            if the repository saved them
+     */
+    protected void recordSaved(int count, boolean saved) {
+        if (saved) {
+            savedCount.addAndGet(count);
+        } else {
+            failedCount.addAndGet(count);
         }
     }
 
@@ -211,6 +274,73 @@ public class EventPublisher {
         this.executor.shutdownNow();
     }
 
+    /**
+     * Number of events waiting to be saved.
+     * 
+     * @return queue depth, -1 if the executor does not expose its queue
+     */
+    public int getQueueDepth() {
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getQueue().size();
+        }
+        return -1;
+    }
+
+    /**
+     * Getter accessor for attribute 'publishedCount'.
+     * 
+     * @return number of events accepted for publication
+     */
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'rejectedCount'.
+     * 
+     * @return number of events dropped as the publisher was saturated
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'savedCount'.
+     * 
+     * @return number of events saved into repository
+     */
+    public long getSavedCount() {
+        return savedCount.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'failedCount'.
+     * 
+     * @return number of events the repository could not save
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Average time spent by callers to enqueue an event.
+     * 
+     * @return average enqueue latency in nanoseconds
+     */
+    public long getAverageEnqueueLatencyNanos() {
+        long count = enqueueCount.get();
+        return (count == 0) ? 0 : enqueueNanos.get() / count;
+    }
+
+    /**
+     * Maximum time spent by a caller to enqueue an event.
+     * 
+     * @return maximum enqueue latency in nanoseconds
+     */
+    public long getMaxEnqueueLatencyNanos() {
+        return maxEnqueueNanos.get();
+    }
+
     /**
      * Setter accessor for attribute 'repository'.
      * 
@@ -230,4 +360,37 @@ public class EventPublisher {
         return repository;
     }
 
+    /**
+     * Save an event within executor thread and record the outcome.
+     */
+    private final class PublishTask implements Runnable {
+
+        /** Target event. */
+        private final Event event;
+
+        /**
+         * Parameterized constructor.
+         * 
+         * @param event
+         *            target event
+         */
+        private PublishTask(Event event) {
+            this.event = event;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            boolean saved = false;
+            try {
+                saved = new EventWorker(event, repository).call();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("Cannot push event into monitoring : " + e.getMessage());
+            }
+            recordSaved(1, saved);
+        }
+    }
+
 }
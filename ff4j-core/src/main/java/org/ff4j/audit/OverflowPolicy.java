@@ -0,0 +1,42 @@
+package org.ff4j.audit;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Behaviour of {@link RingBufferEventPublisher} when its buffer is full.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public enum OverflowPolicy {
+
+    /** Incoming event is dropped. */
+    DROP_NEWEST,
+
+    /** Oldest pending event is dropped to make room for the incoming one. */
+    DROP_OLDEST,
+
+    /** Above the high watermark only one event out of the sample rate is kept. */
+    SAMPLE,
+
+    /** Caller waits for free room at most the configured deadline, then the event is dropped. */
+    BLOCK_WITH_DEADLINE
+
+}
@@ -0,0 +1,492 @@
+package org.ff4j.audit;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.ff4j.audit.repository.EventRepository;
+
+/**
+ * Publisher relying on a preallocated ring buffer drained by a single consumer thread.
+ * 
+ * Producers never lock : slots are claimed with a CAS on a sequence and each slot carries its own sequence number to
+ * know if it is free or published (bounded queue from Dmitry Vyukov, same principle as the LMAX Disruptor). The
+ * consumer drains events by batches and saves them into the {@link EventRepository}. When the buffer is full the
+ * {@link OverflowPolicy} applies and each dropped event is counted.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class RingBufferEventPublisher extends EventPublisher {
+
+    /** Default capacity of the buffer. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** Default number of events saved at once. */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /** Default : one event kept out of 10 above high watermark. */
+    public static final int DEFAULT_SAMPLE_RATE = 10;
+
+    /** Default : wait at most 1ms. */
+    public static final long DEFAULT_MAX_BLOCK_NANOS = 1000000L;
+
+    /** Default : wait at most 5s for pending events when stopping. */
+    public static final long DEFAULT_STOP_TIMEOUT_MILLIS = 5000L;
+
+    /** Longest pause of consumer when the buffer is empty, producers wake it up as soon as an event is published. */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /** Preallocated events, visibility given by sequences. */
+    private final Event[] buffer;
+
+    /** Sequence of each slot. */
+    private final AtomicLongArray sequences;
+
+    /** capacity - 1 (capacity is a power of 2). */
+    private final int mask;
+
+    /** Next sequence to be claimed by producers. */
+    private final AtomicLong enqueuePosition = new AtomicLong();
+
+    /** Next sequence to be read (consumer, and producers dropping oldest). */
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    /** Number of events saved at once. */
+    private final int batchSize;
+
+    /** Behaviour when full. */
+    private final OverflowPolicy overflowPolicy;
+
+    /** Keep one event out of sampleRate above high watermark. */
+    private volatile int sampleRate = DEFAULT_SAMPLE_RATE;
+
+    /** Maximum time to wait with {@link OverflowPolicy#BLOCK_WITH_DEADLINE}. */
+    private volatile long maxBlockNanos = DEFAULT_MAX_BLOCK_NANOS;
+
+    /** Counter used for sampling. */
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    /** Incoming events dropped (buffer full or deadline expired). */
+    private final AtomicLong droppedNewest = new AtomicLong();
+
+    /** Pending events dropped to make room. */
+    private final AtomicLong droppedOldest = new AtomicLong();
+
+    /** Events discarded by sampling. */
+    private final AtomicLong sampledOut = new AtomicLong();
+
+    /** Producers which waited until deadline. */
+    private final AtomicLong deadlineExpired = new AtomicLong();
+
+    /** Consumer thread. */
+    private final Thread consumer;
+
+    /** Consumer stops when false (after draining). */
+    private volatile boolean running = true;
+
+    /** Consumer is parked, waiting for events. */
+    private volatile boolean idle = false;
+
+    /** Producers currently publishing, the consumer does not exit before they are done. */
+    private final AtomicInteger activeProducers = new AtomicInteger();
+
+    /**
+     * Publisher with default capacity, batch size and {@link OverflowPolicy#DROP_NEWEST}.
+     * 
+     * @param er
+     *            target repository
+     */
+    public RingBufferEventPublisher(EventRepository er) {
+        this(er, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, OverflowPolicy.DROP_NEWEST);
+    }
+
+    /**
+     * Parameterized constructor.
+     * 
+     * @param er
+     *            target repository
+     * @param capacity
+     *            capacity of the buffer, rounded to the next power of 2
+     * @param batchSize
+     *            maximum number of events saved at once
+     * @param policy
+     *            behaviour when the buffer is full
+     */
+    public RingBufferEventPublisher(EventRepository er, int capacity, int batchSize, OverflowPolicy policy) {
+        super(er, (ExecutorService) null);
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity (param#1) must be greater than 1");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size (param#2) must be positive");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Overflow policy (param#3) cannot be null");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Event[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.batchSize = batchSize;
+        this.overflowPolicy = policy;
+        this.consumer = new Thread(new Runnable() {
+            public void run() {
+                consume();
+            }
+        }, "ff4j-monitoring-ring-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Try to put an event in the buffer.
+     * 
+     * @param e
+     *            event
+     * @return false if the buffer is full
+     */
+    private boolean offer(Event e) {
+        long pos = enqueuePosition.get();
+        while (true) {
+            int idx = (int) pos & mask;
+            long dif = sequences.get(idx) - pos;
+            if (dif == 0) {
+                if (enqueuePosition.compareAndSet(pos, pos + 1)) {
+                    buffer[idx] = e;
+                    sequences.set(idx, pos + 1);
+                    return true;
+                }
+                pos = enqueuePosition.get();
+            } else if (dif < 0) {
+                return false;
+            } else {
+                pos = enqueuePosition.get();
+            }
+        }
+    }
+
+    /**
+     * Take the oldest event from the buffer.
+     * 
+     * @return event or null if the buffer is empty
+     */
+    private Event poll() {
+        long pos = dequeuePosition.get();
+        while (true) {
+            int idx = (int) pos & mask;
+            long dif = sequences.get(idx) - (pos + 1);
+            if (dif == 0) {
+                if (dequeuePosition.compareAndSet(pos, pos + 1)) {
+                    Event e = buffer[idx];
+                    buffer[idx] = null;
+                    sequences.set(idx, pos + mask + 1);
+                    return e;
+                }
+                pos = dequeuePosition.get();
+            } else if (dif < 0) {
+                return null;
+            } else {
+                pos = dequeuePosition.get();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void publish(Event e) {
+        long start = System.nanoTime();
+        activeProducers.incrementAndGet();
+        try {
+            // Once stopped nothing is accepted, the consumer may be gone
+            if (!running) {
+                recordEnqueue(start, false);
+                return;
+            }
+            boolean accepted = enqueue(e, start);
+            if (accepted && idle) {
+                LockSupport.unpark(consumer);
+            }
+            recordEnqueue(start, accepted);
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Put event in the buffer according to overflow policy.
+     * 
+     * @param e
+     *            event
+     * @param start
+     *            start time of publication
+     * @return if enqueued
+     */
+    private boolean enqueue(Event e, long start) {
+        boolean accepted;
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                accepted = offerDropOldest(e);
+            break;
+            case SAMPLE:
+                accepted = offerSampled(e);
+            break;
+            case BLOCK_WITH_DEADLINE:
+                accepted = offerWithDeadline(e, start);
+            break;
+            default:
+                accepted = offer(e);
+                if (!accepted) {
+                    droppedNewest.incrementAndGet();
+                }
+            break;
+        }
+        return accepted;
+    }
+
+    /**
+     * Make room by dropping pending events.
+     * 
+     * @param e
+     *            event
+     * @return if enqueued
+     */
+    private boolean offerDropOldest(Event e) {
+        while (running) {
+            if (offer(e)) {
+                return true;
+            }
+            if (poll() != null) {
+                droppedOldest.incrementAndGet();
+                recordDropped();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keep one event out of sample rate above high watermark (3/4 of capacity).
+     * 
+     * @param e
+     *            event
+     * @return if enqueued
+     */
+    private boolean offerSampled(Event e) {
+        if (getQueueDepth() >= (buffer.length - (buffer.length >> 2))
+                && sampleCounter.getAndIncrement() % sampleRate != 0) {
+            sampledOut.incrementAndGet();
+            return false;
+        }
+        if (offer(e)) {
+            return true;
+        }
+        droppedNewest.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Wait for free room until deadline.
+     * 
+     * @param e
+     *            event
+     * @param start
+     *            start time of publication
+     * @return if enqueued
+     */
+    private boolean offerWithDeadline(Event e, long start) {
+        while (!offer(e)) {
+            if (!running || System.nanoTime() - start >= maxBlockNanos) {
+                deadlineExpired.incrementAndGet();
+                return false;
+            }
+            LockSupport.parkNanos(1000L);
+        }
+        return true;
+    }
+
+    /**
+     * Consumer loop : drain by batches until stopped, no producer running and buffer empty.
+     */
+    private void consume() {
+        List<Event> batch = new ArrayList<Event>(batchSize);
+        while (true) {
+            Event e = poll();
+            while (e != null) {
+                batch.add(e);
+                if (batch.size() >= batchSize) {
+                    break;
+                }
+                e = poll();
+            }
+            if (!batch.isEmpty()) {
+                save(batch);
+                batch.clear();
+            } else if (running) {
+                idle = true;
+                // Event published before the flag was visible
+                if (getQueueDepth() == 0 && running) {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+                idle = false;
+            } else if (activeProducers.get() > 0) {
+                Thread.yield();
+            } else if (getQueueDepth() == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Save a batch of events into repository in a single operation.
+     * 
+     * @param batch
+     *            events to save
+     */
+    protected void save(List<Event> batch) {
+        boolean saved = false;
+        try {
+            saved = getRepository().saveEvents(batch);
+        } catch (RuntimeException re) {
+            System.err.println("Cannot push events into monitoring : " + re.getMessage());
+        }
+        recordSaved(batch.size(), saved);
+    }
+
+    /**
+     * Stop the consumer once pending events are saved, wait at most {@link #DEFAULT_STOP_TIMEOUT_MILLIS}.
+     */
+    @Override
+    public void stop() {
+        stop(DEFAULT_STOP_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Stop accepting events and wait for pending events to be saved.
+     * 
+     * @param timeoutMillis
+     *            maximum time to wait for the consumer
+     * @return true if all pending events have been processed
+     */
+    public boolean stop(long timeoutMillis) {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(timeoutMillis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        return !consumer.isAlive();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getQueueDepth() {
+        long depth = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(depth, buffer.length));
+    }
+
+    /**
+     * Getter accessor for attribute 'capacity'.
+     * 
+     * @return capacity of the buffer
+     */
+    public int getCapacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Getter accessor for attribute 'overflowPolicy'.
+     * 
+     * @return current value of 'overflowPolicy'
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Setter accessor for attribute 'sampleRate'.
+     * 
+     * @param sampleRate
+     *            keep one event out of sampleRate above high watermark
+     */
+    public void setSampleRate(int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Sample rate must be positive");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Setter accessor for attribute 'maxBlockNanos'.
+     * 
+     * @param maxBlockNanos
+     *            maximum time to wait for free room
+     */
+    public void setMaxBlockNanos(long maxBlockNanos) {
+        this.maxBlockNanos = maxBlockNanos;
+    }
+
+    /**
+     * Getter accessor for attribute 'droppedNewest'.
+     * 
+     * @return incoming events dropped as the buffer was full
+     */
+    public long getDroppedNewestCount() {
+        return droppedNewest.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'droppedOldest'.
+     * 
+     * @return pending events dropped to make room
+     */
+    public long getDroppedOldestCount() {
+        return droppedOldest.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'sampledOut'.
+     * 
+     * @return events discarded by sampling
+     */
+    public long getSampledOutCount() {
+        return sampledOut.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'deadlineExpired'.
+     * 
+     * @return events dropped after waiting until deadline
+     */
+    public long getDeadlineExpiredCount() {
+        return deadlineExpired.get();
+    }
+
+}
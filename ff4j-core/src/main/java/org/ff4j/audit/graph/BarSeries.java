@@ -91,6 +91,18 @@ public class BarSeries implements Serializable {
     public void incrCount(int offset) {
         getValues().set(offset, getValues().get(offset)+1);
     }
+    
+    /**
+     * Increment hit ratio for this slot with several hits at once.
+     * 
+     * @param offset
+     *            offset of point
+     * @param nbHits
+     *            number of hits to add
+     */
+    public void incrCount(int offset, int nbHits) {
+        getValues().set(offset, getValues().get(offset) + nbHits);
+    }
 
     /**
      * Getter accessor for attribute 'label'.
@@ -22,7 +22,9 @@ package org.ff4j.audit.repository;
 
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 
+import org.ff4j.audit.Event;
 import org.ff4j.audit.graph.BarChart;
 import org.ff4j.audit.graph.PieChart;
 import org.ff4j.audit.graph.PieSector;
@@ -36,6 +38,23 @@ import org.ff4j.audit.graph.PieSector;
 public abstract class AbstractEventRepository implements EventRepository { 
     
 
+    /**
+     * Default implementation saving events one by one.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saveEvents(List<Event> events) {
+        if (events == null) {
+            throw new IllegalArgumentException("Events (param#0) cannot be null");
+        }
+        boolean ok = true;
+        for (Event evt : events) {
+            ok = saveEvent(evt) && ok;
+        }
+        return ok;
+    }
+
     /** {@inheritDoc} */
     @Override
     public BarChart getHitsBarChart(long startTime, long endTime, int nbslot) {
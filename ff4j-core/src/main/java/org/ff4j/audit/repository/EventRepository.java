@@ -20,6 +20,7 @@ package org.ff4j.audit.repository;
  * #L%
  */
 
+import java.util.List;
 import java.util.Set;
 
 import org.ff4j.audit.Event;
@@ -47,6 +48,15 @@ public interface EventRepository {
      * @return if saving is OK
      */
     boolean saveEvent(Event e);
+
+    /**
+     * Save several events into store synchronously, in a single operation when the store allows it.
+     * 
+     * @param events
+     *            target events to store
+     * @return if saving is OK
+     */
+    boolean saveEvents(List<Event> events);
     
     /**
      * List feature names monitored.
@@ -23,13 +23,13 @@ package org.ff4j.audit.repository;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.ff4j.audit.Event;
 import org.ff4j.audit.EventType;
@@ -42,18 +42,31 @@ import org.ff4j.utils.Util;
 /**
  * Implementation of in memory {@link EventRepository} with limited events.
  * 
+ * Events are not retained as objects : each feature owns a ring of primitive arrays (timestamp
+ * and type, about 9 bytes per event) allocated by chunks when needed. Writers get their slot
+ * from an atomic cursor and never lock, the oldest events are overwritten when the ring is full.
+ * 
  * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
  */
 public class InMemoryEventRepository extends AbstractEventRepository {
     
     /** default retention. */
     private static final int DEFAULT_QUEUE_CAPACITY = 100000;
+    
+    /** Number of events in a chunk of the ring. */
+    private static final int CHUNK_SIZE = 1024;
+
+    /** Expected number of buckets in a chart slot to use counters instead of events. */
+    private static final int BUCKETS_PER_SLOT = 10;
+    
+    /** Ordinal of type to count hits. */
+    private static final byte CHECK_ON = (byte) EventType.FEATURE_CHECK_ON.ordinal();
 
     /** current capacity. */
-    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private final int queueCapacity;
 
-    /** Store : < FeatureName |  QueueOfEvents > */
-    private final Map<String, Queue<Event>> mapOfEvents = new ConcurrentHashMap<String, Queue<Event>>();
+    /** Store : < FeatureName |  Events > */
+    private final ConcurrentMap<String, FeatureEvents> mapOfEvents = new ConcurrentHashMap<String, FeatureEvents>();
 
     /**
      * Default constructor with default capacity to 100.000
@@ -69,37 +82,63 @@ public class InMemoryEventRepository extends AbstractEventRepository {
      *            default queue capacity
      */
     public InMemoryEventRepository(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Capacity (param#0) must be positive");
+        }
         this.queueCapacity = queueCapacity;
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean saveEvent(Event e) {
-        if (!mapOfEvents.containsKey(e.getFeatureName())) {
-            mapOfEvents.put(e.getFeatureName(), new ArrayBlockingQueue<Event>(queueCapacity));
+        FeatureEvents events = mapOfEvents.get(e.getFeatureName());
+        if (events == null) {
+            FeatureEvents created = new FeatureEvents(queueCapacity);
+            events = mapOfEvents.putIfAbsent(e.getFeatureName(), created);
+            if (events == null) {
+                events = created;
+            }
         }
-        Queue<Event> myQueue = mapOfEvents.get(e.getFeatureName());
-        if (myQueue.size() >= queueCapacity) {
-            myQueue.poll();
+        events.add(e.getTimestamp(), e.getType());
+        return true;
+    }
+    
+    /**
+     * Select the finest buckets able to answer for a time window, if window is too narrow
+     * or too old events are scanned.
+     *
+     * @param events
+     *            events of target feature
+     * @param startTime
+     *            start of window
+     * @param slotWidth
+     *            width of expected slot
+     * @return
+     *            counters to use or null if events must be scanned
+     */
+    private TimeBucketCounter selectCounter(FeatureEvents events, long startTime, long slotWidth) {
+        for (TimeBucketCounter counter : events.counters) {
+            if (counter.covers(startTime, slotWidth / BUCKETS_PER_SLOT)) {
+                return counter;
+            }
         }
-        return myQueue.offer(e);
+        return null;
     }
     
     /** {@inheritDoc} */
     @Override
     public PieChart getHitsPieChart(long startTime, long endTime) {
         PieChart pieGraph = new PieChart(TITLE_PIE_HITCOUNT);
-        List < String > colors   = Util.getColorsGradient(mapOfEvents.size());
         List < String > features = new ArrayList<String>(mapOfEvents.keySet());
-        for(int idx = 0; idx < mapOfEvents.size();idx++) {
-            Queue< Event > qEvents = mapOfEvents.get(features.get(idx));
+        List < String > colors   = Util.getColorsGradient(features.size());
+        for(int idx = 0; idx < features.size();idx++) {
+            FeatureEvents events = mapOfEvents.get(features.get(idx));
+            TimeBucketCounter buckets = selectCounter(events, startTime, endTime - startTime);
             int counter = 0;
-            for (Event evt : qEvents) {
-                if (evt.getTimestamp() > startTime && evt.getTimestamp() < endTime) {
-                    if (EventType.FEATURE_CHECK_ON.equals(evt.getType())) {
-                        counter++;
-                    }
-                }
+            if (buckets != null) {
+                counter = buckets.count(EventType.FEATURE_CHECK_ON, startTime, endTime);
+            } else {
+                counter = events.countPerType(startTime, endTime)[CHECK_ON];
             }
             pieGraph.getSectors().add(new PieSector(features.get(idx), counter, colors.get(idx)));
         }
@@ -110,31 +149,25 @@ public class InMemoryEventRepository extends AbstractEventRepository {
     @Override
     public PieChart getFeatureHitsPie(String featureId, long startTime, long endTime) {
         List < String > colors   = Util.getColorsGradient(4);
-        Queue< Event > qEvents = mapOfEvents.get(featureId);
+        FeatureEvents events = mapOfEvents.get(featureId);
         PieChart pieGraph = new PieChart("Hits Count for " + featureId);
         int nbEnable = 0;
         int nbDisable = 0;
         int nbFlip = 0;
         int notFlip = 0;
-        if (null != qEvents) {
-            for (Event evt : qEvents) {
-                if (evt.getTimestamp() > startTime && evt.getTimestamp() < endTime) {
-                    switch (evt.getType()) {
-                        case FEATURE_CHECK_ON:
-                            nbFlip++;
-                        break;
-                        case FEATURE_CHECK_OFF:
-                            notFlip++;
-                        break;
-                        case ENABLE_FEATURE:
-                            nbEnable++;
-                        break;
-                        case DISABLE_FEATURE:
-                            nbDisable++;
-                        default:
-                        break;
-                    }
-                }
+        if (null != events) {
+            TimeBucketCounter buckets = selectCounter(events, startTime, endTime - startTime);
+            if (buckets != null) {
+                nbEnable  = buckets.count(EventType.ENABLE_FEATURE, startTime, endTime);
+                nbDisable = buckets.count(EventType.DISABLE_FEATURE, startTime, endTime);
+                nbFlip    = buckets.count(EventType.FEATURE_CHECK_ON, startTime, endTime);
+                notFlip   = buckets.count(EventType.FEATURE_CHECK_OFF, startTime, endTime);
+            } else {
+                int[] counters = events.countPerType(startTime, endTime);
+                nbEnable  = counters[EventType.ENABLE_FEATURE.ordinal()];
+                nbDisable = counters[EventType.DISABLE_FEATURE.ordinal()];
+                nbFlip    = counters[EventType.FEATURE_CHECK_ON.ordinal()];
+                notFlip   = counters[EventType.FEATURE_CHECK_OFF.ordinal()];
             }
         }
         if (nbEnable > 0) {
@@ -173,18 +206,17 @@ public class InMemoryEventRepository extends AbstractEventRepository {
         BarChart barChart = new BarChart(TITLE_BARCHAR_HIT, labels, new ArrayList<String>(featNameSet));
         for (String name : featNameSet) {
           // Retrieve events for target feature
-          Queue<Event> myQueue = mapOfEvents.get(name);
+          FeatureEvents events = mapOfEvents.get(name);
           // Create series for this feature (even if not present)
           BarSeries currentSeries = barChart.getSeries().get(name);
-          if (myQueue != null) {
-             for (Iterator<Event> itEvt = myQueue.iterator(); itEvt.hasNext();) {
-                 Event evt = itEvt.next();
-                 long t = evt.getTimestamp();
-                 // Filter event in the slot and type flipped (= used)
-                 if (startTime < t && t < endTime && EventType.FEATURE_CHECK_ON.equals(evt.getType())) {
-                     currentSeries.incrCount((int) ((t - startTime) / slotWitdh));
-                 }
-             }
+          if (events != null) {
+              TimeBucketCounter buckets = selectCounter(events, startTime, slotWitdh);
+              int[] hits = (buckets != null) ? 
+                      buckets.countPerSlot(EventType.FEATURE_CHECK_ON, startTime, endTime, nbslot) :
+                      events.countHitsPerSlot(startTime, endTime, nbslot);
+              for (int i = 0; i < nbslot; i++) {
+                  currentSeries.incrCount(i, hits[i]);
+              }
           }
         }
         return barChart;
@@ -193,10 +225,9 @@ public class InMemoryEventRepository extends AbstractEventRepository {
     /** {@inheritDoc} */
     @Override
     public int getTotalEventCount() {
-        Set<String> queues = mapOfEvents.keySet();
         int total = 0;
-        for (String queue : queues) {
-            total += mapOfEvents.get(queue).size();
+        for (FeatureEvents events : mapOfEvents.values()) {
+            total += events.size();
         }
         return total;
     }
@@ -206,5 +237,141 @@ public class InMemoryEventRepository extends AbstractEventRepository {
     public Set<String> getFeatureNames() {
         return  mapOfEvents.keySet();
     }
+    
+    /**
+     * Events of a single feature : ring of timestamps and types with time buckets counters.
+     */
+    private static final class FeatureEvents {
+        
+        /** Ring capacity. */
+        private final int capacity;
+        
+        /** Chunks of the ring, allocated on first write. */
+        private final AtomicReferenceArray<EventChunk> chunks;
+        
+        /** Next slot to write (absolute, not wrapped). */
+        private final AtomicLong cursor = new AtomicLong(0);
+        
+        /** Counters : buckets of 10s (1 hour), 1min (1 day), 1 hour (31 days), finest first, pages allocated on first write. */
+        private final TimeBucketCounter[] counters = new TimeBucketCounter[] {
+                new TimeBucketCounter(10 * 1000L, 360),
+                new TimeBucketCounter(60 * 1000L, 1440),
+                new TimeBucketCounter(3600 * 1000L, 24 * 31)};
+        
+        /**
+         * Constructor with capacity.
+         *
+         * @param capacity
+         *            number of events retained
+         */
+        private FeatureEvents(int capacity) {
+            this.capacity = capacity;
+            this.chunks   = new AtomicReferenceArray<EventChunk>((capacity + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        }
+        
+        /**
+         * Record an event, lock free.
+         *
+         * @param timestamp
+         *            event time
+         * @param type
+         *            event type
+         */
+        private void add(long timestamp, EventType type) {
+            for (TimeBucketCounter counter : counters) {
+                counter.incr(timestamp, type);
+            }
+            int slot = (int) (cursor.getAndIncrement() % capacity);
+            EventChunk chunk = chunks.get(slot / CHUNK_SIZE);
+            if (chunk == null) {
+                chunks.compareAndSet(slot / CHUNK_SIZE, null, new EventChunk());
+                chunk = chunks.get(slot / CHUNK_SIZE);
+            }
+            int offset = slot % CHUNK_SIZE;
+            // Invalidate slot during write, readers will skip it
+            chunk.timestamps.set(offset, 0);
+            chunk.types[offset] = (byte) type.ordinal();
+            // Publish (volatile write)
+            chunk.timestamps.set(offset, timestamp);
+        }
+        
+        /**
+         * Number of events retained.
+         *
+         * @return
+         *          events in the ring
+         */
+        private int size() {
+            return (int) Math.min(cursor.get(), capacity);
+        }
+        
+        /**
+         * Count events in the window for each type.
+         *
+         * @param startTime
+         *            start of window (excluded)
+         * @param endTime
+         *            end of window (excluded)
+         * @return
+         *            counters indexed by type ordinal
+         */
+        private int[] countPerType(long startTime, long endTime) {
+            int[] result = new int[EventType.values().length];
+            int size = size();
+            for (int slot = 0; slot < size; slot++) {
+                EventChunk chunk = chunks.get(slot / CHUNK_SIZE);
+                int offset = slot % CHUNK_SIZE;
+                long t = (chunk == null) ? 0 : chunk.timestamps.get(offset);
+                if (startTime < t && t < endTime) {
+                    byte type = chunk.types[offset];
+                    // Ignore slot overwritten while reading
+                    if (t == chunk.timestamps.get(offset)) {
+                        result[type]++;
+                    }
+                }
+            }
+            return result;
+        }
+        
+        /**
+         * Count hits (checked ON) in the window divided in slots.
+         *
+         * @param startTime
+         *            start of window (excluded)
+         * @param endTime
+         *            end of window (excluded)
+         * @param nbslot
+         *            number of slots
+         * @return
+         *            hits per slot
+         */
+        private int[] countHitsPerSlot(long startTime, long endTime, int nbslot) {
+            int[] result = new int[nbslot];
+            long slotWidth = Math.max(1, (endTime - startTime) / nbslot);
+            int size = size();
+            for (int slot = 0; slot < size; slot++) {
+                EventChunk chunk = chunks.get(slot / CHUNK_SIZE);
+                int offset = slot % CHUNK_SIZE;
+                long t = (chunk == null) ? 0 : chunk.timestamps.get(offset);
+                // Filter event in the slot and type flipped (= used)
+                if (startTime < t && t < endTime && chunk.types[offset] == CHECK_ON && t == chunk.timestamps.get(offset)) {
+                    result[(int) Math.min(nbslot - 1, (t - startTime) / slotWidth)]++;
+                }
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Chunk of the ring, struct of arrays.
+     */
+    private static final class EventChunk {
+        
+        /** Event timestamps, 0 marks a slot being written. */
+        private final AtomicLongArray timestamps = new AtomicLongArray(CHUNK_SIZE);
+        
+        /** Event types ordinals. */
+        private final byte[] types = new byte[CHUNK_SIZE];
+    }
 
 }
@@ -11,11 +11,6 @@ package org.ff4j.audit.repository;
  * governing permissions and limitations under the License. #L%
  */
 
-import static org.ff4j.utils.JdbcUtils.closeConnection;
-import static org.ff4j.utils.JdbcUtils.closeResultSet;
-import static org.ff4j.utils.JdbcUtils.closeStatement;
-
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -25,7 +20,9 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import javax.sql.DataSource;
 
@@ -38,6 +35,7 @@ import org.ff4j.audit.graph.PieSector;
 import org.ff4j.exception.AuditAccessException;
 import org.ff4j.exception.FeatureAccessException;
 import org.ff4j.store.JdbcStoreConstants;
+import org.ff4j.utils.JdbcSession;
 import org.ff4j.utils.Util;
 
 /**
@@ -47,6 +45,9 @@ import org.ff4j.utils.Util;
  */
 public class JdbcEventRepository extends AbstractEventRepository implements JdbcStoreConstants {
 
+    /** Rows sent to database at once by {@link #saveEvents(List)}. */
+    private static final int MAX_BATCH_SIZE = 1000;
+
     /** Access to storage. */
     private DataSource dataSource;
 
@@ -63,14 +64,9 @@ public class JdbcEventRepository extends AbstractEventRepository implements Jdbc
     /** {@inheritDoc} */
     @Override
     public int getTotalEventCount() {
-        Connection        sqlConn = null;
-        PreparedStatement stmt = null;
-        ResultSet         rs = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            // Get collection from Pool
-            sqlConn = dataSource.getConnection();
-            stmt = sqlConn.prepareStatement(SQL_AUDIT_COUNT);
-            rs = stmt.executeQuery();
+            ResultSet rs = session.query(SQL_AUDIT_COUNT);
             if (rs.next()) {
                 return rs.getInt(1);
             }
@@ -79,9 +75,7 @@ public class JdbcEventRepository extends AbstractEventRepository implements Jdbc
             throw new AuditAccessException("Cannot read audit information from database ", exc);
             
         } finally {
-           closeResultSet(rs);
-           closeStatement(stmt);
-           closeConnection(sqlConn);
+           session.close();
         }
         return 0;
     }
@@ -92,15 +86,11 @@ public class JdbcEventRepository extends AbstractEventRepository implements Jdbc
         Util.assertNotNull(evt);
         Util.assertHasLength(evt.getFeatureName());
         
-        Connection        sqlConn = null;
-        PreparedStatement stmt = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            // Get collection from Pool
-            sqlConn = dataSource.getConnection();
-           
             // Open TX Bloc
-            sqlConn.setAutoCommit(false);
-            stmt = sqlConn.prepareStatement(SQL_AUDIT_INSERT);
+            session.begin();
+            PreparedStatement stmt = session.prepare(SQL_AUDIT_INSERT);
             stmt.setTimestamp(1, new java.sql.Timestamp(evt.getTimestamp()));
             stmt.setString(2, evt.getType().toString());
             stmt.setString(3,  evt.getFeatureName());
@@ -109,14 +99,60 @@ public class JdbcEventRepository extends AbstractEventRepository implements Jdbc
             stmt.executeUpdate();
             
             // Commit TX
-            sqlConn.commit();
+            session.commit();
             
         } catch(Exception exc) {
+            session.rollback();
             throw new RuntimeException("Cannot insert event into DB", exc);
             
         } finally {
-           closeStatement(stmt);
-           closeConnection(sqlConn);
+           session.close();
+        }
+        return true;
+    }
+
+    /**
+     * Insert events with a JDBC batch and a single commit.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saveEvents(List<Event> events) {
+        Util.assertNotNull(events);
+        if (events.isEmpty()) {
+            return true;
+        }
+        JdbcSession session = new JdbcSession(getDataSource());
+        try {
+            // Open TX Bloc
+            session.begin();
+            PreparedStatement stmt = session.prepare(SQL_AUDIT_INSERT);
+            int pending = 0;
+            for (Event evt : events) {
+                Util.assertHasLength(evt.getFeatureName());
+                stmt.setTimestamp(1, new java.sql.Timestamp(evt.getTimestamp()));
+                stmt.setString(2, evt.getType().toString());
+                stmt.setString(3,  evt.getFeatureName());
+                stmt.addBatch();
+                // Limit driver memory for huge lists, still one transaction
+                if (++pending == MAX_BATCH_SIZE) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+            
+            // Commit TX
+            session.commit();
+            
+        } catch(Exception exc) {
+            session.rollback();
+            throw new AuditAccessException("Cannot insert events into DB", exc);
+            
+        } finally {
+           session.close();
         }
         return true;
     }
@@ -125,14 +161,9 @@ public class JdbcEventRepository extends AbstractEventRepository implements Jdbc
     @Override
     public Set < String > getFeatureNames() {
         Set < String> listOfFeatureNames = new HashSet<String>();
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            // Returns features
-            sqlConn = dataSource.getConnection();
-            ps = sqlConn.prepareStatement(SQL_AUDIT_LISTFEATURES);
-            rs = ps.executeQuery();
+            ResultSet rs = session.query(SQL_AUDIT_LISTFEATURES);
             while (rs.next()) {
                 listOfFeatureNames.add(rs.getString(COL_EVENT_UID));
             }
@@ -140,9 +171,7 @@ public class JdbcEventRepository extends AbstractEventRepository implements Jdbc
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            session.close();
         }
     }
     
@@ -150,37 +179,32 @@ public class JdbcEventRepository extends AbstractEventRepository implements Jdbc
     @Override
     public PieChart getHitsPieChart(long startTime, long endTime) {
         PieChart pieGraph = new PieChart(TITLE_PIE_HITCOUNT);
-        Set < String > features = getFeatureNames();
-        List < String > colors  = Util.getColorsGradient(features.size());
-        
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            // Returns features
-            sqlConn = dataSource.getConnection();
-            
+            // Every audited feature gets a sector, even without any hit in the window
+            Map < String, Integer > counters = new TreeMap<String, Integer>();
+            ResultSet rs = session.query(SQL_AUDIT_LISTFEATURES);
+            while (rs.next()) {
+                counters.put(rs.getString(COL_EVENT_UID), 0);
+            }
+            // Counters are computed by the database, a single row per feature
+            PreparedStatement ps = session.prepare(SQL_AUDIT_COUNT_HITS_BYFEATURE);
+            ps.setTimestamp(1, new Timestamp(startTime));
+            ps.setTimestamp(2, new Timestamp(endTime));
+            rs = session.executeQuery(ps);
+            while (rs.next()) {
+                counters.put(rs.getString(COL_EVENT_UID), rs.getInt("NB"));
+            }
+            List < String > colors  = Util.getColorsGradient(counters.size());
             int idx = 0;
-            for (String featName : features) {
-                int counter = 0;
-                ps = sqlConn.prepareStatement(SQL_AUDIT_COUNTFEATURE);
-                ps.setString(1, featName);
-                ps.setTimestamp(2, new Timestamp(startTime));
-                ps.setTimestamp(3, new Timestamp(endTime));
-                rs = ps.executeQuery();
-                if (rs.next()) {
-                    counter = rs.getInt(1);
-                }
-                pieGraph.getSectors().add(new PieSector(featName, counter, colors.get(idx)));
+            for (Map.Entry < String, Integer > counter : counters.entrySet()) {
+                pieGraph.getSectors().add(new PieSector(counter.getKey(), counter.getValue(), colors.get(idx++)));
             }
         } catch (SQLException sqlEX) {
             throw new AuditAccessException("Cannot build PieChart from repository, ", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            session.close();
         }
-       
         return pieGraph;
     }
     
@@ -199,36 +223,52 @@ public class JdbcEventRepository extends AbstractEventRepository implements Jdbc
         // Build SeriesNames
         BarChart barChart = new BarChart(TITLE_BARCHAR_HIT, labels, new ArrayList<String>(featNameSet));
         
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            // Returns features
-            sqlConn = dataSource.getConnection();
-            
-            for (String featName : getFeatureNames()) {
-                ps = sqlConn.prepareStatement(SQL_AUDIT_FEATURE_EVENTOK);
-                ps.setString(1, featName);
-                ps.setTimestamp(2, new Timestamp(startTime));
-                ps.setTimestamp(3, new Timestamp(endTime));
-                rs = ps.executeQuery();
-                
-                BarSeries currentSeries = barChart.getSeries().get(featName);
-                while (rs.next()) {
-                    long timestamp   = rs.getTimestamp(COL_EVENT_TIME).getTime();
-                    currentSeries.incrCount((int) ((timestamp - startTime) / slotWitdh));
+            // Hits are bucketed by the database, a single row per (feature, slot)
+            PreparedStatement ps = session.prepare(String.format(SQL_AUDIT_COUNT_HITS_BYSLOT, buildSlotExpression(nbslot)));
+            int idx = 1;
+            for (int i = 1; i < nbslot; i++) {
+                ps.setTimestamp(idx++, new Timestamp(startTime + slotWitdh * i));
+            }
+            ps.setTimestamp(idx++, new Timestamp(startTime));
+            ps.setTimestamp(idx,   new Timestamp(endTime));
+            ResultSet rs = session.executeQuery(ps);
+            while (rs.next()) {
+                BarSeries currentSeries = barChart.getSeries().get(rs.getString(COL_EVENT_UID));
+                // Features not expected in the chart are ignored
+                if (currentSeries != null) {
+                    currentSeries.incrCount(rs.getInt("SLOT"), rs.getInt("NB"));
                 }
             }
-                
         } catch (SQLException sqlEX) {
-            throw new AuditAccessException("Cannot build PieChart from repository, ", sqlEX);
+            throw new AuditAccessException("Cannot build BarChart from repository, ", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            session.close();
         }
         return barChart;
     }
+    
+    /**
+     * Build a portable expression computing the slot of an event in the database: slot upper
+     * bounds are provided as parameters and the last slot takes all remaining events.
+     *
+     * @param nbslot
+     *            number of slots in the chart
+     * @return
+     *            SQL expression to evaluate slot index
+     */
+    private String buildSlotExpression(int nbslot) {
+        if (nbslot <= 1) {
+            return "0";
+        }
+        StringBuilder sb = new StringBuilder("CASE");
+        for (int i = 0; i < nbslot - 1; i++) {
+            sb.append(" WHEN " + COL_EVENT_TIME + " < ? THEN " + i);
+        }
+        sb.append(" ELSE " + (nbslot - 1) + " END");
+        return sb.toString();
+    }
 
     /** {@inheritDoc} */
     @Override
@@ -236,35 +276,34 @@ public class JdbcEventRepository extends AbstractEventRepository implements Jdbc
         List < String > colors   = Util.getColorsGradient(4);
         PieChart pieGraph = new PieChart("Hits Count for " + featureId);
         
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            // Returns features
-            sqlConn = dataSource.getConnection();
-            ps = sqlConn.prepareStatement(SQL_AUDIT_FEATURE_ALLEVENTS);
+            // Counters are computed by the database, a single row per event type
+            PreparedStatement ps = session.prepare(SQL_AUDIT_COUNT_EVENTS_BYTYPE);
             ps.setString(1, featureId);
             ps.setTimestamp(2, new Timestamp(startTime));
             ps.setTimestamp(3, new Timestamp(endTime));
-            rs = ps.executeQuery();
+            ResultSet rs = session.executeQuery(ps);
             
             int nbEnable = 0;
             int nbDisable = 0;
             int nbFlip = 0;
             int notFlip = 0;
             while (rs.next()) {
+                int nb = rs.getInt("NB");
                 switch (EventType.valueOf(rs.getString(COL_EVENT_TYPE))) {
                     case FEATURE_CHECK_ON:
-                        nbFlip++;
+                        nbFlip = nb;
                     break;
                     case FEATURE_CHECK_OFF:
-                        notFlip++;
+                        notFlip = nb;
                     break;
                     case ENABLE_FEATURE:
-                        nbEnable++;
+                        nbEnable = nb;
                     break;
                     case DISABLE_FEATURE:
-                        nbDisable++;
+                        nbDisable = nb;
+                    break;
                     default:
                     break;
                 }
@@ -290,9 +329,7 @@ public class JdbcEventRepository extends AbstractEventRepository implements Jdbc
         } catch (SQLException sqlEX) {
             throw new AuditAccessException("Cannot build PieChart from repository, ", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            session.close();
         }
         
     }
@@ -0,0 +1,289 @@
+package org.ff4j.audit.repository;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.ff4j.audit.EventType;
+
+/**
+ * Counters of events per {@link EventType} aggregated in fixed time buckets for a single feature.
+ * 
+ * Buckets are kept in a ring : when time moves forward the oldest bucket is recycled, retention is
+ * then (bucket width x number of buckets). Charts can be computed in O(buckets) whatever the number
+ * of events received, the precision is the bucket width.
+ * 
+ * Writers do not lock : counters are atomic and a slot is recycled by the writer winning the CAS on
+ * its bucket identifier. The ring is split in pages allocated on first write, a feature with a few
+ * events only reserves the pages it hits.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public final class TimeBucketCounter {
+    
+    /** Event types counted, the ones displayed in charts. */
+    private static final EventType[] COUNTED_TYPES = { EventType.ENABLE_FEATURE, EventType.DISABLE_FEATURE, 
+        EventType.FEATURE_CHECK_ON, EventType.FEATURE_CHECK_OFF };
+    
+    /** Number of event types. */
+    private static final int NB_TYPES = COUNTED_TYPES.length;
+    
+    /** Number of buckets in a page of the ring. */
+    private static final int PAGE_SIZE = 64;
+    
+    /** Bucket identifier of a slot never written. */
+    private static final long EMPTY = -1L;
+    
+    /** Bucket identifier of a slot being recycled, its counters are reset. */
+    private static final long RECYCLING = -2L;
+    
+    /** Width of a bucket in milliseconds. */
+    private final long bucketWidth;
+    
+    /** Number of buckets in the ring. */
+    private final int nbBuckets;
+    
+    /** Pages of the ring, allocated on first write. */
+    private final AtomicReferenceArray<BucketPage> pages;
+    
+    /** Most recent bucket seen. */
+    private final AtomicLong lastBucket = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Constructor with dimensions.
+     *
+     * @param bucketWidth
+     *            width of bucket in milliseconds
+     * @param nbBuckets
+     *            number of buckets retained
+     */
+    public TimeBucketCounter(long bucketWidth, int nbBuckets) {
+        if (bucketWidth < 1 || nbBuckets < 1) {
+            throw new IllegalArgumentException("Bucket width and number of buckets must be positive");
+        }
+        this.bucketWidth = bucketWidth;
+        this.nbBuckets   = nbBuckets;
+        this.pages       = new AtomicReferenceArray<BucketPage>((nbBuckets + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+    
+    /**
+     * Count a new event, lock free.
+     *
+     * @param timestamp
+     *            event time
+     * @param type
+     *            event type
+     */
+    public void incr(long timestamp, EventType type) {
+        int typeIdx = indexOf(type);
+        if (typeIdx < 0) {
+            return;
+        }
+        long bucket = timestamp / bucketWidth;
+        long last = lastBucket.get();
+        if (last != Long.MIN_VALUE && bucket <= last - nbBuckets) {
+            // Too old, out of retention
+            return;
+        }
+        int slot = slotOf(bucket);
+        BucketPage page = pageOf(slot);
+        int offset = slot % PAGE_SIZE;
+        while (true) {
+            long current = page.bucketIds.get(offset);
+            if (current == bucket) {
+                page.counters.incrementAndGet(typeIdx * PAGE_SIZE + offset);
+                break;
+            }
+            if (current == RECYCLING) {
+                // Another writer is resetting the slot, wait for its new identifier
+                continue;
+            }
+            if (current > bucket) {
+                // Slot already recycled for a newer bucket
+                return;
+            }
+            // Recycle slot of an older bucket, the winner resets counters before publishing
+            if (page.bucketIds.compareAndSet(offset, current, RECYCLING)) {
+                for (int t = 0; t < NB_TYPES; t++) {
+                    page.counters.set(t * PAGE_SIZE + offset, 0);
+                }
+                page.bucketIds.set(offset, bucket);
+            }
+        }
+        while (last < bucket && !lastBucket.compareAndSet(last, bucket)) {
+            last = lastBucket.get();
+        }
+    }
+    
+    /**
+     * Check if counters are available to answer for a time window at expected precision.
+     *
+     * @param startTime
+     *            start of window
+     * @param granularity
+     *            expected precision (slot width of charts)
+     * @return
+     *            if buckets can be used
+     */
+    public boolean covers(long startTime, long granularity) {
+        long last = lastBucket.get();
+        return bucketWidth <= granularity 
+                && (last == Long.MIN_VALUE || (startTime / bucketWidth) > last - nbBuckets);
+    }
+    
+    /**
+     * Count events of target type in the window, a bucket is attributed to the window
+     * if its start is included.
+     *
+     * @param type
+     *            event type
+     * @param startTime
+     *            start of window
+     * @param endTime
+     *            end of window
+     * @return
+     *            number of events
+     */
+    public int count(EventType type, long startTime, long endTime) {
+        return countPerSlot(type, startTime, endTime, 1)[0];
+    }
+    
+    /**
+     * Count events of target type in the window divided in slots, a bucket is attributed to
+     * the slot including its start.
+     *
+     * @param type
+     *            event type
+     * @param startTime
+     *            start of window
+     * @param endTime
+     *            end of window
+     * @param nbslot
+     *            number of slots
+     * @return
+     *            number of events in each slot
+     */
+    public int[] countPerSlot(EventType type, long startTime, long endTime, int nbslot) {
+        int[] result = new int[nbslot];
+        long slotWidth = Math.max(1, (endTime - startTime) / nbslot);
+        int typeIdx = indexOf(type);
+        if (typeIdx < 0) {
+            return result;
+        }
+        long lastSeen = lastBucket.get();
+        long first = Math.max(startTime / bucketWidth, lastSeen - nbBuckets + 1);
+        long last  = Math.min((endTime - 1) / bucketWidth, lastSeen);
+        for (long bucket = first; bucket <= last; bucket++) {
+            int slot = slotOf(bucket);
+            BucketPage page = pages.get(slot / PAGE_SIZE);
+            int offset = slot % PAGE_SIZE;
+            if (page != null && page.bucketIds.get(offset) == bucket) {
+                int counter = page.counters.get(typeIdx * PAGE_SIZE + offset);
+                // Ignore slot recycled while reading
+                if (counter > 0 && page.bucketIds.get(offset) == bucket) {
+                    long target = (bucket * bucketWidth - startTime) / slotWidth;
+                    result[(int) Math.max(0, Math.min(nbslot - 1, target))] += counter;
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Position of event type in counters.
+     *
+     * @param type
+     *            event type
+     * @return
+     *            index in counters or -1 if type is not counted
+     */
+    private static int indexOf(EventType type) {
+        for (int i = 0; i < NB_TYPES; i++) {
+            if (COUNTED_TYPES[i] == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Position of bucket in the ring.
+     *
+     * @param bucket
+     *            bucket identifier
+     * @return
+     *            index in the ring
+     */
+    private int slotOf(long bucket) {
+        return (int) (bucket % nbBuckets);
+    }
+    
+    /**
+     * Page holding a slot of the ring, allocated if needed.
+     *
+     * @param slot
+     *            index in the ring
+     * @return
+     *            page of the slot
+     */
+    private BucketPage pageOf(int slot) {
+        int idx = slot / PAGE_SIZE;
+        BucketPage page = pages.get(idx);
+        if (page == null) {
+            pages.compareAndSet(idx, null, new BucketPage());
+            page = pages.get(idx);
+        }
+        return page;
+    }
+
+    /**
+     * Getter accessor for attribute 'bucketWidth'.
+     *
+     * @return
+     *       current value of 'bucketWidth'
+     */
+    public long getBucketWidth() {
+        return bucketWidth;
+    }
+    
+    /**
+     * Page of the ring, struct of arrays.
+     */
+    private static final class BucketPage {
+        
+        /** Identifier (timestamp / width) of bucket stored in each slot of the page. */
+        private final AtomicLongArray bucketIds = new AtomicLongArray(PAGE_SIZE);
+        
+        /** Counters for each type (type index x page size + slot). */
+        private final AtomicIntegerArray counters = new AtomicIntegerArray(NB_TYPES * PAGE_SIZE);
+        
+        /** Slots start empty. */
+        private BucketPage() {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                bucketIds.set(i, EMPTY);
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,308 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters of a {@link FeatureCacheManager} : hits, misses and loads are recorded by {@link FeatureStoreCacheProxy},
+ * evictions by the cache manager itself.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class CacheStatistics {
+
+    /** Upper bounds (inclusive) of load time histogram in milliseconds, last slot is unbounded. */
+    public static final long[] LOAD_TIME_BOUNDS = {1, 5, 10, 50, 100, 500, 1000};
+
+    /** Value of size when not known. */
+    public static final long UNKNOWN_SIZE = -1;
+
+    /** Features served from cache. */
+    private final AtomicLong hitCount = new AtomicLong(0);
+
+    /** Features not found in cache. */
+    private final AtomicLong missCount = new AtomicLong(0);
+
+    /** Successful loads from target store. */
+    private final AtomicLong loadSuccessCount = new AtomicLong(0);
+
+    /** Failed loads from target store. */
+    private final AtomicLong loadFailureCount = new AtomicLong(0);
+
+    /** Cumulated load time in nanoseconds. */
+    private final AtomicLong totalLoadTime = new AtomicLong(0);
+
+    /** Features removed from cache (explicitly, expired or to bound size). */
+    private final AtomicLong evictionCount = new AtomicLong(0);
+
+    /** Number of loads per time slot. */
+    private final AtomicLongArray loadTimeHistogram = new AtomicLongArray(LOAD_TIME_BOUNDS.length + 1);
+
+    /** Cache to compute size, optional. */
+    private final FeatureCacheManager cacheManager;
+
+    /**
+     * Statistics without size.
+     */
+    public CacheStatistics() {
+        this(null);
+    }
+
+    /**
+     * Statistics of a cache manager, size is read from the cache when requested.
+     *
+     * @param cacheManager
+     *            observed cache
+     */
+    public CacheStatistics(FeatureCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Record a feature served from cache.
+     */
+    public void recordHit() {
+        hitCount.incrementAndGet();
+    }
+
+    /**
+     * Record a feature not found in cache.
+     */
+    public void recordMiss() {
+        missCount.incrementAndGet();
+    }
+
+    /**
+     * Record a successful load from target store.
+     *
+     * @param loadTimeNanos
+     *            load duration in nanoseconds
+     */
+    public void recordLoadSuccess(long loadTimeNanos) {
+        loadSuccessCount.incrementAndGet();
+        recordLoadTime(loadTimeNanos);
+    }
+
+    /**
+     * Record a failed load from target store.
+     *
+     * @param loadTimeNanos
+     *            load duration in nanoseconds
+     */
+    public void recordLoadFailure(long loadTimeNanos) {
+        loadFailureCount.incrementAndGet();
+        recordLoadTime(loadTimeNanos);
+    }
+
+    /**
+     * Record a feature removed from cache.
+     */
+    public void recordEviction() {
+        evictionCount.incrementAndGet();
+    }
+
+    /**
+     * Record several features removed from cache.
+     *
+     * @param count
+     *            number of features removed
+     */
+    public void recordEvictions(long count) {
+        evictionCount.addAndGet(count);
+    }
+
+    /**
+     * Add load time to total and histogram.
+     *
+     * @param loadTimeNanos
+     *            load duration in nanoseconds
+     */
+    private void recordLoadTime(long loadTimeNanos) {
+        totalLoadTime.addAndGet(loadTimeNanos);
+        long millis = TimeUnit.NANOSECONDS.toMillis(loadTimeNanos);
+        int slot = 0;
+        while (slot < LOAD_TIME_BOUNDS.length && millis > LOAD_TIME_BOUNDS[slot]) {
+            slot++;
+        }
+        loadTimeHistogram.incrementAndGet(slot);
+    }
+
+    /**
+     * Reset all counters.
+     */
+    public void reset() {
+        hitCount.set(0);
+        missCount.set(0);
+        loadSuccessCount.set(0);
+        loadFailureCount.set(0);
+        totalLoadTime.set(0);
+        evictionCount.set(0);
+        for (int i = 0; i < loadTimeHistogram.length(); i++) {
+            loadTimeHistogram.set(i, 0);
+        }
+    }
+
+    /**
+     * Number of requests (hits and misses).
+     *
+     * @return
+     *            number of requests
+     */
+    public long getRequestCount() {
+        return getHitCount() + getMissCount();
+    }
+
+    /**
+     * Ratio of requests served from cache.
+     *
+     * @return
+     *            hit rate between 0 and 1 (1 when no request)
+     */
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return (requests == 0) ? 1.0 : (double) getHitCount() / requests;
+    }
+
+    /**
+     * Number of loads from target store.
+     *
+     * @return
+     *            number of loads
+     */
+    public long getLoadCount() {
+        return getLoadSuccessCount() + getLoadFailureCount();
+    }
+
+    /**
+     * Average load time.
+     *
+     * @return
+     *            average load time in milliseconds (0 when no load)
+     */
+    public double getAverageLoadTime() {
+        long loads = getLoadCount();
+        return (loads == 0) ? 0.0 : (double) getTotalLoadTime() / loads / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Number of loads per duration slot, keys are labels like '&lt;=10ms' ordered by duration.
+     *
+     * @return
+     *            load time histogram
+     */
+    public Map<String, Long> getLoadTimeHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < LOAD_TIME_BOUNDS.length; i++) {
+            histogram.put("<=" + LOAD_TIME_BOUNDS[i] + "ms", loadTimeHistogram.get(i));
+        }
+        histogram.put(">" + LOAD_TIME_BOUNDS[LOAD_TIME_BOUNDS.length - 1] + "ms", 
+                loadTimeHistogram.get(LOAD_TIME_BOUNDS.length));
+        return histogram;
+    }
+
+    /**
+     * Getter accessor for attribute 'hitCount'.
+     *
+     * @return
+     *       current value of 'hitCount'
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'missCount'.
+     *
+     * @return
+     *       current value of 'missCount'
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'loadSuccessCount'.
+     *
+     * @return
+     *       current value of 'loadSuccessCount'
+     */
+    public long getLoadSuccessCount() {
+        return loadSuccessCount.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'loadFailureCount'.
+     *
+     * @return
+     *       current value of 'loadFailureCount'
+     */
+    public long getLoadFailureCount() {
+        return loadFailureCount.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'totalLoadTime'.
+     *
+     * @return
+     *       current value of 'totalLoadTime' in nanoseconds
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime.get();
+    }
+
+    /**
+     * Getter accessor for attribute 'evictionCount'.
+     *
+     * @return
+     *       current value of 'evictionCount'
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Number of features currently in cache.
+     *
+     * @return
+     *       current size, {@link #UNKNOWN_SIZE} if no cache manager
+     */
+    public long getSize() {
+        if (cacheManager == null) {
+            return UNKNOWN_SIZE;
+        }
+        return cacheManager.listCachedFeatureNames().size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "{\"hitCount\":" + getHitCount() + ",\"missCount\":" + getMissCount() 
+                + ",\"loadSuccessCount\":" + getLoadSuccessCount() + ",\"loadFailureCount\":" + getLoadFailureCount()
+                + ",\"averageLoadTime\":" + getAverageLoadTime() + ",\"evictionCount\":" + getEvictionCount() 
+                + ",\"size\":" + getSize() + "}";
+    }
+
+}
@@ -0,0 +1,449 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.ff4j.core.Feature;
+
+/**
+ * Concurrent and size-bounded in memory cache implementation.
+ * 
+ * Lookups are lock free (on a {@link ConcurrentHashMap}), eviction follows a segmented LRU : new entries
+ * go to a probation segment and are promoted to a protected segment when read again, victims are taken from
+ * probation first so a scan of features used once cannot flush the hot ones. Policy structures are guarded
+ * by a single lock, readers only try to acquire it to record an access and skip when it is busy.
+ * 
+ * Time-to-live is expire-after-write and identical for all entries : write order is also expiration order,
+ * entries are purged from the head of a write-ordered list in O(1) (no timer wheel is required).
+ * 
+ * Warn : as {@link InMemoryCacheManager} each node got its own cache, modifications in a shared store
+ * are seen only when entries expire.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class ConcurrentInMemoryCacheManager implements FeatureCacheManager {
+
+    /** Default TTL is one hour. */
+    public static final long DEFAULT_TTL = InMemoryCacheManager.DEFAULT_TTL;
+    
+    /** Default maximum number of features in cache. */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+    
+    /** Part of the cache dedicated to protected segment (features read at least twice). */
+    private static final double PROTECTED_RATIO = 0.8;
+    
+    /** Cached Feature Map. */
+    private final ConcurrentHashMap<String, Node> cache = new ConcurrentHashMap<String, Node>();
+    
+    /** Guard policy structures. */
+    private final ReentrantLock policyLock = new ReentrantLock();
+    
+    /** Entries read once, least recently used first. */
+    private final AccessList probation = new AccessList();
+    
+    /** Entries read more than once, least recently used first. */
+    private final AccessList protectedSegment = new AccessList();
+    
+    /** Sentinel of the write-ordered list (oldest first). */
+    private final Node writeOrder = new Node(null, null, 0);
+    
+    /** Maximum number of entries. */
+    private final int maximumSize;
+    
+    /** Maximum number of entries in protected segment. */
+    private final int maximumProtected;
+    
+    /** Time to live in seconds (expire after write), 0 means no expiration. */
+    private volatile long ttl = DEFAULT_TTL;
+    
+    /** Usage of cache. */
+    private final CacheStatistics statistics = new CacheStatistics(this);
+    
+    /**
+     * Default constructor with default maximum size.
+     */
+    public ConcurrentInMemoryCacheManager() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+    
+    /**
+     * Constructor with maximum size.
+     *
+     * @param maximumSize
+     *            maximum number of features in cache
+     */
+    public ConcurrentInMemoryCacheManager(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size (param#0) must be positive");
+        }
+        this.maximumSize      = maximumSize;
+        this.maximumProtected = (int) (maximumSize * PROTECTED_RATIO);
+        writeOrder.writePrev  = writeOrder;
+        writeOrder.writeNext  = writeOrder;
+    }
+
+    /**
+     * Constructor with maximum size and time to live.
+     *
+     * @param maximumSize
+     *            maximum number of features in cache
+     * @param ttl
+     *            time to live in seconds
+     */
+    public ConcurrentInMemoryCacheManager(int maximumSize, long ttl) {
+        this(maximumSize);
+        this.ttl = ttl;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        policyLock.lock();
+        try {
+            statistics.recordEvictions(cache.size());
+            cache.clear();
+            probation.reset();
+            protectedSegment.reset();
+            writeOrder.writePrev = writeOrder;
+            writeOrder.writeNext = writeOrder;
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void evict(String featureId) {
+        if (featureId == null) {
+            return;
+        }
+        policyLock.lock();
+        try {
+            Node node = cache.remove(featureId);
+            if (node != null) {
+                unlink(node);
+                statistics.recordEviction();
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void put(Feature feat) {
+        if (feat == null) {
+            throw new IllegalArgumentException("ff4j-core: Cannot insert null feature into cache");
+        }
+        if (feat.getUid() == null || feat.getUid().isEmpty()) {
+            throw new IllegalArgumentException("ff4j-core: Cannot insert feature with null identifier into cache");
+        }
+        long now = System.currentTimeMillis();
+        Node node = new Node(feat.getUid(), feat, now);
+        policyLock.lock();
+        try {
+            Node previous = cache.put(feat.getUid(), node);
+            if (previous != null) {
+                unlink(previous);
+            }
+            probation.addLast(node);
+            node.writePrev = writeOrder.writePrev;
+            node.writeNext = writeOrder;
+            writeOrder.writePrev.writeNext = node;
+            writeOrder.writePrev = node;
+            expireEntries(now);
+            evictEntries();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature get(String featureId) {
+        Node node = (featureId == null) ? null : cache.get(featureId);
+        if (node == null) {
+            // not in cache
+            return null;
+        }
+        if (isExpired(node, System.currentTimeMillis())) {
+            // it has reach its time-to-live
+            policyLock.lock();
+            try {
+                if (cache.remove(featureId, node)) {
+                    unlink(node);
+                    statistics.recordEviction();
+                }
+            } finally {
+                policyLock.unlock();
+            }
+            return null;
+        }
+        // Record access only if policy is available, reordering is best effort
+        if (policyLock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+        return node.value;
+    }
+    
+    /**
+     * Promote an entry read from the cache (policy lock held).
+     *
+     * @param node
+     *            entry read
+     */
+    private void onAccess(Node node) {
+        if (cache.get(node.key) != node) {
+            // Removed in the meantime
+            return;
+        }
+        if (node.segment == probation) {
+            probation.remove(node);
+            protectedSegment.addLast(node);
+            if (protectedSegment.size > maximumProtected) {
+                // Demote least recently used protected entry
+                Node demoted = protectedSegment.first();
+                protectedSegment.remove(demoted);
+                probation.addLast(demoted);
+            }
+        } else if (node.segment == protectedSegment) {
+            protectedSegment.remove(node);
+            protectedSegment.addLast(node);
+        }
+    }
+    
+    /**
+     * Remove expired entries, oldest first (policy lock held).
+     *
+     * @param now
+     *            current time
+     */
+    private void expireEntries(long now) {
+        Node oldest = writeOrder.writeNext;
+        while (oldest != writeOrder && isExpired(oldest, now)) {
+            cache.remove(oldest.key, oldest);
+            unlink(oldest);
+            statistics.recordEviction();
+            oldest = writeOrder.writeNext;
+        }
+    }
+    
+    /**
+     * Remove least recently used entries while cache exceeds its size, probation first (policy lock held).
+     */
+    private void evictEntries() {
+        while (probation.size + protectedSegment.size > maximumSize) {
+            Node victim = (probation.size > 0) ? probation.first() : protectedSegment.first();
+            cache.remove(victim.key, victim);
+            unlink(victim);
+            statistics.recordEviction();
+        }
+    }
+    
+    /**
+     * Remove entry from policy structures (policy lock held).
+     *
+     * @param node
+     *            target entry
+     */
+    private void unlink(Node node) {
+        if (node.segment != null) {
+            node.segment.remove(node);
+        }
+        if (node.writeNext != null) {
+            node.writePrev.writeNext = node.writeNext;
+            node.writeNext.writePrev = node.writePrev;
+            node.writePrev = null;
+            node.writeNext = null;
+        }
+    }
+    
+    /**
+     * Check time-to-live of an entry.
+     *
+     * @param node
+     *            target entry
+     * @param now
+     *            current time
+     * @return
+     *            if entry reached its time to live
+     */
+    private boolean isExpired(Node node, long now) {
+        long currentTtl = ttl;
+        return currentTtl > 0 && (now - node.writeTime) >= (InMemoryCacheManager.TO_MILLIS * currentTtl);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public String getCacheProviderName() {
+        return "In-Memory-Concurrent";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> listCachedFeatureNames() {
+        return new HashSet<String>(cache.keySet());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Object getNativeCache() {
+        return cache;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        return statistics;
+    }
+    
+    /**
+     * Number of features in cache (expired entries not purged yet included).
+     *
+     * @return
+     *      current size
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Getter accessor for attribute 'maximumSize'.
+     *
+     * @return
+     *       current value of 'maximumSize'
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Getter accessor for attribute 'ttl'.
+     * 
+     * @return current value of 'ttl'
+     */
+    public long getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Setter accessor for attribute 'ttl'.
+     * 
+     * @param ttl
+     *            new value for 'ttl '
+     */
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+    
+    /**
+     * Cache entry, linked in its segment and in write order.
+     */
+    private static final class Node {
+        
+        /** Feature identifier. */
+        private final String key;
+        
+        /** Cached feature. */
+        private final Feature value;
+        
+        /** Insertion date, allow to compute time-to-live. */
+        private final long writeTime;
+        
+        /** Current segment, null when removed. */
+        private AccessList segment;
+        
+        /** Neighbours in segment. */
+        private Node prev, next;
+        
+        /** Neighbours in write order. */
+        private Node writePrev, writeNext;
+        
+        /**
+         * Constructor with entry.
+         */
+        private Node(String key, Feature value, long writeTime) {
+            this.key       = key;
+            this.value     = value;
+            this.writeTime = writeTime;
+        }
+    }
+    
+    /**
+     * Doubly linked list of entries ordered by access, least recently used first.
+     */
+    private static final class AccessList {
+        
+        /** Sentinel. */
+        private final Node head = new Node(null, null, 0);
+        
+        /** Number of entries. */
+        private int size;
+        
+        /**
+         * Default constructor.
+         */
+        private AccessList() {
+            reset();
+        }
+        
+        /** Remove all entries. */
+        private void reset() {
+            head.prev = head;
+            head.next = head;
+            size = 0;
+        }
+        
+        /** Least recently used entry. */
+        private Node first() {
+            return head.next;
+        }
+        
+        /** Add as most recently used entry. */
+        private void addLast(Node node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+            node.segment = this;
+            size++;
+        }
+        
+        /** Remove entry from the list. */
+        private void remove(Node node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            node.segment = null;
+            size--;
+        }
+    }
+
+}
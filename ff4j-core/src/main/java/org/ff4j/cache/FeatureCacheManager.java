@@ -86,4 +86,11 @@ public interface FeatureCacheManager {
      */
     String getCacheProviderName();
 
+    /**
+     * Statistics of cache usage (hits, misses, loads, evictions and size).
+     * 
+     * @return statistics of this cache
+     */
+    CacheStatistics getCacheStatistics();
+
 }
@@ -0,0 +1,89 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.SortedMap;
+
+/**
+ * Log of modifications done on a shared {@link org.ff4j.core.FeatureStore}. Each modification creates a new store
+ * version (monotonically increasing), nodes poll the log to evict from their cache only the modified features.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public interface FeatureChangeLog {
+
+    /**
+     * Record the modification of a feature.
+     *
+     * @param featureUid
+     *            modified feature identifier
+     * @return
+     *            new store version
+     */
+    long recordChange(String featureUid);
+
+    /**
+     * Record the modification of several features at once (e.g. a group toggled), versions are allocated together.
+     *
+     * @param featureUids
+     *            modified features identifiers
+     * @return
+     *            new store version, the one of the last change recorded (current version if nothing to record)
+     */
+    long recordChanges(Collection<String> featureUids);
+
+    /**
+     * Current version of the store, version of the last modification recorded.
+     *
+     * @return
+     *            current store version (0 if no modification)
+     */
+    long getCurrentVersion();
+
+    /**
+     * Oldest version still available in log, previous ones have been purged. A version allocated but not recorded yet
+     * is not considered as purged.
+     *
+     * @return
+     *            oldest version in log, current version + 1 if log is empty
+     */
+    long getOldestVersion();
+
+    /**
+     * Read modifications recorded after a version.
+     *
+     * @param sinceVersion
+     *            last version already known
+     * @return
+     *            modified feature identifiers ordered by version
+     */
+    SortedMap<Long, String> readChanges(long sinceVersion);
+
+    /**
+     * Remove modifications older than a version.
+     *
+     * @param beforeVersion
+     *            first version to keep
+     */
+    void purge(long beforeVersion);
+
+}
@@ -0,0 +1,187 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Poll a {@link FeatureChangeLog} and evict from a {@link FeatureStoreCacheProxy} only the features modified by other
+ * nodes. When modifications cannot be known (log purged, missing versions) the whole cache is cleared.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureChangeLogPoller {
+
+    /** Default period between two polls in milliseconds. */
+    public static final long DEFAULT_PERIOD = 1000L;
+
+    /** Number of polls waiting for a missing version before clearing the whole cache. */
+    public static final int MAX_GAP_POLLS = 3;
+
+    /** Log of modifications. */
+    private final FeatureChangeLog changeLog;
+
+    /** Cache to invalidate. */
+    private final FeatureStoreCacheProxy cacheProxy;
+
+    /** Last version applied on cache. */
+    private volatile long lastVersion;
+
+    /** Number of polls blocked by a missing version. */
+    private int gapPolls = 0;
+
+    /** Scheduler, created on start. */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Initialization with log and cache, only modifications recorded from now are applied.
+     *
+     * @param changeLog
+     *            log of modifications
+     * @param cacheProxy
+     *            cache to invalidate
+     */
+    public FeatureChangeLogPoller(FeatureChangeLog changeLog, FeatureStoreCacheProxy cacheProxy) {
+        if (changeLog == null) {
+            throw new IllegalArgumentException("ChangeLog cannot be null");
+        }
+        if (cacheProxy == null) {
+            throw new IllegalArgumentException("CacheProxy cannot be null");
+        }
+        this.changeLog = changeLog;
+        this.cacheProxy = cacheProxy;
+        this.lastVersion = changeLog.getCurrentVersion();
+    }
+
+    /**
+     * Start polling with default period.
+     */
+    public void start() {
+        start(DEFAULT_PERIOD);
+    }
+
+    /**
+     * Start polling in a background daemon thread.
+     *
+     * @param periodMillis
+     *            period between two polls in milliseconds
+     */
+    public synchronized void start(long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new PollerThreadFactory());
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    poll();
+                } catch (RuntimeException e) {
+                    System.err.println("Cannot poll feature change log : " + e.getMessage());
+                }
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop polling.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Apply on cache modifications recorded since last poll.
+     */
+    public synchronized void poll() {
+        long current = changeLog.getCurrentVersion();
+        if (current <= lastVersion) {
+            return;
+        }
+        SortedMap<Long, String> changes = changeLog.readChanges(lastVersion);
+        if (changeLog.getOldestVersion() > lastVersion + 1) {
+            // Some modifications have been purged before being read
+            resync(current);
+            return;
+        }
+        long expected = lastVersion + 1;
+        for (Map.Entry<Long, String> change : changes.entrySet()) {
+            if (change.getKey() != expected) {
+                break;
+            }
+            cacheProxy.invalidate(change.getValue());
+            expected++;
+        }
+        lastVersion = expected - 1;
+        if (lastVersion >= current) {
+            gapPolls = 0;
+        } else if (++gapPolls >= MAX_GAP_POLLS) {
+            // Version allocated but never recorded, do not wait forever
+            resync(current);
+        }
+    }
+
+    /**
+     * Clear the whole cache and start again from a version.
+     *
+     * @param version
+     *            version to start from
+     */
+    private void resync(long version) {
+        cacheProxy.invalidateAll();
+        lastVersion = version;
+        gapPolls = 0;
+    }
+
+    /**
+     * Getter accessor for attribute 'lastVersion'.
+     *
+     * @return
+     *       current value of 'lastVersion'
+     */
+    public long getLastVersion() {
+        return lastVersion;
+    }
+
+    /**
+     * Create daemon threads for polling.
+     */
+    private static final class PollerThreadFactory implements ThreadFactory {
+
+        /** {@inheritDoc} */
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "ff4j-changelog-poller");
+            t.setDaemon(true);
+            return t;
+        }
+    }
+
+}
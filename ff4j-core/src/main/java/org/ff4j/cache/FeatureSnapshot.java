@@ -0,0 +1,237 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FlippingStrategy;
+
+/**
+ * Immutable, array-indexed view of the content of a {@link org.ff4j.core.FeatureStore} at a given version.
+ *
+ * Each feature is assigned a slot, state and permissions are copied into arrays so that evaluating a feature only
+ * requires a single hash lookup and a few array reads, without any call to the underlying store. Features are copied
+ * when the snapshot is built : stores modifying their features in place (in memory) do not alter a snapshot.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public final class FeatureSnapshot {
+
+    /** Snapshot without any feature. */
+    public static final FeatureSnapshot EMPTY = new FeatureSnapshot(0, new LinkedHashMap<String, Feature>());
+
+    /** Version of the snapshot, incremented on each rebuild. */
+    private final long version;
+
+    /** Unique identifier per slot. */
+    private final String[] uids;
+
+    /** Feature per slot. */
+    private final Feature[] features;
+
+    /** Status per slot. */
+    private final boolean[] enabled;
+
+    /** Permissions per slot (empty array if public). */
+    private final String[][] permissions;
+
+    /** Flipping strategy per slot (null if none). */
+    private final FlippingStrategy[] strategies;
+
+    /** Index : uid -> slot. */
+    private final Map<String, Integer> slots;
+
+    /** Read-only view of features. */
+    private final Map<String, Feature> featuresMap;
+
+    /** Read-only index : group -> features. */
+    private final Map<String, Map<String, Feature>> groups;
+
+    /**
+     * Compile features into a snapshot.
+     *
+     * @param version
+     *            version of the snapshot
+     * @param source
+     *            features read from store
+     */
+    public FeatureSnapshot(long version, Map<String, Feature> source) {
+        this.version = version;
+        int size = (source == null) ? 0 : source.size();
+        this.uids = new String[size];
+        this.features = new Feature[size];
+        this.enabled = new boolean[size];
+        this.permissions = new String[size][];
+        this.strategies = new FlippingStrategy[size];
+        Map<String, Integer> index = new HashMap<String, Integer>(size * 2);
+        Map<String, Feature> all = new LinkedHashMap<String, Feature>(size * 2);
+        Map<String, Map<String, Feature>> groupIndex = new HashMap<String, Map<String, Feature>>();
+        int slot = 0;
+        if (source != null) {
+            for (Feature sourceFeature : source.values()) {
+                Feature feat = new Feature(sourceFeature);
+                uids[slot] = feat.getUid();
+                features[slot] = feat;
+                enabled[slot] = feat.isEnable();
+                permissions[slot] = (feat.getPermissions() == null) ? new String[0]
+                        : feat.getPermissions().toArray(new String[feat.getPermissions().size()]);
+                strategies[slot] = feat.getFlippingStrategy();
+                index.put(feat.getUid(), slot);
+                all.put(feat.getUid(), feat);
+                String group = feat.getGroup();
+                if (group != null && !group.isEmpty()) {
+                    if (!groupIndex.containsKey(group)) {
+                        groupIndex.put(group, new LinkedHashMap<String, Feature>());
+                    }
+                    groupIndex.get(group).put(feat.getUid(), feat);
+                }
+                slot++;
+            }
+        }
+        for (Map.Entry<String, Map<String, Feature>> group : groupIndex.entrySet()) {
+            group.setValue(Collections.unmodifiableMap(group.getValue()));
+        }
+        this.slots = index;
+        this.featuresMap = Collections.unmodifiableMap(all);
+        this.groups = groupIndex;
+    }
+
+    /**
+     * Retrieve slot of a feature.
+     *
+     * @param uid
+     *            feature unique identifier
+     * @return slot or -1 if the feature does not exist
+     */
+    public int slotOf(String uid) {
+        Integer slot = slots.get(uid);
+        return (slot == null) ? -1 : slot.intValue();
+    }
+
+    /**
+     * Number of features in the snapshot.
+     *
+     * @return number of slots
+     */
+    public int size() {
+        return uids.length;
+    }
+
+    /**
+     * Unique identifier of feature at target slot.
+     *
+     * @param slot
+     *            target slot
+     * @return feature identifier
+     */
+    public String getUid(int slot) {
+        return uids[slot];
+    }
+
+    /**
+     * Status of feature at target slot.
+     *
+     * @param slot
+     *            target slot
+     * @return if the feature is enabled
+     */
+    public boolean isEnable(int slot) {
+        return enabled[slot];
+    }
+
+    /**
+     * Permissions of feature at target slot (do not modify the array).
+     *
+     * @param slot
+     *            target slot
+     * @return expected roles, empty if the feature is public
+     */
+    public String[] getPermissions(int slot) {
+        return permissions[slot];
+    }
+
+    /**
+     * Strategy of feature at target slot.
+     *
+     * @param slot
+     *            target slot
+     * @return flipping strategy or null
+     */
+    public FlippingStrategy getFlippingStrategy(int slot) {
+        return strategies[slot];
+    }
+
+    /**
+     * Feature at target slot.
+     *
+     * @param slot
+     *            target slot
+     * @return feature
+     */
+    public Feature getFeature(int slot) {
+        return features[slot];
+    }
+
+    /**
+     * Read-only view of features.
+     *
+     * @return features indexed by uid
+     */
+    public Map<String, Feature> getFeatures() {
+        return featuresMap;
+    }
+
+    /**
+     * Read-only view of the features within a group.
+     *
+     * @param groupName
+     *            target group
+     * @return features of the group or null if group does not exist
+     */
+    public Map<String, Feature> getGroup(String groupName) {
+        return groups.get(groupName);
+    }
+
+    /**
+     * List of groups.
+     *
+     * @return group names
+     */
+    public Set<String> getGroupNames() {
+        return new HashSet<String>(groups.keySet());
+    }
+
+    /**
+     * Getter accessor for attribute 'version'.
+     *
+     * @return current value of 'version'
+     */
+    public long getVersion() {
+        return version;
+    }
+
+}
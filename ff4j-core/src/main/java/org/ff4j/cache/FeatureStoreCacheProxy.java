@@ -20,11 +20,33 @@ package org.ff4j.cache;
  * #L%
  */
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureAccessException;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.exception.GroupNotFoundException;
 
 /**
  * Access to {@link FeatureStore} could generate some overhead and decrease performances. This is the reason why cache is provided
@@ -33,6 +55,10 @@ import org.ff4j.core.FeatureStore;
  * As applications are distributed, the cache itself could be distributed. The default implement is
  * {@link InMemoryFeatureStoreCacheProxy} but other are provided to use distributed cache system as redis or memcached.
  * 
+ * Full reads (readAll, groups) can also be served from a snapshot of the whole store, this is opt-in through
+ * {@link #setSnapshotTtl(long)} : unlike cached features the snapshot is only invalidated by modifications made through
+ * this proxy or recorded in the change log, choose a time to live close to the one of the cache manager.
+ * 
  * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
  */
 public class FeatureStoreCacheProxy implements FeatureStore {
@@ -42,6 +68,45 @@ public class FeatureStoreCacheProxy implements FeatureStore {
 
     /** cache manager. */
     private FeatureCacheManager cacheManager;
+    
+    /** Time to live of the full snapshot (readAll, groups) in seconds, 0 (default) to disable. */
+    private long snapshotTtl = 0;
+    
+    /** Incremented for each modification through this proxy, invalidate snapshot. */
+    private final AtomicLong version = new AtomicLong(0);
+    
+    /** Full snapshot of target store with group index. */
+    private volatile StoreSnapshot snapshot;
+    
+    /** Age in seconds after which a feature read from cache is reloaded in background, 0 to disable. */
+    private long refreshAfter = 0;
+    
+    /** Maximum age in seconds of a feature served while reloaded when no more in cache, 0 to disable. */
+    private long maxStaleness = 0;
+    
+    /** Last features loaded from target with their loading date (only if refresh is enabled). */
+    private final ConcurrentMap<String, LoadedFeature> loadedFeatures = new ConcurrentHashMap<String, LoadedFeature>();
+    
+    /** Features currently reloaded in background, one reload per feature. */
+    private final ConcurrentMap<String, Boolean> refreshing = new ConcurrentHashMap<String, Boolean>();
+    
+    /** Snapshot currently reloaded in background. */
+    private final AtomicBoolean refreshingSnapshot = new AtomicBoolean(false);
+    
+    /** Log where modifications are recorded for other nodes (optional). */
+    private FeatureChangeLog changeLog;
+    
+    /** Features known as missing in target, for a short time. */
+    private final NegativeCache missingFeatures = new NegativeCache();
+    
+    /** Loads from target in progress, concurrent misses on a feature share the same load. */
+    private final ConcurrentMap<String, FutureTask<Feature>> inFlight = new ConcurrentHashMap<String, FutureTask<Feature>>();
+    
+    /** Load of snapshot in progress, concurrent callers share the same readAll. */
+    private final AtomicReference<FutureTask<StoreSnapshot>> snapshotInFlight = new AtomicReference<FutureTask<StoreSnapshot>>();
+    
+    /** Executor to reload features in background. */
+    private volatile ExecutorService refreshExecutor;
 
     /**
      * Allow Ioc and defeine default constructor.
@@ -67,7 +132,7 @@ public class FeatureStoreCacheProxy implements FeatureStore {
         // Reach target
         getTarget().enable(featureId);
         // Modification => flush cache
-        getCacheManager().evict(featureId);
+        modified(featureId);
     }
 
     /** {@inheritDoc} */
@@ -76,51 +141,149 @@ public class FeatureStoreCacheProxy implements FeatureStore {
         // Reach target
         getTarget().disable(featureId);
         // Cache Operations : As modification, flush cache for this
-        getCacheManager().evict(featureId);
+        modified(featureId);
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean exist(String featureId) {
+        if (getCacheManager().get(featureId) != null) {
+            statistics().recordHit();
+            return true;
+        }
+        // recently checked as missing, may be created since but only for a short time
+        if (missingFeatures.contains(featureId)) {
+            statistics().recordHit();
+            return false;
+        }
         // not in cache but maybe created from last access
-        if (getCacheManager().get(featureId) == null) {
-            return getTarget().exist(featureId);
+        statistics().recordMiss();
+        boolean exist = getTarget().exist(featureId);
+        if (!exist) {
+            missingFeatures.add(featureId);
         }
-        return true;
+        return exist;
     }
 
     /** {@inheritDoc} */
     @Override
     public void create(Feature fp) {
         getTarget().create(fp);
-        getCacheManager().put(fp);
-        getCacheManager().evict(fp.getUid());
+        modified(fp.getUid());
     }
 
     /** {@inheritDoc} */
     @Override
     public Feature read(String featureUid) {
-        Feature fp = getCacheManager().get(featureUid);
-        // not in cache but may has been created from now
+        if (featureUid == null || featureUid.isEmpty()) {
+            // Target store will raise the relevant error
+            return getTarget().read(featureUid);
+        }
+        Feature fp = lookup(featureUid);
         if (null == fp) {
-            fp = getTarget().read(featureUid);
-            getCacheManager().put(fp);
+            throw new FeatureNotFoundException(featureUid);
         }
         return fp;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Feature findIfExists(String featureUid) {
+        if (featureUid == null || featureUid.isEmpty()) {
+            // Target store will raise the relevant error
+            return getTarget().findIfExists(featureUid);
+        }
+        return lookup(featureUid);
+    }
+    
+    /**
+     * Read feature from cache, stale value or missing features, then from target.
+     *
+     * @param featureUid
+     *            feature identifier
+     * @return
+     *            feature or null if it does not exist
+     */
+    private Feature lookup(String featureUid) {
+        Feature fp = getCacheManager().get(featureUid);
+        if (null != fp) {
+            refreshAhead(featureUid);
+        } else {
+            // expired but could be served while reloaded
+            fp = readStale(featureUid);
+        }
+        if (null != fp || missingFeatures.contains(featureUid)) {
+            statistics().recordHit();
+            return fp;
+        }
+        // not in cache but may has been created from now
+        statistics().recordMiss();
+        return loadSingleFlight(featureUid);
+    }
+
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readAll() {
-        // Cannot be sure of whole cache - do not test any feature one-by-one : accessing FeatureStore
-        return getTarget().readAll();
+        // Whole store is cached as a single snapshot, not feature per feature
+        StoreSnapshot current = getSnapshot();
+        if (current == null) {
+            return getTarget().readAll();
+        }
+        return new LinkedHashMap<String, Feature>(current.features);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readMany(Set<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        Set<String> missing = new HashSet<String>();
+        for (String featureId : featureIds) {
+            Feature fp = getCacheManager().get(featureId);
+            if (fp == null && !missingFeatures.contains(featureId)) {
+                statistics().recordMiss();
+                missing.add(featureId);
+            } else {
+                statistics().recordHit();
+                if (fp != null) {
+                    features.put(featureId, fp);
+                }
+            }
+        }
+        // Features not in cache are read from target in a single operation
+        if (!missing.isEmpty()) {
+            long start = System.nanoTime();
+            Map<String, Feature> loaded;
+            try {
+                loaded = getTarget().readMany(missing);
+            } catch (RuntimeException re) {
+                statistics().recordLoadFailure(System.nanoTime() - start);
+                throw re;
+            }
+            statistics().recordLoadSuccess(System.nanoTime() - start);
+            for (Feature fp : loaded.values()) {
+                cacheLoaded(fp);
+                features.put(fp.getUid(), fp);
+                missing.remove(fp.getUid());
+            }
+            // Remaining identifiers do not exist in target
+            for (String featureId : missing) {
+                missingFeatures.add(featureId);
+            }
+        }
+        return features;
     }
 
     /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
-        // Cannot be sure of whole cache - do not test any feature one-by-one : accessing FeatureStore
-        return getTarget().readAllGroups();
+        StoreSnapshot current = getSnapshot();
+        if (current == null) {
+            return getTarget().readAllGroups();
+        }
+        return new HashSet<String>(current.groups.keySet());
     }
 
     /** {@inheritDoc} */
@@ -129,72 +292,471 @@ public class FeatureStoreCacheProxy implements FeatureStore {
         // Access target store
         getTarget().delete(featureId);
         // even is not present, evict won't failed
-        getCacheManager().evict(featureId);
+        modified(featureId);
     }
 
     /** {@inheritDoc} */
     @Override
     public void update(Feature fp) {
         getTarget().update(fp);
-        getCacheManager().evict(fp.getUid());
+        modified(fp.getUid());
     }
 
     /** {@inheritDoc} */
     @Override
     public void grantRoleOnFeature(String featureId, String roleName) {
         getTarget().grantRoleOnFeature(featureId, roleName);
-        getCacheManager().evict(featureId);
+        modified(featureId);
     }
 
     /** {@inheritDoc} */
     @Override
     public void removeRoleFromFeature(String featureId, String roleName) {
         getTarget().removeRoleFromFeature(featureId, roleName);
-        getCacheManager().evict(featureId);
+        modified(featureId);
     }
 
     /** {@inheritDoc} */
     @Override
     public void enableGroup(String groupName) {
         getTarget().enableGroup(groupName);
-        // Cannot know wich feature to work with (exceptional event) : flush cache
-        getCacheManager().clear();
+        modifiedGroup(groupName);
     }
 
     /** {@inheritDoc} */
     @Override
     public void disableGroup(String groupName) {
         getTarget().disableGroup(groupName);
-        // Cannot know wich feature to work with (exceptional event) : flush cache
-        getCacheManager().clear();
+        modifiedGroup(groupName);
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean existGroup(String groupName) {
-        // Cache cannot help you
-        return getTarget().existGroup(groupName);
+        if (groupName == null || groupName.isEmpty()) {
+            throw new IllegalArgumentException("Groupname cannot be null nor empty");
+        }
+        StoreSnapshot current = getSnapshot();
+        if (current == null) {
+            return getTarget().existGroup(groupName);
+        }
+        return current.groups.containsKey(groupName);
     }
 
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readGroup(String groupName) {
-        // Cache cannot help you
-        return getTarget().readGroup(groupName);
+        if (groupName == null || groupName.isEmpty()) {
+            throw new IllegalArgumentException("Groupname cannot be null nor empty");
+        }
+        StoreSnapshot current = getSnapshot();
+        if (current == null) {
+            return getTarget().readGroup(groupName);
+        }
+        Set<String> members = current.groups.get(groupName);
+        if (members == null) {
+            throw new GroupNotFoundException(groupName);
+        }
+        Map<String, Feature> features = new HashMap<String, Feature>();
+        for (String uid : members) {
+            features.put(uid, current.features.get(uid));
+        }
+        return features;
     }
 
     /** {@inheritDoc} */
     @Override
     public void addToGroup(String featureId, String groupName) {
         getTarget().addToGroup(featureId, groupName);
-        getCacheManager().evict(featureId);
+        modified(featureId);
     }
 
     /** {@inheritDoc} */
     @Override
     public void removeFromGroup(String featureId, String groupName) {
         getTarget().removeFromGroup(featureId, groupName);
+        modified(featureId);
+    }
+
+    /**
+     * Retrieve current snapshot of the target store, loading it when missing, outdated or expired.
+     *
+     * @return
+     *      current snapshot or null if snapshot is disabled
+     */
+    private StoreSnapshot getSnapshot() {
+        if (snapshotTtl <= 0) {
+            return null;
+        }
+        StoreSnapshot current = snapshot;
+        long currentVersion = version.get();
+        if (current != null && current.version == currentVersion) {
+            long age = System.currentTimeMillis() - current.loadedAt;
+            if (age < (InMemoryCacheManager.TO_MILLIS * snapshotTtl)) {
+                return current;
+            }
+            if (age < InMemoryCacheManager.TO_MILLIS * (snapshotTtl + maxStaleness)) {
+                // Expired but not modified locally : serve it while reloaded
+                refreshSnapshot();
+                return current;
+            }
+        }
+        return loadSnapshot(currentVersion);
+    }
+    
+    /**
+     * Load snapshot from target.
+     *
+     * @param currentVersion
+     *            version read before accessing target
+     * @return
+     *            new snapshot
+     */
+    private StoreSnapshot loadSnapshot(final long currentVersion) {
+        FutureTask<StoreSnapshot> flight = snapshotInFlight.get();
+        if (flight == null) {
+            FutureTask<StoreSnapshot> created = new FutureTask<StoreSnapshot>(new Callable<StoreSnapshot>() {
+                public StoreSnapshot call() {
+                    // Version is read before target, a concurrent modification outdates the loaded snapshot
+                    StoreSnapshot loaded = new StoreSnapshot(currentVersion, getTarget().readAll());
+                    snapshot = loaded;
+                    return loaded;
+                }
+            });
+            if (snapshotInFlight.compareAndSet(null, created)) {
+                flight = created;
+                try {
+                    created.run();
+                } finally {
+                    snapshotInFlight.compareAndSet(created, null);
+                }
+            } else {
+                flight = snapshotInFlight.get();
+                if (flight == null) {
+                    // Completed in the meantime
+                    return loadSnapshot(currentVersion);
+                }
+            }
+        }
+        return awaitLoad(flight);
+    }
+    
+    /**
+     * Load feature from target, concurrent misses for the same feature share a single load.
+     *
+     * @param featureUid
+     *            feature identifier
+     * @return
+     *            feature or null if it does not exist
+     */
+    private Feature loadSingleFlight(final String featureUid) {
+        FutureTask<Feature> flight = inFlight.get(featureUid);
+        if (flight == null) {
+            final long currentVersion = version.get();
+            FutureTask<Feature> created = new FutureTask<Feature>(new Callable<Feature>() {
+                public Feature call() {
+                    Feature fp = loadFromTarget(featureUid);
+                    // Do not cache value read before a modification
+                    if (currentVersion == version.get()) {
+                        if (fp != null) {
+                            cacheLoaded(fp);
+                        } else {
+                            missingFeatures.add(featureUid);
+                        }
+                    }
+                    return fp;
+                }
+            });
+            flight = inFlight.putIfAbsent(featureUid, created);
+            if (flight == null) {
+                flight = created;
+                try {
+                    created.run();
+                } finally {
+                    inFlight.remove(featureUid, created);
+                }
+            }
+        }
+        return awaitLoad(flight);
+    }
+    
+    /**
+     * Read feature from target store, duration is recorded in statistics.
+     *
+     * @param featureUid
+     *            feature identifier
+     * @return
+     *            feature or null if it does not exist
+     */
+    private Feature loadFromTarget(String featureUid) {
+        long start = System.nanoTime();
+        Feature fp;
+        try {
+            fp = getTarget().findIfExists(featureUid);
+        } catch (RuntimeException re) {
+            statistics().recordLoadFailure(System.nanoTime() - start);
+            throw re;
+        }
+        statistics().recordLoadSuccess(System.nanoTime() - start);
+        return fp;
+    }
+    
+    /**
+     * Wait for a shared load and propagate its error.
+     *
+     * @param flight
+     *            load in progress
+     * @return
+     *            loaded value
+     */
+    private <T> T awaitLoad(FutureTask<T> flight) {
+        try {
+            return flight.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new FeatureAccessException("Interrupted while loading from target store", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new FeatureAccessException("Cannot load from target store", cause);
+        }
+    }
+    
+    /**
+     * Reload snapshot in background, only once at a time.
+     */
+    private void refreshSnapshot() {
+        if (refreshingSnapshot.compareAndSet(false, true)) {
+            try {
+                getRefreshExecutor().execute(new Runnable() {
+                    public void run() {
+                        try {
+                            loadSnapshot(version.get());
+                        } catch (RuntimeException ex) {
+                            // Target not available, stale snapshot is served until max staleness
+                        } finally {
+                            refreshingSnapshot.set(false);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException ree) {
+                refreshingSnapshot.set(false);
+            }
+        }
+    }
+    
+    /**
+     * Put a feature loaded from target in cache and keep its loading date for refreshes.
+     *
+     * @param fp
+     *            feature loaded from target
+     */
+    private void cacheLoaded(Feature fp) {
+        getCacheManager().put(fp);
+        if (refreshAfter > 0 || maxStaleness > 0) {
+            loadedFeatures.put(fp.getUid(), new LoadedFeature(fp));
+        }
+    }
+    
+    /**
+     * Evict a feature from cache after a modification, it cannot be served stale anymore.
+     *
+     * @param featureId
+     *            feature identifier
+     */
+    private void evict(String featureId) {
         getCacheManager().evict(featureId);
+        if (featureId != null) {
+            loadedFeatures.remove(featureId);
+            missingFeatures.remove(featureId);
+            // Next miss must not join a load started before the modification
+            inFlight.remove(featureId);
+        }
+    }
+    
+    /**
+     * Reload feature in background if it is about to expire (refresh-ahead).
+     *
+     * @param featureUid
+     *            feature identifier
+     */
+    private void refreshAhead(String featureUid) {
+        if (refreshAfter > 0) {
+            LoadedFeature loaded = loadedFeatures.get(featureUid);
+            if (loaded != null && loaded.age() >= InMemoryCacheManager.TO_MILLIS * refreshAfter) {
+                refresh(featureUid);
+            }
+        }
+    }
+    
+    /**
+     * Serve last loaded value of a feature no more in cache and reload it in background (stale-while-revalidate).
+     *
+     * @param featureUid
+     *            feature identifier
+     * @return
+     *            last loaded feature or null if too old
+     */
+    private Feature readStale(String featureUid) {
+        if (maxStaleness <= 0 || featureUid == null) {
+            return null;
+        }
+        LoadedFeature loaded = loadedFeatures.get(featureUid);
+        if (loaded == null) {
+            return null;
+        }
+        if (loaded.age() >= InMemoryCacheManager.TO_MILLIS * maxStaleness) {
+            loadedFeatures.remove(featureUid, loaded);
+            return null;
+        }
+        refresh(featureUid);
+        return loaded.feature;
+    }
+    
+    /**
+     * Reload feature from target in background, only once at a time for a feature.
+     *
+     * @param featureUid
+     *            feature identifier
+     */
+    private void refresh(final String featureUid) {
+        if (refreshing.putIfAbsent(featureUid, Boolean.TRUE) != null) {
+            // Already reloading
+            return;
+        }
+        try {
+            getRefreshExecutor().execute(new Runnable() {
+                public void run() {
+                    try {
+                        long currentVersion = version.get();
+                        Feature fp = loadFromTarget(featureUid);
+                        // Ignore result if a modification happened in the meantime
+                        if (currentVersion == version.get()) {
+                            if (fp != null) {
+                                cacheLoaded(fp);
+                            } else {
+                                evict(featureUid);
+                            }
+                        }
+                    } catch (RuntimeException ex) {
+                        // Target not available, stale value is served until max staleness
+                    } finally {
+                        refreshing.remove(featureUid);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            refreshing.remove(featureUid);
+        }
+    }
+    
+    /**
+     * Retrieve (or create) executor to reload features, threads are daemon.
+     *
+     * @return
+     *      executor for background reloads
+     */
+    private ExecutorService getRefreshExecutor() {
+        ExecutorService executor = refreshExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = refreshExecutor;
+                if (executor == null) {
+                    executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                            new LinkedBlockingQueue<Runnable>(), new RefreshThreadFactory());
+                    refreshExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+    
+    /**
+     * Drop snapshot after a modification.
+     */
+    private void invalidateSnapshot() {
+        version.incrementAndGet();
+        snapshot = null;
+        // Next readAll must not join a load started before the modification
+        snapshotInFlight.set(null);
+    }
+    
+    /**
+     * Identifiers of features in a group, read from target after modifying it.
+     *
+     * @param groupName
+     *            target group name
+     * @return
+     *            features identifiers, empty if group is unknown
+     */
+    private Set<String> readGroupMembers(String groupName) {
+        try {
+            return new HashSet<String>(getTarget().readGroup(groupName).keySet());
+        } catch (GroupNotFoundException gnfe) {
+            // Group emptied concurrently
+            return Collections.emptySet();
+        }
+    }
+    
+    /**
+     * Forget a feature after a modification through this proxy and record it for other nodes. Subclasses may override
+     * to notify other nodes differently, calling super.
+     *
+     * @param featureId
+     *            modified feature identifier
+     */
+    protected void modified(String featureId) {
+        evict(featureId);
+        invalidateSnapshot();
+        if (changeLog != null && featureId != null) {
+            changeLog.recordChange(featureId);
+        }
+    }
+    
+    /**
+     * Forget everything after a group modification through this proxy : members are not read before the write, so
+     * features joining the group concurrently are covered too. Members are read after the write only to be recorded for
+     * other nodes, in a single change. Subclasses overriding {@link #modified(String)} should override this method too,
+     * calling super.
+     *
+     * @param groupName
+     *            modified group name
+     */
+    protected void modifiedGroup(String groupName) {
+        invalidateAll();
+        if (changeLog != null) {
+            Set<String> members = readGroupMembers(groupName);
+            if (!members.isEmpty()) {
+                changeLog.recordChanges(members);
+            }
+        }
+    }
+    
+    /**
+     * Forget a feature modified by another node (cache, snapshot and missing features).
+     *
+     * @param featureUid
+     *            modified feature identifier
+     */
+    public void invalidate(String featureUid) {
+        evict(featureUid);
+        invalidateSnapshot();
+    }
+    
+    /**
+     * Forget everything when modifications from other nodes are unknown.
+     */
+    public void invalidateAll() {
+        getCacheManager().clear();
+        loadedFeatures.clear();
+        missingFeatures.clear();
+        inFlight.clear();
+        invalidateSnapshot();
     }
 
     /**
@@ -219,6 +781,137 @@ public class FeatureStoreCacheProxy implements FeatureStore {
         this.target = target;
     }
 
+    /**
+     * Getter accessor for attribute 'snapshotTtl'.
+     *
+     * @return
+     *       current value of 'snapshotTtl'
+     */
+    public long getSnapshotTtl() {
+        return snapshotTtl;
+    }
+
+    /**
+     * Setter accessor for attribute 'snapshotTtl', 0 (default) disable caching of readAll and groups.
+     * 
+     * @param snapshotTtl
+     *            new value for 'snapshotTtl' in seconds
+     */
+    public void setSnapshotTtl(long snapshotTtl) {
+        this.snapshotTtl = snapshotTtl;
+        invalidateSnapshot();
+    }
+
+    /**
+     * Getter accessor for attribute 'refreshAfter'.
+     *
+     * @return
+     *       current value of 'refreshAfter'
+     */
+    public long getRefreshAfter() {
+        return refreshAfter;
+    }
+
+    /**
+     * Setter accessor for attribute 'refreshAfter', should be lower than cache time-to-live.
+     * 
+     * @param refreshAfter
+     *            new value for 'refreshAfter' in seconds
+     */
+    public void setRefreshAfter(long refreshAfter) {
+        this.refreshAfter = refreshAfter;
+    }
+
+    /**
+     * Getter accessor for attribute 'maxStaleness'.
+     *
+     * @return
+     *       current value of 'maxStaleness'
+     */
+    public long getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    /**
+     * Setter accessor for attribute 'maxStaleness'.
+     * 
+     * @param maxStaleness
+     *            new value for 'maxStaleness' in seconds
+     */
+    public void setMaxStaleness(long maxStaleness) {
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * Getter accessor for time to live of missing features.
+     *
+     * @return
+     *       time to live of missing features in seconds
+     */
+    public long getNegativeTtl() {
+        return missingFeatures.getTtl();
+    }
+
+    /**
+     * Setter accessor for time to live of missing features, 0 disable negative caching.
+     * 
+     * @param negativeTtl
+     *            time to live of missing features in seconds
+     */
+    public void setNegativeTtl(long negativeTtl) {
+        missingFeatures.setTtl(negativeTtl);
+    }
+
+    /**
+     * Statistics of cache usage, recorded in the statistics of cache manager.
+     *
+     * @return
+     *       cache statistics
+     */
+    public CacheStatistics getCacheStatistics() {
+        return getCacheManager().getCacheStatistics();
+    }
+    
+    /**
+     * Shortcut to record statistics.
+     *
+     * @return
+     *       cache statistics
+     */
+    private CacheStatistics statistics() {
+        return getCacheManager().getCacheStatistics();
+    }
+
+    /**
+     * Getter accessor for attribute 'changeLog'.
+     *
+     * @return
+     *       current value of 'changeLog'
+     */
+    public FeatureChangeLog getChangeLog() {
+        return changeLog;
+    }
+
+    /**
+     * Setter accessor for attribute 'changeLog', modifications through this proxy will be recorded.
+     * 
+     * @param changeLog
+     *            new value for 'changeLog '
+     */
+    public void setChangeLog(FeatureChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Setter accessor for attribute 'refreshExecutor' to provide an executor for background reloads.
+     * 
+     * @param refreshExecutor
+     *            new value for 'refreshExecutor '
+     */
+    public void setRefreshExecutor(ExecutorService refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+    }
+
     /**
      * Getter accessor for attribute 'cacheManager'.
      * 
@@ -260,5 +953,97 @@ public class FeatureStoreCacheProxy implements FeatureStore {
     public String getCachedTargetStore() {
         return target.getClass().getCanonicalName();
     }
+    
+    /**
+     * Feature loaded from target with its loading date.
+     */
+    private static final class LoadedFeature {
+        
+        /** Loaded feature. */
+        private final Feature feature;
+        
+        /** Loading date. */
+        private final long loadedAt = System.currentTimeMillis();
+        
+        /**
+         * Constructor with feature.
+         *
+         * @param feature
+         *            loaded feature
+         */
+        private LoadedFeature(Feature feature) {
+            this.feature = feature;
+        }
+        
+        /**
+         * Time since loading in milliseconds.
+         *
+         * @return
+         *      age of loaded value
+         */
+        private long age() {
+            return System.currentTimeMillis() - loadedAt;
+        }
+    }
+    
+    /**
+     * Create daemon threads for background reloads.
+     */
+    private static final class RefreshThreadFactory implements ThreadFactory {
+        
+        /** Thread counter. */
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        
+        /** {@inheritDoc} */
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "ff4j-cache-refresh-" + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+    
+    /**
+     * Immutable copy of the target store with group index.
+     */
+    private static final class StoreSnapshot {
+        
+        /** Proxy version when loading. */
+        private final long version;
+        
+        /** Loading date, allow to compute time-to-live. */
+        private final long loadedAt = System.currentTimeMillis();
+        
+        /** Features by identifier. */
+        private final Map<String, Feature> features;
+        
+        /** Group index : < GroupName | Features identifiers >. */
+        private final Map<String, Set<String>> groups;
+        
+        /**
+         * Build snapshot and group index.
+         *
+         * @param version
+         *            proxy version when loading
+         * @param features
+         *            features read from target
+         */
+        private StoreSnapshot(long version, Map<String, Feature> features) {
+            this.version  = version;
+            this.features = Collections.unmodifiableMap(new LinkedHashMap<String, Feature>(features));
+            Map<String, Set<String>> index = new HashMap<String, Set<String>>();
+            for (Feature feature : features.values()) {
+                String group = feature.getGroup();
+                if (group != null && !group.isEmpty()) {
+                    Set<String> members = index.get(group);
+                    if (members == null) {
+                        members = new HashSet<String>();
+                        index.put(group, members);
+                    }
+                    members.add(feature.getUid());
+                }
+            }
+            this.groups = index;
+        }
+    }
 
 }
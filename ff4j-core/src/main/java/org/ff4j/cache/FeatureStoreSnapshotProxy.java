@@ -0,0 +1,313 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.exception.GroupNotFoundException;
+
+/**
+ * Proxy compiling the content of target {@link FeatureStore} into an immutable {@link FeatureSnapshot}.
+ *
+ * Reads (and {@link org.ff4j.FF4j#check(String)}) are served from the current snapshot without any call to the target
+ * store nor any lock. Each write goes to the target store and then rebuilds the snapshot which is swapped atomically.
+ * A rebuild reads all features from the target store : a write costs O(N), the proxy fits stores read far more often
+ * than they are modified. Features returned by reads are copies, the instances of the snapshot are never exposed.
+ *
+ * Warn : modifications performed on the target store by another node (shared database) are not seen until
+ * {@link #refresh()} is invoked.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureStoreSnapshotProxy implements FeatureStore {
+
+    /** Target feature store to be compiled. */
+    private FeatureStore target;
+
+    /** Current snapshot, replaced on each write. */
+    private volatile FeatureSnapshot snapshot;
+
+    /**
+     * Allow Ioc and define default constructor.
+     */
+    public FeatureStoreSnapshotProxy() {}
+
+    /**
+     * Initialization through constructor.
+     *
+     * @param store
+     *            target store to retrieve features
+     */
+    public FeatureStoreSnapshotProxy(FeatureStore store) {
+        this.target = store;
+        refresh();
+    }
+
+    /**
+     * Reload all features from target store and swap the snapshot.
+     */
+    public synchronized void refresh() {
+        long version = (snapshot == null) ? 1 : snapshot.getVersion() + 1;
+        snapshot = new FeatureSnapshot(version, getTarget().readAll());
+    }
+
+    /**
+     * Access current snapshot (loaded on first access).
+     *
+     * @return current snapshot
+     */
+    public FeatureSnapshot getSnapshot() {
+        FeatureSnapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void enable(String featureId) {
+        getTarget().enable(featureId);
+        refresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void disable(String featureId) {
+        getTarget().disable(featureId);
+        refresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean exist(String featureId) {
+        if (featureId == null || featureId.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
+        }
+        return getSnapshot().slotOf(featureId) >= 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void create(Feature fp) {
+        getTarget().create(fp);
+        refresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature read(String featureUid) {
+        if (featureUid == null || featureUid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
+        }
+        FeatureSnapshot current = getSnapshot();
+        int slot = current.slotOf(featureUid);
+        if (slot < 0) {
+            throw new FeatureNotFoundException(featureUid);
+        }
+        return new Feature(current.getFeature(slot));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature findIfExists(String featureUid) {
+        if (featureUid == null || featureUid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
+        }
+        FeatureSnapshot current = getSnapshot();
+        int slot = current.slotOf(featureUid);
+        return (slot < 0) ? null : new Feature(current.getFeature(slot));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readAll() {
+        return copyOf(getSnapshot().getFeatures());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readMany(Set<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        FeatureSnapshot current = getSnapshot();
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        for (String featureId : featureIds) {
+            int slot = current.slotOf(featureId);
+            if (slot >= 0) {
+                features.put(featureId, new Feature(current.getFeature(slot)));
+            }
+        }
+        return features;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void delete(String featureId) {
+        getTarget().delete(featureId);
+        refresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void update(Feature fp) {
+        getTarget().update(fp);
+        refresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void grantRoleOnFeature(String featureId, String roleName) {
+        getTarget().grantRoleOnFeature(featureId, roleName);
+        refresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeRoleFromFeature(String featureId, String roleName) {
+        getTarget().removeRoleFromFeature(featureId, roleName);
+        refresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void enableGroup(String groupName) {
+        getTarget().enableGroup(groupName);
+        refresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void disableGroup(String groupName) {
+        getTarget().disableGroup(groupName);
+        refresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean existGroup(String groupName) {
+        if (groupName == null || groupName.isEmpty()) {
+            throw new IllegalArgumentException("Groupname cannot be null nor empty");
+        }
+        return getSnapshot().getGroup(groupName) != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readGroup(String groupName) {
+        if (groupName == null || groupName.isEmpty()) {
+            throw new IllegalArgumentException("Groupname cannot be null nor empty");
+        }
+        Map<String, Feature> group = getSnapshot().getGroup(groupName);
+        if (group == null) {
+            throw new GroupNotFoundException(groupName);
+        }
+        return copyOf(group);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addToGroup(String featureId, String groupName) {
+        getTarget().addToGroup(featureId, groupName);
+        refresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeFromGroup(String featureId, String groupName) {
+        getTarget().removeFromGroup(featureId, groupName);
+        refresh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> readAllGroups() {
+        return getSnapshot().getGroupNames();
+    }
+
+    /**
+     * Getter accessor for attribute 'target'.
+     *
+     * @return current value of 'target'
+     */
+    public FeatureStore getTarget() {
+        if (target == null) {
+            throw new IllegalArgumentException("ff4j-core: Target for snapshot proxy has not been provided");
+        }
+        return target;
+    }
+
+    /**
+     * Copy features of the snapshot, instances of the snapshot are shared by every thread and only used to evaluate.
+     *
+     * @param features
+     *            features of the snapshot
+     * @return
+     *            copies callers may modify
+     */
+    private static Map<String, Feature> copyOf(Map<String, Feature> features) {
+        Map<String, Feature> copies = new LinkedHashMap<String, Feature>();
+        for (Map.Entry<String, Feature> feature : features.entrySet()) {
+            copies.put(feature.getKey(), new Feature(feature.getValue()));
+        }
+        return copies;
+    }
+
+    /**
+     * Setter accessor for attribute 'target', snapshot is rebuilt.
+     *
+     * @param target
+     *            new value for 'target '
+     */
+    public void setTarget(FeatureStore target) {
+        this.target = target;
+        refresh();
+    }
+
+    // ------------ Cache related method --------------------
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isCached() {
+        // Snapshot is not a cache manager, nothing to list or clear
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getCacheProvider() {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getCachedTargetStore() {
+        return null;
+    }
+
+}
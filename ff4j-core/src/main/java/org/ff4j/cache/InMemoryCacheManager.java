@@ -55,9 +55,13 @@ public class InMemoryCacheManager implements FeatureCacheManager {
      */
     private long ttl = DEFAULT_TTL;
 
+    /** Usage of cache. */
+    private final CacheStatistics statistics = new CacheStatistics(this);
+
     /** {@inheritDoc} */
     @Override
     public void clear() {
+        statistics.recordEvictions(cache.size());
         cache.clear();
     }
 
@@ -66,6 +70,7 @@ public class InMemoryCacheManager implements FeatureCacheManager {
     public void evict(String featureId) {
         if (cache.containsKey(featureId)) {
             cache.remove(featureId);
+            statistics.recordEviction();
         }
     }
 
@@ -117,6 +122,12 @@ public class InMemoryCacheManager implements FeatureCacheManager {
         return cache;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        return statistics;
+    }
+
     /**
      * Getter accessor for attribute 'ttl'.
      * 
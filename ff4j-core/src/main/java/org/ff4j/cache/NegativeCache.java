@@ -0,0 +1,173 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of identifiers known as missing in a store, with a short time-to-live.
+ * 
+ * Probes for absent features or properties are answered without reaching the store. Entries must be
+ * removed when the identifier is created, the time-to-live bounds the delay to see creations from
+ * other nodes.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+final class NegativeCache {
+    
+    /** Default TTL is ten seconds. */
+    static final long DEFAULT_TTL = 10L;
+    
+    /** Default maximum number of missing identifiers retained. */
+    static final int DEFAULT_MAXIMUM_SIZE = 10000;
+    
+    /** Expiration date of each missing identifier. */
+    private final Map<String, Long> expirations = new ConcurrentHashMap<String, Long>();
+    
+    /** Maximum number of missing identifiers retained. */
+    private final int maximumSize;
+    
+    /** Time to live in seconds, 0 to disable. */
+    private volatile long ttl;
+    
+    /**
+     * Constructor with default dimensions.
+     */
+    NegativeCache() {
+        this(DEFAULT_TTL, DEFAULT_MAXIMUM_SIZE);
+    }
+    
+    /**
+     * Constructor with dimensions.
+     *
+     * @param ttl
+     *            time to live in seconds
+     * @param maximumSize
+     *            maximum number of missing identifiers retained
+     */
+    NegativeCache(long ttl, int maximumSize) {
+        this.ttl = ttl;
+        this.maximumSize = maximumSize;
+    }
+    
+    /**
+     * Check if identifier is known as missing.
+     *
+     * @param uid
+     *            identifier
+     * @return
+     *            if identifier is missing in store
+     */
+    boolean contains(String uid) {
+        if (uid == null) {
+            return false;
+        }
+        Long expiration = expirations.get(uid);
+        if (expiration == null) {
+            return false;
+        }
+        if (expiration > System.currentTimeMillis()) {
+            return true;
+        }
+        expirations.remove(uid);
+        return false;
+    }
+    
+    /**
+     * Record identifier as missing.
+     *
+     * @param uid
+     *            identifier
+     */
+    void add(String uid) {
+        long currentTtl = ttl;
+        if (uid == null || currentTtl <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (expirations.size() >= maximumSize) {
+            purge(now);
+            if (expirations.size() >= maximumSize) {
+                // Missing identifiers are cheap to recompute
+                expirations.clear();
+            }
+        }
+        expirations.put(uid, now + InMemoryCacheManager.TO_MILLIS * currentTtl);
+    }
+    
+    /**
+     * Forget identifier (created).
+     *
+     * @param uid
+     *            identifier
+     */
+    void remove(String uid) {
+        if (uid != null) {
+            expirations.remove(uid);
+        }
+    }
+    
+    /**
+     * Forget all identifiers.
+     */
+    void clear() {
+        expirations.clear();
+    }
+    
+    /**
+     * Remove expired identifiers.
+     *
+     * @param now
+     *            current time
+     */
+    private void purge(long now) {
+        for (Iterator<Long> it = expirations.values().iterator(); it.hasNext();) {
+            if (it.next() <= now) {
+                it.remove();
+            }
+        }
+    }
+    
+    /**
+     * Getter accessor for attribute 'ttl'.
+     *
+     * @return
+     *       current value of 'ttl'
+     */
+    long getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Setter accessor for attribute 'ttl'.
+     * 
+     * @param ttl
+     *            new value for 'ttl' in seconds
+     */
+    void setTtl(long ttl) {
+        this.ttl = ttl;
+        if (ttl <= 0) {
+            clear();
+        }
+    }
+}
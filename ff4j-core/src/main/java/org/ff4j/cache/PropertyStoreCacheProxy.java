@@ -0,0 +1,247 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.ff4j.exception.PropertyNotFoundException;
+import org.ff4j.property.AbstractProperty;
+import org.ff4j.property.store.PropertyStore;
+
+/**
+ * Proxy caching properties of a target {@link PropertyStore} : existing properties are kept for a time-to-live
+ * and missing ones for a short time, so probes for absent properties cost no access to the target.
+ * 
+ * As {@link FeatureStoreCacheProxy}, modifications done through the proxy are seen immediately but modifications
+ * done on other nodes are seen when entries expire.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class PropertyStoreCacheProxy implements PropertyStore {
+    
+    /** Target property store to be proxified to cache properties. */
+    private PropertyStore target;
+    
+    /** Cached properties. */
+    private final Map<String, InMemoryCacheEntry<AbstractProperty<?>>> cache = 
+            new ConcurrentHashMap<String, InMemoryCacheEntry<AbstractProperty<?>>>();
+    
+    /** Properties known as missing in target, for a short time. */
+    private final NegativeCache missingProperties = new NegativeCache();
+    
+    /** Time to live of cached properties in seconds. */
+    private long ttl = InMemoryCacheManager.DEFAULT_TTL;
+    
+    /**
+     * Allow Ioc and defeine default constructor.
+     */
+    public PropertyStoreCacheProxy() {}
+    
+    /**
+     * Initialization through constructor.
+     * 
+     * @param target
+     *            target store to retrieve properties
+     */
+    public PropertyStoreCacheProxy(PropertyStore target) {
+        this.target = target;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean exist(String name) {
+        if (getCached(name) != null) {
+            return true;
+        }
+        // recently checked as missing, may be created since but only for a short time
+        if (missingProperties.contains(name)) {
+            return false;
+        }
+        boolean exist = getTarget().exist(name);
+        if (!exist) {
+            missingProperties.add(name);
+        }
+        return exist;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> void create(AbstractProperty<T> value) {
+        getTarget().create(value);
+        evict(value.getName());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractProperty<?> read(String name) {
+        AbstractProperty<?> property = getCached(name);
+        if (property != null) {
+            return property;
+        }
+        if (missingProperties.contains(name)) {
+            throw new PropertyNotFoundException(name);
+        }
+        try {
+            property = getTarget().read(name);
+        } catch (PropertyNotFoundException pnfe) {
+            missingProperties.add(name);
+            throw pnfe;
+        }
+        cache.put(name, new InMemoryCacheEntry<AbstractProperty<?>>(property));
+        return property;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void update(String name, String newValue) {
+        getTarget().update(name, newValue);
+        evict(name);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> void update(AbstractProperty<T> fixedValue) {
+        getTarget().update(fixedValue);
+        evict(fixedValue.getName());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void delete(String name) {
+        getTarget().delete(name);
+        evict(name);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, AbstractProperty<?>> readAllProperties() {
+        // Cannot be sure of whole cache : accessing PropertyStore
+        return getTarget().readAllProperties();
+    }
+    
+    /**
+     * Remove everything present within cache.
+     */
+    public void clear() {
+        cache.clear();
+        missingProperties.clear();
+    }
+    
+    /**
+     * Read property from cache if not expired.
+     *
+     * @param name
+     *            property name
+     * @return
+     *            cached property or null
+     */
+    private AbstractProperty<?> getCached(String name) {
+        if (name == null) {
+            return null;
+        }
+        InMemoryCacheEntry<AbstractProperty<?>> entry = cache.get(name);
+        if (entry == null) {
+            return null;
+        }
+        if ((System.currentTimeMillis() - entry.getInsertedDate()) >= (InMemoryCacheManager.TO_MILLIS * ttl)) {
+            // it has reach its time-to-live
+            cache.remove(name);
+            return null;
+        }
+        return entry.getEntry();
+    }
+    
+    /**
+     * Forget property after a modification.
+     *
+     * @param name
+     *            property name
+     */
+    private void evict(String name) {
+        if (name != null) {
+            cache.remove(name);
+            missingProperties.remove(name);
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'target'.
+     * 
+     * @return current value of 'target'
+     */
+    public PropertyStore getTarget() {
+        if (target == null) {
+            throw new IllegalArgumentException("ff4j-core: Target for property cache proxy has not been provided");
+        }
+        return target;
+    }
+
+    /**
+     * Setter accessor for attribute 'target'.
+     * 
+     * @param target
+     *            new value for 'target '
+     */
+    public void setTarget(PropertyStore target) {
+        this.target = target;
+    }
+
+    /**
+     * Getter accessor for attribute 'ttl'.
+     * 
+     * @return current value of 'ttl'
+     */
+    public long getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Setter accessor for attribute 'ttl'.
+     * 
+     * @param ttl
+     *            new value for 'ttl' in seconds
+     */
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+    
+    /**
+     * Getter accessor for time to live of missing properties.
+     *
+     * @return
+     *       time to live of missing properties in seconds
+     */
+    public long getNegativeTtl() {
+        return missingProperties.getTtl();
+    }
+
+    /**
+     * Setter accessor for time to live of missing properties, 0 disable negative caching.
+     * 
+     * @param negativeTtl
+     *            time to live of missing properties in seconds
+     */
+    public void setNegativeTtl(long negativeTtl) {
+        missingProperties.setTtl(negativeTtl);
+    }
+
+}
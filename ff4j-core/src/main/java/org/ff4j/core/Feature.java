@@ -162,6 +162,24 @@ public class Feature implements Serializable {
         }
     }
 
+    /**
+     * Copy constructor, permissions and custom properties collections are duplicated.
+     *
+     * @param source
+     *            feature to copy
+     */
+    public Feature(final Feature source) {
+        this(source.getUid(), source.isEnable(), source.getDescription());
+        this.group = source.getGroup();
+        this.flippingStrategy = source.getFlippingStrategy();
+        if (source.getPermissions() != null) {
+            this.permissions = new TreeSet<String>(source.getPermissions());
+        }
+        if (source.getCustomProperties() != null) {
+            this.customProperties = new LinkedHashMap<String, AbstractProperty<?>>(source.getCustomProperties());
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
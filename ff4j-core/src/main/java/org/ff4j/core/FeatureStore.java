@@ -69,6 +69,15 @@ public interface FeatureStore {
      */
     Feature read(String featureUid);
 
+    /**
+     * Read feature if it exists, without raising {@link org.ff4j.exception.FeatureNotFoundException}.
+     * 
+     * @param featureUid
+     *            unique feature identifier
+     * @return feature or null if it does not exist
+     */
+    Feature findIfExists(String featureUid);
+
     /**
      * Access to all features to get information.
      * 
@@ -76,6 +85,15 @@ public interface FeatureStore {
      */
     Map<String, Feature> readAll();
 
+    /**
+     * Read several features in a single operation.
+     * 
+     * @param featureIds
+     *            unique feature identifiers
+     * @return features found in store, unknown identifiers are not part of the result
+     */
+    Map<String, Feature> readMany(Set<String> featureIds);
+
     /**
      * Remove fliPoint from store.
      * 
@@ -1,5 +1,7 @@
 package org.ff4j.property.store;
 
+import static org.ff4j.utils.JdbcUtils.isIntegrityConstraintViolation;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -14,6 +16,7 @@ import org.ff4j.exception.PropertyAlreadyExistException;
 import org.ff4j.exception.PropertyNotFoundException;
 import org.ff4j.property.AbstractProperty;
 import org.ff4j.store.JdbcStoreConstants;
+import org.ff4j.utils.JdbcSession;
 import org.ff4j.utils.Util;
 
 /*
@@ -74,98 +77,125 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
     @Override
     public boolean exist(String name) {
         Util.assertHasLength(name);
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            ps = buildStatement(SQL_PROPERTY_EXIST, name);
-            rs = ps.executeQuery();
-            if (rs.next()) {
-                return 1 == rs.getInt(1);
-            }
-            return false;
+            return exist(session, name);
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
+            session.close();
         }
     }
 
+    /**
+     * Check property existence within an opened session.
+     * 
+     * @param session
+     *            current session
+     * @param name
+     *            property name
+     * @return if the property exists
+     * @throws SQLException
+     *             error when accessing database
+     */
+    private boolean exist(JdbcSession session, String name) throws SQLException {
+        ResultSet rs = session.query(SQL_PROPERTY_EXIST, name);
+        return rs.next() && 1 == rs.getInt(1);
+    }
+
     /** {@inheritDoc} */
     @Override
     public <T> void create(AbstractProperty<T> ap) {
         if (ap == null) {
             throw new IllegalArgumentException("Property cannot be null nor empty");
         }
-        if (exist(ap.getName())) {
-            throw new PropertyAlreadyExistException(ap.getName());
-        }
-        PreparedStatement ps = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            Connection sqlConn = getDataSource().getConnection();
-            ps = sqlConn.prepareStatement(SQL_PROPERTY_CREATE);
-            ps.setString(1, ap.getName());
-            ps.setString(2, ap.getType());
-            ps.setString(3, ap.asString());
-            ps.setString(4, ap.getDescription());
-            if (ap.getFixedValues() != null && ap.getFixedValues().size() > 0) {
-                String fixedValues = ap.getFixedValues().toString();
-                ps.setString(5, fixedValues.substring(1, fixedValues.length() - 1));
-            } else {
-                ps.setString(5, null);
-            }
-            ps.executeUpdate();
+            // Primary key rejects existing name
+            insert(session, ap);
         } catch (SQLException sqlEX) {
+            if (isIntegrityConstraintViolation(sqlEX)) {
+                throw new PropertyAlreadyExistException(ap.getName());
+            }
             throw new FeatureAccessException("Cannot update properties database, SQL ERROR", sqlEX);
         } finally {
-            // Connection is closed alse here within clos statement
-            closeStatement(ps);
+            session.close();
         }
     }
 
+    /**
+     * Insert property row within an opened session.
+     * 
+     * @param session
+     *            current session
+     * @param ap
+     *            property to insert
+     * @throws SQLException
+     *             error when accessing database
+     */
+    private void insert(JdbcSession session, AbstractProperty<?> ap) throws SQLException {
+        String fixedValues = null;
+        if (ap.getFixedValues() != null && ap.getFixedValues().size() > 0) {
+            fixedValues = ap.getFixedValues().toString();
+            fixedValues = fixedValues.substring(1, fixedValues.length() - 1);
+        }
+        session.update(SQL_PROPERTY_CREATE, ap.getName(), ap.getType(), ap.asString(), ap.getDescription(), fixedValues);
+    }
+
     /** {@inheritDoc} */
     @Override
     public AbstractProperty<?> read(String name) {
-        PreparedStatement ps = null;
-        ResultSet rs = null;
         Util.assertHasLength(name);
-        
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            // Returns features
-            ps = buildStatement(SQL_PROPERTY_READ, name);
-            rs = ps.executeQuery();
-            if (rs.next()) {
-                return JDBC_MAPPER.map(rs);
-            } else {
+            AbstractProperty<?> ap = read(session, name);
+            if (ap == null) {
                 throw new PropertyNotFoundException(name);
             }
+            return ap;
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot check property existence, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
+            session.close();
         }
     }
 
+    /**
+     * Read property within an opened session.
+     * 
+     * @param session
+     *            current session
+     * @param name
+     *            property name
+     * @return property or null if not found
+     * @throws SQLException
+     *             error when accessing database
+     */
+    private AbstractProperty<?> read(JdbcSession session, String name) throws SQLException {
+        ResultSet rs = session.query(SQL_PROPERTY_READ, name);
+        return rs.next() ? JDBC_MAPPER.map(rs) : null;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void update(String name, String newValue) {
         Util.assertHasLength(name);
-        if (!exist(name)) {
-            throw new PropertyNotFoundException(name);
-        }
-        // Update
-        AbstractProperty<?> current = read(name);
-        current.setValueFromString(newValue);
-        //
-        PreparedStatement ps = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            ps = buildStatement(SQL_PROPERTY_UPDATE, newValue, name);
-            ps.executeUpdate();
+            session.begin();
+            AbstractProperty<?> current = read(session, name);
+            if (current == null) {
+                throw new PropertyNotFoundException(name);
+            }
+            // Check new value against property type and fixed values
+            current.setValueFromString(newValue);
+            session.update(SQL_PROPERTY_UPDATE, newValue, name);
+            session.commit();
         } catch (SQLException sqlEX) {
+            session.rollback();
             throw new FeatureAccessException("Cannot update property database, SQL ERROR", sqlEX);
         } finally {
-            closeStatement(ps);
+            session.close();
         }
     }
 
@@ -175,10 +205,21 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
         if (prop == null || prop.getName() == null) {
             throw new IllegalArgumentException("Cannot update property, please provide property name");
         }
-        // Delete
-        delete(prop.getName());
-        // Create
-        create(prop);
+        JdbcSession session = new JdbcSession(getDataSource());
+        try {
+            // Delete and create within the same transaction
+            session.begin();
+            if (0 == session.update(SQL_PROPERTY_DELETE, prop.getName())) {
+                throw new PropertyNotFoundException(prop.getName());
+            }
+            insert(session, prop);
+            session.commit();
+        } catch (SQLException sqlEX) {
+            session.rollback();
+            throw new FeatureAccessException("Cannot update property database, SQL ERROR", sqlEX);
+        } finally {
+            session.close();
+        }
     }
 
     /** {@inheritDoc} */
@@ -187,17 +228,15 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Property identifier (param#0) cannot be null nor empty");
         }
-        if (!exist(name)) {
-            throw new PropertyNotFoundException(name);
-        }
-        PreparedStatement ps = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            ps = buildStatement(SQL_PROPERTY_DELETE,name);
-            ps.executeUpdate();
+            if (0 == session.update(SQL_PROPERTY_DELETE, name)) {
+                throw new PropertyNotFoundException(name);
+            }
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot delete property database, SQL ERROR", sqlEX);
         } finally {
-            closeStatement(ps);
+            session.close();
         }
     }
     
@@ -205,21 +244,17 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
     @Override
     public Map<String, AbstractProperty<?>> readAllProperties() {
         Map<String, AbstractProperty<?>> properties = new LinkedHashMap<String, AbstractProperty<?>>();
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            ps = buildStatement(SQL_PROPERTY_READ);
-            rs = ps.executeQuery();
+            ResultSet rs = session.query(SQL_PROPERTY_READALL);
             while (rs.next()) {
                 AbstractProperty<?> ap = JDBC_MAPPER.map(rs);
                 properties.put(ap.getName(),ap);
             }
-            ps.executeUpdate();
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot read properties within database, SQL ERROR", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
+            session.close();
         }
         return properties;
     }
@@ -244,7 +279,7 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
     }
     
     /**
-     * Build {@link PreparedStatement} from parameters
+     * Build {@link PreparedStatement} from parameters, the caller is responsible for closing statement and connection.
      * 
      * @param query
      *            query template
@@ -253,7 +288,9 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
      * @return working {@link PreparedStatement}
      * @throws SQLException
      *             sql error when working with statement
+     * @deprecated operations of the store are executed through {@link JdbcSession}, which releases resources
      */
+    @Deprecated
     public PreparedStatement buildStatement(String query, String... params) throws SQLException {
         Connection sqlConn = getDataSource().getConnection();
         PreparedStatement ps = sqlConn.prepareStatement(query);
@@ -264,40 +301,5 @@ public class JdbcPropertyStore extends AbstractPropertyStore implements JdbcStor
         }
         return ps;
     }
-    
-    /**
-     * Close resultset.
-     * 
-     * @param rs
-     *            target resultset
-     */
-    private void closeResultSet(ResultSet rs) {
-        try {
-            if (rs != null) {
-                rs.close();
-            }
-        } catch (SQLException e) {
-            throw new FeatureAccessException("An error occur when closing resultset", e);
-        }
-    }
-
-    /**
-     * Utility method to close statement properly.
-     * 
-     * @param ps
-     * 
-     */
-    private void closeStatement(PreparedStatement ps) {
-        try {
-            if (ps != null && !ps.isClosed()) {
-                 if (ps.getConnection() != null && !ps.getConnection().isClosed()) {
-                     ps.getConnection().close();
-                 }
-                 ps.close();
-            }
-        } catch (SQLException e) {
-            throw new FeatureAccessException("An error occur when closing statement", e);
-        }
-    }
 
 }
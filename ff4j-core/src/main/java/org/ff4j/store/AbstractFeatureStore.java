@@ -21,6 +21,7 @@ package org.ff4j.store;
  */
 
 import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -28,6 +29,7 @@ import org.ff4j.conf.XmlConfiguration;
 import org.ff4j.conf.XmlParser;
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
+import org.ff4j.exception.FeatureNotFoundException;
 
 /**
  * SuperClass for stores.
@@ -67,6 +69,35 @@ public abstract class AbstractFeatureStore implements FeatureStore {
     }
     
     
+    /**
+     * Default implementation relying on {@link #exist(String)}, stores should override to use a single lookup.
+     *
+     * {@inheritDoc}
+     */
+    public Feature findIfExists(String featureUid) {
+        return exist(featureUid) ? read(featureUid) : null;
+    }
+
+    /**
+     * Default implementation reading features one by one, stores should override to use a single round trip.
+     *
+     * {@inheritDoc}
+     */
+    public Map<String, Feature> readMany(Set<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        for (String featureId : featureIds) {
+            try {
+                features.put(featureId, read(featureId));
+            } catch (FeatureNotFoundException fnfe) {
+                // Unknown identifiers are not part of the result
+            }
+        }
+        return features;
+    }
+
     /** {@inheritDoc} */
     public String toJson() {
         StringBuilder sb = new StringBuilder("{");
@@ -0,0 +1,554 @@
+package org.ff4j.store;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.ff4j.conf.XmlParser;
+import org.ff4j.core.Feature;
+import org.ff4j.exception.FeatureAlreadyExistException;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.ff4j.exception.GroupNotFoundException;
+
+/**
+ * Thread-safe variant of {@link InMemoryFeatureStore}.
+ *
+ * Features are never modified in place : each write stores a new copy of the feature (copy-on-write) so that readers
+ * always see a consistent feature without any lock. Writes are serialized, they maintain the group index incrementally
+ * and cost O(1) (O(size of group) for group operations). {@link #readAll()} and {@link #readGroup(String)} return
+ * read-only views built at most once per modification.
+ *
+ * Features returned by this store are shared, they must not be modified directly : use the store operations.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class ConcurrentInMemoryFeatureStore extends AbstractFeatureStore {
+
+    /** XML File where features are load. */
+    private String fileName = null;
+
+    /** Features indexed by uid. */
+    private final ConcurrentMap<String, Feature> featuresMap = new ConcurrentHashMap<String, Feature>();
+
+    /** Group index : group -> feature uids. */
+    private final ConcurrentMap<String, Set<String>> featureGroups = new ConcurrentHashMap<String, Set<String>>();
+
+    /** Group of each feature when indexed (guarded by this). */
+    private final Map<String, String> indexedGroups = new HashMap<String, String>();
+
+    /** Incremented on each write, used to validate views. */
+    private volatile long version = 0;
+
+    /** Last view of all features. */
+    private volatile View allView;
+
+    /** Last view per group. */
+    private final ConcurrentMap<String, View> groupViews = new ConcurrentHashMap<String, View>();
+
+    /** Default constructor. */
+    public ConcurrentInMemoryFeatureStore() {}
+
+    /**
+     * Constructor with configuration fileName.
+     * 
+     * @param fileName
+     *            fileName present in classPath or on fileSystem.
+     */
+    public ConcurrentInMemoryFeatureStore(String fileName) {
+        if (fileName == null || fileName.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "fileName is required, cannot be null nor empty : the file must exist in classpath");
+        }
+        loadConfFile(fileName);
+    }
+
+    /**
+     * Constructor with inputstream fileName.
+     * 
+     * @param xmlIN
+     *            xml configuration stream
+     */
+    public ConcurrentInMemoryFeatureStore(InputStream xmlIN) {
+        loadConf(xmlIN);
+    }
+
+    /**
+     * Constructor with full set of feature.
+     * 
+     * @param maps
+     *            initial features (copied)
+     */
+    public ConcurrentInMemoryFeatureStore(Map<String, Feature> maps) {
+        putAll(maps);
+    }
+
+    /**
+     * Load configuration through FF4J.vml file.
+     * 
+     * @param conf
+     *            xml filename
+     */
+    private void loadConfFile(String conf) {
+        this.fileName = conf;
+        loadConf(getClass().getClassLoader().getResourceAsStream(conf));
+    }
+
+    /**
+     * Load configuration through FF4J.vml file.
+     * 
+     * @param xmlIN
+     *            xml configuration stream
+     */
+    private void loadConf(InputStream xmlIN) {
+        if (xmlIN == null) {
+            throw new IllegalArgumentException("Cannot parse feature stream");
+        }
+        putAll(new XmlParser().parseConfigurationFile(xmlIN).getFeatures());
+    }
+
+    /**
+     * Replace whole content of the store.
+     * 
+     * @param features
+     *            new features
+     */
+    private synchronized void putAll(Map<String, Feature> features) {
+        featuresMap.clear();
+        featureGroups.clear();
+        indexedGroups.clear();
+        if (features != null) {
+            for (Feature fp : features.values()) {
+                save(new Feature(fp));
+            }
+        }
+        version++;
+    }
+
+    /**
+     * Store the feature and move it to its group in index, caller must hold the lock.
+     * 
+     * @param fp
+     *            feature to store (not shared with caller)
+     */
+    private void save(Feature fp) {
+        String uid = fp.getUid();
+        featuresMap.put(uid, fp);
+        String previousGroup = indexedGroups.get(uid);
+        String newGroup = fp.getGroup();
+        if (newGroup != null && newGroup.isEmpty()) {
+            newGroup = null;
+        }
+        if (previousGroup != null && !previousGroup.equals(newGroup)) {
+            unindex(uid, previousGroup);
+        }
+        if (newGroup != null) {
+            Set<String> members = featureGroups.get(newGroup);
+            if (members == null) {
+                members = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+                featureGroups.put(newGroup, members);
+            }
+            members.add(uid);
+            indexedGroups.put(uid, newGroup);
+        } else {
+            indexedGroups.remove(uid);
+        }
+    }
+
+    /**
+     * Remove feature from group in index, caller must hold the lock.
+     * 
+     * @param uid
+     *            feature identifier
+     * @param groupName
+     *            group of the feature
+     */
+    private void unindex(String uid, String groupName) {
+        Set<String> members = featureGroups.get(groupName);
+        if (members != null) {
+            members.remove(uid);
+            if (members.isEmpty()) {
+                featureGroups.remove(groupName);
+                groupViews.remove(groupName);
+            }
+        }
+    }
+
+    /**
+     * Copy current feature, caller must hold the lock.
+     * 
+     * @param uid
+     *            feature identifier
+     * @return copy of current feature
+     */
+    private Feature copyOf(String uid) {
+        if (uid == null || uid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
+        }
+        Feature current = featuresMap.get(uid);
+        if (current == null) {
+            throw new FeatureNotFoundException(uid);
+        }
+        return new Feature(current);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void create(Feature fp) {
+        if (fp == null) {
+            throw new IllegalArgumentException("Feature cannot be null nor empty");
+        }
+        if (exist(fp.getUid())) {
+            throw new FeatureAlreadyExistException(fp.getUid());
+        }
+        save(new Feature(fp));
+        version++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void update(Feature fp) {
+        if (fp == null) {
+            throw new IllegalArgumentException("Feature cannot be null nor empty");
+        }
+        if (!exist(fp.getUid())) {
+            throw new FeatureNotFoundException(fp.getUid());
+        }
+        save(new Feature(fp));
+        version++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void delete(String uid) {
+        if (uid == null || uid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
+        }
+        if (featuresMap.remove(uid) == null) {
+            throw new FeatureNotFoundException(uid);
+        }
+        String previousGroup = indexedGroups.remove(uid);
+        if (previousGroup != null) {
+            unindex(uid, previousGroup);
+        }
+        version++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void grantRoleOnFeature(String uid, String roleName) {
+        if (roleName == null || roleName.isEmpty()) {
+            throw new IllegalArgumentException("roleName cannot be null nor empty");
+        }
+        Feature fp = copyOf(uid);
+        fp.getPermissions().add(roleName);
+        save(fp);
+        version++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void removeRoleFromFeature(String uid, String roleName) {
+        if (roleName == null || roleName.isEmpty()) {
+            throw new IllegalArgumentException("roleName cannot be null nor empty");
+        }
+        Feature fp = copyOf(uid);
+        fp.getPermissions().remove(roleName);
+        save(fp);
+        version++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean exist(String uid) {
+        if (uid == null || uid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
+        }
+        return featuresMap.containsKey(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void enable(String uid) {
+        Feature fp = copyOf(uid);
+        fp.enable();
+        save(fp);
+        version++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void disable(String uid) {
+        Feature fp = copyOf(uid);
+        fp.disable();
+        save(fp);
+        version++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature read(String uid) {
+        Feature fp = findIfExists(uid);
+        if (fp == null) {
+            throw new FeatureNotFoundException(uid);
+        }
+        return fp;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature findIfExists(String uid) {
+        if (uid == null || uid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
+        }
+        return featuresMap.get(uid);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readMany(Set<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        for (String featureId : featureIds) {
+            Feature feature = featuresMap.get(featureId);
+            if (feature != null) {
+                features.put(featureId, feature);
+            }
+        }
+        return features;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readAll() {
+        View current = allView;
+        if (current != null && current.version == version) {
+            return current.features;
+        }
+        // Version read before copy : a concurrent write makes the view invalid, never stale
+        long expected = version;
+        Map<String, Feature> features = Collections.unmodifiableMap(new LinkedHashMap<String, Feature>(featuresMap));
+        allView = new View(expected, features);
+        return features;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean existGroup(String groupName) {
+        if (groupName == null || groupName.isEmpty()) {
+            throw new IllegalArgumentException("Groupname cannot be null nor empty");
+        }
+        return featureGroups.containsKey(groupName);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void enableGroup(String groupName) {
+        for (String feat : membersOf(groupName)) {
+            Feature fp = copyOf(feat);
+            fp.enable();
+            save(fp);
+        }
+        version++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void disableGroup(String groupName) {
+        for (String feat : membersOf(groupName)) {
+            Feature fp = copyOf(feat);
+            fp.disable();
+            save(fp);
+        }
+        version++;
+    }
+
+    /**
+     * Members of target group.
+     * 
+     * @param groupName
+     *            target group
+     * @return feature uids
+     */
+    private Set<String> membersOf(String groupName) {
+        if (groupName == null || groupName.isEmpty()) {
+            throw new IllegalArgumentException("Groupname cannot be null nor empty");
+        }
+        Set<String> members = featureGroups.get(groupName);
+        if (members == null) {
+            throw new GroupNotFoundException(groupName);
+        }
+        return members;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readGroup(String groupName) {
+        long expected = version;
+        Set<String> members = membersOf(groupName);
+        View current = groupViews.get(groupName);
+        if (current != null && current.version == expected) {
+            return current.features;
+        }
+        Map<String, Feature> features = new HashMap<String, Feature>();
+        for (String feat : members) {
+            Feature fp = featuresMap.get(feat);
+            if (fp != null) {
+                features.put(feat, fp);
+            }
+        }
+        features = Collections.unmodifiableMap(features);
+        groupViews.put(groupName, new View(expected, features));
+        return features;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> readAllGroups() {
+        return new HashSet<String>(featureGroups.keySet());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void addToGroup(String uid, String groupName) {
+        if (groupName == null || groupName.isEmpty()) {
+            throw new IllegalArgumentException("Groupname cannot be null nor empty");
+        }
+        Feature fp = copyOf(uid);
+        fp.setGroup(groupName);
+        save(fp);
+        version++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void removeFromGroup(String uid, String groupName) {
+        if (uid == null || uid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
+        }
+        if (groupName == null || groupName.isEmpty()) {
+            throw new IllegalArgumentException("Groupname cannot be null nor empty");
+        }
+        Feature fp = copyOf(uid);
+        if (!existGroup(groupName)) {
+            throw new GroupNotFoundException(groupName);
+        }
+        fp.setGroup("");
+        save(fp);
+        version++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toJson() {
+        String json = super.toJson();
+        // Remove last } to enrich the json document
+        json = json.substring(0, json.length() - 1) + ",\"xmlInputFile\":";
+        // No filename inputstream, set to true)
+        if (null == fileName) {
+            json+= "null";
+        } else  {
+            json += "\"" + this.fileName + "\"";
+        }
+        json+= "}";
+        return json;
+    }
+
+    /**
+     * Setter accessor for attribute 'locations'.
+     * 
+     * @param locations
+     *            new value for 'locations '
+     */
+    public void setLocation(String locations) {
+        loadConfFile(locations);
+    }
+
+    /**
+     * Getter accessor for attribute 'fileName'.
+     * 
+     * @return current value of 'fileName'
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    // -------- Overrided in cache proxy --------------
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isCached() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getCacheProvider() {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getCachedTargetStore() {
+        return null;
+    }
+
+    /**
+     * Read-only map of features valid for a version of the store.
+     */
+    private static final class View {
+
+        /** Store version when the view has been built. */
+        private final long version;
+
+        /** Read-only features. */
+        private final Map<String, Feature> features;
+
+        /**
+         * Parameterized constructor.
+         * 
+         * @param version
+         *            store version
+         * @param features
+         *            read-only features
+         */
+        private View(long version, Map<String, Feature> features) {
+            this.version = version;
+            this.features = features;
+        }
+    }
+
+}
@@ -251,6 +251,15 @@ public class InMemoryFeatureStore extends AbstractFeatureStore {
         return featuresMap.get(uid);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Feature findIfExists(String uid) {
+        if (uid == null || uid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
+        }
+        return featuresMap.get(uid);
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean existGroup(String groupName) {
@@ -363,6 +372,22 @@ public class InMemoryFeatureStore extends AbstractFeatureStore {
         return featuresMap;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readMany(Set<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        for (String featureId : featureIds) {
+            Feature feature = featuresMap.get(featureId);
+            if (feature != null) {
+                features.put(featureId, feature);
+            }
+        }
+        return features;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -0,0 +1,267 @@
+package org.ff4j.store;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.ff4j.utils.JdbcUtils.closeConnection;
+import static org.ff4j.utils.JdbcUtils.closeResultSet;
+import static org.ff4j.utils.JdbcUtils.closeStatement;
+import static org.ff4j.utils.JdbcUtils.rollback;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.ff4j.cache.FeatureChangeLog;
+import org.ff4j.exception.FeatureAccessException;
+import org.ff4j.utils.Util;
+
+/**
+ * Implementation of {@link FeatureChangeLog} in tables FF4J_STORE_VERSION (single row) and FF4J_CHANGELOG.
+ * 
+ * Store version is incremented and changes inserted in the same transaction : the version row remains locked
+ * up to commit, versions are then visible in the order they were allocated.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class JdbcFeatureChangeLog implements FeatureChangeLog, JdbcStoreConstants {
+    
+    /** Access to storage. */
+    private DataSource dataSource;
+    
+    /** Default Constructor. */
+    public JdbcFeatureChangeLog() {}
+
+    /**
+     * Constructor from DataSource.
+     * 
+     * @param jdbcDS
+     *            native jdbc datasource
+     */
+    public JdbcFeatureChangeLog(DataSource jdbcDS) {
+        this.dataSource = jdbcDS;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long recordChange(String featureUid) {
+        Util.assertHasLength(featureUid);
+        return recordChanges(Collections.singletonList(featureUid));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long recordChanges(Collection<String> featureUids) {
+        Util.assertNotNull(featureUids);
+        if (featureUids.isEmpty()) {
+            return getCurrentVersion();
+        }
+        for (String featureUid : featureUids) {
+            Util.assertHasLength(featureUid);
+        }
+        Connection          sqlConn = null;
+        PreparedStatement   ps = null;
+        ResultSet           rs = null;
+        try {
+            // Pick connection
+            sqlConn = getDataSource().getConnection();
+            
+            // Open TX Bloc, all versions are allocated with a single update
+            sqlConn.setAutoCommit(false);
+            ps = sqlConn.prepareStatement(SQL_VERSION_INCREMENT);
+            ps.setInt(1, featureUids.size());
+            if (ps.executeUpdate() != 1) {
+                throw new FeatureAccessException("Table " + TABLE_STORE_VERSION + " must contain a single row");
+            }
+            closeStatement(ps);
+            
+            ps = sqlConn.prepareStatement(SQL_VERSION_READ);
+            rs = ps.executeQuery();
+            rs.next();
+            long version = rs.getLong(COL_VERSION);
+            closeResultSet(rs);
+            rs = null;
+            closeStatement(ps);
+            
+            // Changes take the allocated versions in order
+            long changeVersion = version - featureUids.size();
+            Timestamp changeTime = new Timestamp(System.currentTimeMillis());
+            ps = sqlConn.prepareStatement(SQL_CHANGELOG_INSERT);
+            for (String featureUid : featureUids) {
+                ps.setLong(1, ++changeVersion);
+                ps.setString(2, featureUid);
+                ps.setTimestamp(3, changeTime);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            
+            // Commit TX
+            sqlConn.commit();
+            return version;
+            
+        } catch (SQLException sqlEX) {
+            if (sqlConn != null) {
+                rollback(sqlConn);
+            }
+            throw new FeatureAccessException("Cannot record modification of " + featureUids, sqlEX);
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+            closeConnection(sqlConn);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getCurrentVersion() {
+        return readLong(SQL_VERSION_READ, "Cannot read store version");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getOldestVersion() {
+        Connection          sqlConn = null;
+        PreparedStatement   ps = null;
+        ResultSet           rs = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            ps = sqlConn.prepareStatement(SQL_CHANGELOG_OLDEST);
+            rs = ps.executeQuery();
+            rs.next();
+            long oldest = rs.getLong(1);
+            if (rs.wasNull()) {
+                // Empty log : everything before next version is purged
+                return getCurrentVersion() + 1;
+            }
+            return oldest;
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot read oldest version from change log", sqlEX);
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+            closeConnection(sqlConn);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SortedMap<Long, String> readChanges(long sinceVersion) {
+        Connection          sqlConn = null;
+        PreparedStatement   ps = null;
+        ResultSet           rs = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            ps = sqlConn.prepareStatement(SQL_CHANGELOG_READ);
+            ps.setLong(1, sinceVersion);
+            rs = ps.executeQuery();
+            SortedMap<Long, String> changes = new TreeMap<Long, String>();
+            while (rs.next()) {
+                changes.put(rs.getLong(COL_VERSION), rs.getString(COL_FEAT_UID));
+            }
+            return changes;
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot read change log", sqlEX);
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+            closeConnection(sqlConn);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void purge(long beforeVersion) {
+        Connection          sqlConn = null;
+        PreparedStatement   ps = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            ps = sqlConn.prepareStatement(SQL_CHANGELOG_PURGE);
+            ps.setLong(1, beforeVersion);
+            ps.executeUpdate();
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot purge change log", sqlEX);
+        } finally {
+            closeStatement(ps);
+            closeConnection(sqlConn);
+        }
+    }
+    
+    /**
+     * Execute a query returning a single number.
+     *
+     * @param query
+     *            sql query
+     * @param errorMessage
+     *            message if query fails
+     * @return
+     *            value
+     */
+    private long readLong(String query, String errorMessage) {
+        Connection          sqlConn = null;
+        PreparedStatement   ps = null;
+        ResultSet           rs = null;
+        try {
+            sqlConn = getDataSource().getConnection();
+            ps = sqlConn.prepareStatement(query);
+            rs = ps.executeQuery();
+            if (!rs.next()) {
+                throw new FeatureAccessException(errorMessage + ", table " + TABLE_STORE_VERSION + " is empty");
+            }
+            return rs.getLong(1);
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException(errorMessage, sqlEX);
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+            closeConnection(sqlConn);
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'dataSource'.
+     *
+     * @return current value of 'dataSource'
+     */
+    public DataSource getDataSource() {
+        if (dataSource == null) {
+            throw new IllegalStateException("DataSource has not been initialized");
+        }
+        return dataSource;
+    }
+
+    /**
+     * Setter accessor for attribute 'dataSource'.
+     * 
+     * @param dataSource
+     *            new value for 'dataSource '
+     */
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+}
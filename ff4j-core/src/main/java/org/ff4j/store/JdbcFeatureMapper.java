@@ -22,10 +22,13 @@ package org.ff4j.store;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.ff4j.core.Feature;
 import org.ff4j.core.FlippingStrategy;
 import org.ff4j.exception.FeatureAccessException;
+import org.ff4j.property.PropertyFactory;
 import org.ff4j.utils.ParameterUtils;
 
 /**
@@ -67,6 +70,39 @@ public class JdbcFeatureMapper implements JdbcStoreConstants {
         }
         return f;
     }
+    
+    /**
+     * Fold rows of a join query (see {@link JdbcStoreConstants#SQLQUERY_FEATURE_JOIN}), a feature is spread over one
+     * row per role and custom property.
+     * 
+     * @param rs
+     *            resultSet positioned before first row
+     * @return features with roles and custom properties
+     * @throws SQLException
+     *             error accured when parsing resultSet
+     */
+    public Map<String, Feature> mapFeaturesJoin(ResultSet rs) throws SQLException {
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        while (rs.next()) {
+            String featUid = rs.getString(COL_FEAT_UID);
+            Feature f = features.get(featUid);
+            if (f == null) {
+                f = mapFeature(rs);
+                features.put(featUid, f);
+            }
+            String role = rs.getString(COL_ROLE_ROLENAME);
+            if (role != null) {
+                f.getPermissions().add(role);
+            }
+            String propertyName = rs.getString(COL_JOIN_PROPERTY_ID);
+            if (propertyName != null && !f.getCustomProperties().containsKey(propertyName)) {
+                f.getCustomProperties().put(propertyName, PropertyFactory.createProperty(propertyName, 
+                        rs.getString(COL_JOIN_PROPERTY_TYPE), rs.getString(COL_JOIN_PROPERTY_VALUE), 
+                        rs.getString(COL_JOIN_PROPERTY_DESCRIPTION), rs.getString(COL_JOIN_PROPERTY_FIXED)));
+            }
+        }
+        return features;
+    }
 
 
 }
@@ -11,18 +11,18 @@ package org.ff4j.store;
  * governing permissions and limitations under the License. #L%
  */
 
-import static org.ff4j.utils.JdbcUtils.closeConnection;
-import static org.ff4j.utils.JdbcUtils.closeResultSet;
-import static org.ff4j.utils.JdbcUtils.closeStatement;
-import static org.ff4j.utils.JdbcUtils.rollback;
+import static org.ff4j.utils.JdbcUtils.isIntegrityConstraintViolation;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -36,9 +36,11 @@ import org.ff4j.exception.FeatureNotFoundException;
 import org.ff4j.exception.GroupNotFoundException;
 import org.ff4j.property.AbstractProperty;
 import org.ff4j.property.store.JdbcPropertyMapper;
+import org.ff4j.utils.JdbcSession;
 import org.ff4j.utils.ParameterUtils;
 import org.ff4j.utils.Util;
 
+
 ;/**
  * Implementation of {@link FeatureStore} to work with RDBMS through JDBC.
  * 
@@ -46,6 +48,12 @@ import org.ff4j.utils.Util;
  */
 public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStoreConstants {
 
+    /** Number of rows fetched per round trip when loading many features. */
+    private static final int BULK_FETCH_SIZE = 500;
+
+    /** Maximum number of identifiers in a IN list (Oracle rejects more than 1000, SQL Server more than 2100 parameters). */
+    private static final int MAX_IN_LIST_SIZE = 500;
+
     /** Access to storage. */
     private DataSource dataSource;
     
@@ -79,16 +87,14 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         importFeaturesFromXmlFile(xmlConfFile);
     }
 
+
     /** {@inheritDoc} */
     @Override
     public void enable(String uid) {
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        update(SQL_ENABLE, uid);
+        updateFeature(uid, SQL_ENABLE, uid);
     }
 
     /** {@inheritDoc} */
@@ -97,10 +103,7 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        update(SQL_DISABLE, uid);
+        updateFeature(uid, SQL_DISABLE, uid);
     }
 
     /** {@inheritDoc} */
@@ -109,104 +112,86 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        Connection          sqlConn = null;
-        PreparedStatement   ps = null;
-        ResultSet           rs = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            // Pick connection
-            sqlConn = getDataSource().getConnection();
-            
-            // Query Exist
-            ps = sqlConn.prepareStatement(SQL_EXIST);
-            ps.setString(1, uid);
-            
-            // Execute
-            rs = ps.executeQuery();
-            if (rs.next()) {
-                return 1 == rs.getInt(1);
-            }
-            return false;
+            return exist(session, uid);
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            session.close();
         }
     }
 
+    /**
+     * Check feature existence within an opened session.
+     * 
+     * @param session
+     *            current session
+     * @param uid
+     *            feature identifier
+     * @return if the feature exists
+     * @throws SQLException
+     *             error when accessing database
+     */
+    private boolean exist(JdbcSession session, String uid) throws SQLException {
+        ResultSet rs = session.query(SQL_EXIST, uid);
+        return rs.next() && 1 == rs.getInt(1);
+    }
+
     /** {@inheritDoc} */    
     @Override
     public Feature read(String uid) {
+        Feature f = findIfExists(uid);
+        if (f == null) {
+            throw new FeatureNotFoundException(uid);
+        }
+        return f;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature findIfExists(String uid) {
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        
-        Connection          sqlConn = null;
-        PreparedStatement   ps = null;
-        ResultSet           rs = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            // Pick connection
-            sqlConn = getDataSource().getConnection();
-            
-            // Read a feature by its ID (tables FEATURES)
-            ps = sqlConn.prepareStatement(SQLQUERY_GET_FEATURE_BY_ID);
-            ps.setString(1, uid);
-            rs = ps.executeQuery();
-            Feature f = null;
-            if (rs.next()) {
-                f = JDBC_FEATURE_MAPPER.mapFeature(rs);
-            } else {
-                throw new FeatureNotFoundException(uid);
-            }
-
-            // Enrich to get roles 2nd request
-            ps = sqlConn.prepareStatement(SQL_GET_ROLES);
-            ps.setString(1, uid);
-            rs = ps.executeQuery();
-            while (rs.next()) {
-                f.getPermissions().add(rs.getString("ROLE_NAME"));
-            }
-            
-            // Enrich with properties 3d request to get custom properties by uid
-            ps = sqlConn.prepareStatement(SQL_GET_CUSTOMPROPERTIES_BYFEATUREID);
-            ps.setString(1, uid);
-            rs = ps.executeQuery();
-            while (rs.next()) {
-                AbstractProperty<?> ap = JDBC_PROPERTY_MAPPER.map(rs);
-                f.getCustomProperties().put(ap.getName(), ap);
-            }
-            return f;
+            return findIfExists(session, uid);
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            session.close();
         }
     }
 
+    /**
+     * Read feature, roles and custom properties in a single round trip within an opened session.
+     * 
+     * @param session
+     *            current session
+     * @param uid
+     *            feature identifier
+     * @return feature or null if not found
+     * @throws SQLException
+     *             error when accessing database
+     */
+    private Feature findIfExists(JdbcSession session, String uid) throws SQLException {
+        return JDBC_FEATURE_MAPPER.mapFeaturesJoin(session.query(SQLQUERY_GET_FEATURE_BY_ID_JOIN, uid)).get(uid);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void create(Feature fp) {
         if (fp == null) {
             throw new IllegalArgumentException("Feature cannot be null nor empty");
         }
-        if (exist(fp.getUid())) {
-            throw new FeatureAlreadyExistException(fp.getUid());
-        }
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-
-            // Create connection
-            sqlConn = getDataSource().getConnection();
-            
             // Begin TX
-            sqlConn.setAutoCommit(false);
+            session.begin();
 
-            // Create feature
-            ps = sqlConn.prepareStatement(SQL_CREATE);
+            // Create feature, primary key rejects existing identifier
+            PreparedStatement ps = session.prepare(SQL_CREATE);
             ps.setString(1, fp.getUid());
             ps.setInt(2, fp.isEnable() ? 1 : 0);
             ps.setString(3, fp.getDescription());
@@ -219,45 +204,36 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
             ps.setString(4, strategyColumn);
             ps.setString(5, expressionColumn);
             ps.setString(6, fp.getGroup());
-            ps.executeUpdate();
+            try {
+                ps.executeUpdate();
+            } catch (SQLException sqlEX) {
+                if (isIntegrityConstraintViolation(sqlEX)) {
+                    throw new FeatureAlreadyExistException(fp.getUid());
+                }
+                throw sqlEX;
+            }
 
             // Create roles
             if (fp.getPermissions() != null) {
                 for (String role : fp.getPermissions()) {
-                    ps = sqlConn.prepareStatement(SQL_ADD_ROLE);
-                    ps.setString(1, fp.getUid());
-                    ps.setString(2, role);
-                    ps.executeUpdate();
+                    session.addBatch(SQL_ADD_ROLE, fp.getUid(), role);
                 }
+                session.executeBatch(SQL_ADD_ROLE);
             }
             
             // Create customproperties
-            if (fp.getCustomProperties() != null && !fp.getCustomProperties().isEmpty()) {
-                for (AbstractProperty<?> pp : fp.getCustomProperties().values()) {
-                    ps = sqlConn.prepareStatement(SQL_CREATE_CUSTOMPROPERTY);
-                    ps.setString(1, pp.getName());
-                    ps.setString(2, pp.getType());
-                    ps.setString(3, pp.asString());
-                    if (pp.getFixedValues() != null && pp.getFixedValues().size() > 0) {
-                        String fixedValues = pp.getFixedValues().toString();
-                        ps.setString(4, fixedValues.substring(1, fixedValues.length() - 1));
-                    } else {
-                        ps.setString(4, null);
-                    }
-                    ps.setString(5, fp.getUid());
-                    ps.executeUpdate();
-                }
+            if (fp.getCustomProperties() != null) {
+                createCustomProperties(session, fp.getUid(), fp.getCustomProperties().values());
             }
 
             // Commit
-            sqlConn.commit();
+            session.commit();
 
         } catch (SQLException sqlEX) {
-            rollback(sqlConn);
+            session.rollback();
             throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
         } finally {
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            session.close();
         }
     }
 
@@ -267,52 +243,20 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            Feature fp = read(uid);
-
-            // Create connection
-            sqlConn = getDataSource().getConnection();
-            sqlConn.setAutoCommit(false);
-            
-            // Delete Properties
-            if (fp.getCustomProperties() != null && !fp.getCustomProperties().isEmpty()) {
-                for (String property : fp.getCustomProperties().keySet()) {
-                    ps = sqlConn.prepareStatement(SQL_DELETE_CUSTOMPROPERTY);
-                    ps.setString(1, property);
-                    ps.setString(2, fp.getUid());
-                    ps.executeUpdate();
-                }
-            }
-
-            // Delete Roles
-            if (fp.getPermissions() != null) {
-                for (String role : fp.getPermissions()) {
-                    ps = sqlConn.prepareStatement(SQL_DELETE_ROLE);
-                    ps.setString(1, fp.getUid());
-                    ps.setString(2, role);
-                    ps.executeUpdate();
-                }
+            session.begin();
+            session.update(SQL_DELETE_CUSTOMPROPERTIES, uid);
+            session.update(SQL_DELETE_ROLES, uid);
+            if (0 == session.update(SQL_DELETE, uid)) {
+                throw new FeatureNotFoundException(uid);
             }
-
-            // Delete Feature
-            ps = sqlConn.prepareStatement(SQL_DELETE);
-            ps.setString(1, fp.getUid());
-            ps.executeUpdate();
-
-            // Commit
-            sqlConn.commit();
-
+            session.commit();
         } catch (SQLException sqlEX) {
-            rollback(sqlConn);
+            session.rollback();
             throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
         } finally {
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            session.close();
         }
     }
   
@@ -325,10 +269,22 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (roleName == null || roleName.isEmpty()) {
             throw new IllegalArgumentException("roleName cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
+        JdbcSession session = new JdbcSession(getDataSource());
+        try {
+            try {
+                session.update(SQL_ADD_ROLE, uid, roleName);
+            } catch (SQLException sqlEX) {
+                // A missing feature fails on the foreign key, the feature is looked up only then
+                if (isIntegrityConstraintViolation(sqlEX) && !exist(session, uid)) {
+                    throw new FeatureNotFoundException(uid);
+                }
+                throw sqlEX;
+            }
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
+        } finally {
+            session.close();
         }
-        update(SQL_ADD_ROLE, uid, roleName);
     }
 
     /** {@inheritDoc} */
@@ -340,58 +296,116 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (roleName == null || roleName.isEmpty()) {
             throw new IllegalArgumentException("roleName cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        update(SQL_DELETE_ROLE, uid, roleName);
+        updateFeature(uid, SQL_DELETE_ROLE, uid, roleName);
     }
     
     /** {@inheritDoc} */
     @Override
     public Map<String, Feature> readAll() {
-        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        return loadFeatures(SQLQUERY_ALLFEATURES, SQL_GET_ALLROLES, SQL_GET_ALLCUSTOMPROPERTIES);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readMany(Set<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        if (featureIds.isEmpty()) {
+            return new LinkedHashMap<String, Feature>();
+        }
+        // Identifiers are split in chunks to keep IN lists under database limits
+        String[] uids = featureIds.toArray(new String[featureIds.size()]);
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        for (int from = 0; from < uids.length; from += MAX_IN_LIST_SIZE) {
+            String[] chunk = Arrays.copyOfRange(uids, from, Math.min(uids.length, from + MAX_IN_LIST_SIZE));
+            String inList = buildInList(chunk.length);
+            features.putAll(loadFeatures(SQLQUERY_GET_FEATURES_IN + inList, 
+                    SQL_GET_ROLES_IN + inList, SQL_GET_CUSTOMPROPERTIES_IN + inList, chunk));
+        }
+        return features;
+    }
+    
+    /**
+     * Load a set of features with their roles and custom properties : one query per table whatever the number of
+     * features, rows are streamed and attached to their feature in a single pass.
+     * 
+     * @param sqlFeatures
+     *            query on table FF4J_FEATURES
+     * @param sqlRoles
+     *            query on table FF4J_ROLES, same filter
+     * @param sqlProperties
+     *            query on table FF4J_CUSTOM_PROPERTIES, same filter
+     * @param params
+     *            parameters of the three queries
+     * @return features by identifier
+     */
+    private Map<String, Feature> loadFeatures(String sqlFeatures, String sqlRoles, String sqlProperties, String... params) {
+        Map<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        JdbcSession session = new JdbcSession(getDataSource());
+        session.setFetchSize(BULK_FETCH_SIZE);
         try {
-            // Returns features
-            sqlConn = dataSource.getConnection();
-            ps = sqlConn.prepareStatement(SQLQUERY_ALLFEATURES);
-            rs = ps.executeQuery();
+            // Features
+            ResultSet rs = session.query(sqlFeatures, params);
             while (rs.next()) {
                 Feature f = JDBC_FEATURE_MAPPER.mapFeature(rs);
                 mapFP.put(f.getUid(), f);
             }
-
-            // Returns Roles
-            rs = ps.getConnection().prepareStatement(SQL_GET_ALLROLES).executeQuery();
+            if (mapFP.isEmpty()) {
+                return mapFP;
+            }
+            
+            // Roles
+            rs = session.query(sqlRoles, params);
+            while (rs.next()) {
+                Feature f = mapFP.get(rs.getString(COL_ROLE_FEATID));
+                if (f != null) {
+                    f.getPermissions().add(rs.getString(COL_ROLE_ROLENAME));
+                }
+            }
+            
+            // Custom properties
+            rs = session.query(sqlProperties, params);
             while (rs.next()) {
-                String uid = rs.getString(COL_ROLE_FEATID);
-                mapFP.get(uid).getPermissions().add(rs.getString(COL_ROLE_ROLENAME));
+                Feature f = mapFP.get(rs.getString(COL_FEAT_UID));
+                if (f != null) {
+                    AbstractProperty<?> ap = JDBC_PROPERTY_MAPPER.map(rs);
+                    f.getCustomProperties().put(ap.getName(), ap);
+                }
             }
             return mapFP;
-
         } catch (SQLException sqlEX) {
-            throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
+            throw new FeatureAccessException("Cannot read features, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            session.close();
         }
     }
 
+    /**
+     * Build parameterized IN list as (?,?,?).
+     * 
+     * @param size
+     *            number of parameters
+     * @return sql fragment
+     */
+    private String buildInList(int size) {
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append("?");
+        }
+        return sb.append(")").toString();
+    }
+
     /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
         Set<String> setOFGroup = new HashSet<String>();
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            // Returns features
-            sqlConn = dataSource.getConnection();
-            ps = sqlConn.prepareStatement(SQLQUERY_ALLGROUPS);
-            rs = ps.executeQuery();
+            ResultSet rs = session.query(SQLQUERY_ALLGROUPS);
             while (rs.next()) {
                 String groupName = rs.getString(COL_FEAT_GROUPNAME);
                 if (groupName != null && !"".equals(groupName)) {
@@ -402,122 +416,177 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot list groups, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            session.close();
         }
     }
 
     /** {@inheritDoc} */
     @Override
     public void update(Feature fp) {
-        /**
-         * TODO : THIS OPERATION IS NOT PERFORMED IN A SINGLE TX but leverage on sub method
-         * Create a single Connect and COMMIT at end
-         */
         if (fp == null) {
             throw new IllegalArgumentException("Feature cannot be null nor empty");
         }
-        Feature fpExist = read(fp.getUid());
-        String enable = "0";
-        if (fp.isEnable()) {
-            enable = "1";
+        JdbcSession session = new JdbcSession(getDataSource());
+        try {
+            // Read and write within the same transaction, only changed rows are written
+            session.begin();
+            Feature fpExist = findIfExists(session, fp.getUid());
+            if (fpExist == null) {
+                throw new FeatureNotFoundException(fp.getUid());
+            }
+            
+            // CORE
+            String[] columns = toColumns(fp);
+            if (!Arrays.equals(toColumns(fpExist), columns)) {
+                session.update(SQL_UPDATE, columns);
+            }
+
+            // ROLES
+            
+            // To be deleted (not in new value but was at first)
+            Set<String> toBeDeleted = new HashSet<String>();
+            toBeDeleted.addAll(fpExist.getPermissions());
+            toBeDeleted.removeAll(fp.getPermissions());
+            for (String roleToBeDelete : toBeDeleted) {
+                session.addBatch(SQL_DELETE_ROLE, fpExist.getUid(), roleToBeDelete);
+            }
+            session.executeBatch(SQL_DELETE_ROLE);
+
+            // To be created : in second but not in first
+            Set<String> toBeAdded = new HashSet<String>();
+            toBeAdded.addAll(fp.getPermissions());
+            toBeAdded.removeAll(fpExist.getPermissions());
+            for (String addee : toBeAdded) {
+                session.addBatch(SQL_ADD_ROLE, fpExist.getUid(), addee);
+            }
+            session.executeBatch(SQL_ADD_ROLE);
+            
+            // CUSTOM PROPERTIES, rows are identified by property name
+            Map<String, AbstractProperty<?>> newProperties = new HashMap<String, AbstractProperty<?>>();
+            if (fp.getCustomProperties() != null) {
+                for (AbstractProperty<?> pp : fp.getCustomProperties().values()) {
+                    newProperties.put(pp.getName(), pp);
+                }
+            }
+            for (String oldProperty : fpExist.getCustomProperties().keySet()) {
+                if (!newProperties.containsKey(oldProperty)) {
+                    session.addBatch(SQL_DELETE_CUSTOMPROPERTY, oldProperty, fp.getUid());
+                }
+            }
+            session.executeBatch(SQL_DELETE_CUSTOMPROPERTY);
+            List<AbstractProperty<?>> toBeCreated = new ArrayList<AbstractProperty<?>>();
+            for (AbstractProperty<?> pp : newProperties.values()) {
+                AbstractProperty<?> oldProperty = fpExist.getCustomProperties().get(pp.getName());
+                if (oldProperty == null) {
+                    toBeCreated.add(pp);
+                } else if (!isSameCustomProperty(oldProperty, pp)) {
+                    session.addBatch(SQL_UPDATE_CUSTOMPROPERTY, 
+                            pp.getType(), pp.asString(), fixedValues(pp), pp.getName(), fp.getUid());
+                }
+            }
+            session.executeBatch(SQL_UPDATE_CUSTOMPROPERTY);
+            createCustomProperties(session, fp.getUid(), toBeCreated);
+            session.commit();
+            
+        } catch (SQLException sqlEX) {
+            session.rollback();
+            throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
+        } finally {
+            session.close();
         }
+    }
+    
+    /**
+     * Values of FF4J_FEATURES columns in the order expected by SQL_UPDATE.
+     * 
+     * @param fp
+     *      current feature
+     * @return columns values
+     */
+    private String[] toColumns(Feature fp) {
         String fStrategy = null;
         String fExpression = null;
         if (fp.getFlippingStrategy() != null) {
             fStrategy = fp.getFlippingStrategy().getClass().getCanonicalName();
             fExpression = ParameterUtils.fromMap(fp.getFlippingStrategy().getInitParams());
         }
-        update(SQL_UPDATE, enable, fp.getDescription(), fStrategy, fExpression, fp.getGroup(), fp.getUid());
-
-        // ROLES
-        
-        // To be deleted (not in new value but was at first)
-        Set<String> toBeDeleted = new HashSet<String>();
-        toBeDeleted.addAll(fpExist.getPermissions());
-        toBeDeleted.removeAll(fp.getPermissions());
-        for (String roleToBeDelete : toBeDeleted) {
-            removeRoleFromFeature(fpExist.getUid(), roleToBeDelete);
-        }
-
-        // To be created : in second but not in first
-        Set<String> toBeAdded = new HashSet<String>();
-        toBeAdded.addAll(fp.getPermissions());
-        toBeAdded.removeAll(fpExist.getPermissions());
-        for (String addee : toBeAdded) {
-            grantRoleOnFeature(fpExist.getUid(), addee);
-        }
-        
-        // REMOVE EXISTING CUSTOM PROPERTIES
-        if (fpExist.getCustomProperties() != null && !fpExist.getCustomProperties().isEmpty()) {
-            Connection sqlConn = null;
-            PreparedStatement ps = null;
-            try {
-                sqlConn = dataSource.getConnection();
-                ps = sqlConn.prepareStatement(SQL_DELETE_CUSTOMPROPERTIES);
-                ps.setString(1, fpExist.getUid());
-                ps.executeUpdate();
-            } catch (SQLException sqlEX) {
-                throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
-            } finally {
-                closeStatement(ps);
-                closeConnection(sqlConn);
-            }
+        return new String[] {fp.isEnable() ? "1" : "0", fp.getDescription(), fStrategy, fExpression, fp.getGroup(), fp.getUid()};
+    }
+    
+    /**
+     * Compare stored columns of two custom properties.
+     * 
+     * @param p1
+     *      first property
+     * @param p2
+     *      second property
+     * @return if the row would not change
+     */
+    private boolean isSameCustomProperty(AbstractProperty<?> p1, AbstractProperty<?> p2) {
+        return isEquals(p1.getType(), p2.getType())
+                && isEquals(p1.asString(), p2.asString())
+                && isEquals(asSet(p1.getFixedValues()), asSet(p2.getFixedValues()));
+    }
+    
+    /**
+     * Null safe equality.
+     * 
+     * @param o1
+     *      first value
+     * @param o2
+     *      second value
+     * @return if both are null or equal
+     */
+    private boolean isEquals(Object o1, Object o2) {
+        return (o1 == null) ? (o2 == null) : o1.equals(o2);
+    }
+    
+    /**
+     * Null safe fixed values.
+     * 
+     * @param fixedValues
+     *      fixed values of a property
+     * @return fixed values or empty set
+     */
+    private Set<?> asSet(Set<?> fixedValues) {
+        return fixedValues == null ? new HashSet<Object>() : fixedValues;
+    }
+    
+    /**
+     * Value of FIXEDVALUES column.
+     * 
+     * @param pp
+     *      current property
+     * @return fixed values as comma separated list or null
+     */
+    private String fixedValues(AbstractProperty<?> pp) {
+        if (pp.getFixedValues() == null || pp.getFixedValues().isEmpty()) {
+            return null;
         }
-        
-        // CREATE PROPERTIES
-        if (fp.getCustomProperties() != null && !fp.getCustomProperties().isEmpty()) {
-            createCustomProperties(fp.getUid(), fp.getCustomProperties().values());
-        }   
+        String fixedValues = pp.getFixedValues().toString();
+        return fixedValues.substring(1, fixedValues.length() - 1);
     }
     
     /**
      * Ease creation of properties in Database.
      * 
+     * @param session
+     *      current session
      * @param uid
      *      target unique identifier
      * @param props
      *      target properties.
+     * @throws SQLException
+     *      error when accessing database
      */
-    private void createCustomProperties(String uid, Collection <AbstractProperty<?> > props) {
+    private void createCustomProperties(JdbcSession session, String uid, Collection <AbstractProperty<?> > props)
+    throws SQLException {
         Util.assertNotNull(uid);
-        if (props == null | props.isEmpty()) return;
-       
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
-        
-        try {
-            sqlConn = dataSource.getConnection();
-            
-            // Begin TX
-            sqlConn.setAutoCommit(false);
-            
-            // Queries
-            for (AbstractProperty<?> pp : props) {
-                ps = sqlConn.prepareStatement(SQL_CREATE_CUSTOMPROPERTY);
-                ps.setString(1, pp.getName());
-                ps.setString(2, pp.getType());
-                ps.setString(3, pp.asString());
-                if (pp.getFixedValues() != null && pp.getFixedValues().size() > 0) {
-                    String fixedValues = pp.getFixedValues().toString();
-                    ps.setString(4, fixedValues.substring(1, fixedValues.length() - 1));
-                } else {
-                    ps.setString(4, null);
-                }
-                ps.setString(5, uid);
-                ps.executeUpdate();
-            }
-            
-            // End TX
-            sqlConn.commit();
-            
-        } catch (SQLException sqlEX) {
-            throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
-        } finally {
-            closeStatement(ps);
-            closeConnection(sqlConn);
+        if (props == null || props.isEmpty()) return;
+        for (AbstractProperty<?> pp : props) {
+            session.addBatch(SQL_CREATE_CUSTOMPROPERTY, pp.getName(), pp.getType(), pp.asString(), fixedValues(pp), uid);
         }
+        session.executeBatch(SQL_CREATE_CUSTOMPROPERTY);
     }
 
     /** {@inheritDoc} */
@@ -526,37 +595,39 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            sqlConn = dataSource.getConnection();
-            ps = sqlConn.prepareStatement(SQL_EXIST_GROUP);
-            ps.setString(1, groupName);
-            rs = ps.executeQuery();
-            if (rs.next()) {
-                return (rs.getInt(1) > 0);
-            }
-            return false;
+            return existGroup(session, groupName);
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
         } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
-            closeConnection(sqlConn);
+            session.close();
         }
     }
 
+    /**
+     * Check group existence within an opened session.
+     * 
+     * @param session
+     *            current session
+     * @param groupName
+     *            group name
+     * @return if at least one feature is in the group
+     * @throws SQLException
+     *             error when accessing database
+     */
+    private boolean existGroup(JdbcSession session, String groupName) throws SQLException {
+        ResultSet rs = session.query(SQL_EXIST_GROUP, groupName);
+        return rs.next() && rs.getInt(1) > 0;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void enableGroup(String groupName) {
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!existGroup(groupName)) {
-            throw new GroupNotFoundException(groupName);
-        }
-        update(SQL_ENABLE_GROUP, groupName);
+        updateGroup(groupName, SQL_ENABLE_GROUP);
     }
 
     /** {@inheritDoc} */
@@ -565,10 +636,7 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!existGroup(groupName)) {
-            throw new GroupNotFoundException(groupName);
-        }
-        update(SQL_DISABLE_GROUP, groupName);
+        updateGroup(groupName, SQL_DISABLE_GROUP);
     }
 
     /** {@inheritDoc} */
@@ -577,42 +645,12 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!existGroup(groupName)) {
+        Map<String, Feature> mapFP = loadFeatures(SQLQUERY_GET_FEATURE_GROUP, 
+                SQL_GET_ROLES_GROUP, SQL_GET_CUSTOMPROPERTIES_GROUP, groupName);
+        if (mapFP.isEmpty()) {
             throw new GroupNotFoundException(groupName);
         }
-        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
-        Connection sqlConn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
-        try {
-            // Returns features
-            sqlConn = dataSource.getConnection();
-            ps = sqlConn.prepareStatement(SQLQUERY_GET_FEATURE_GROUP);
-            ps.setString(1, groupName);
-            rs = ps.executeQuery();
-            while (rs.next()) {
-                Feature f = JDBC_FEATURE_MAPPER.mapFeature(rs);
-                mapFP.put(f.getUid(), f);
-            }
-
-            // Returns Roles
-            rs = ps.getConnection().prepareStatement(SQL_GET_ALLROLES).executeQuery();
-            while (rs.next()) {
-                String uid = rs.getString(COL_ROLE_FEATID);
-                // only feature in the group must be processed
-                if (mapFP.containsKey(uid)) {
-                    mapFP.get(uid).getPermissions().add(rs.getString(COL_ROLE_ROLENAME));
-                }
-            }
-            return mapFP;
-
-        } catch (SQLException sqlEX) {
-            throw new FeatureAccessException("Cannot check feature existence, error related to database", sqlEX);
-        } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
-            closeConnection(sqlConn);
-        }
+        return mapFP;
     }
 
     /** {@inheritDoc} */
@@ -624,10 +662,7 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        update(SQL_ADD_TO_GROUP, groupName, uid);
+        updateFeature(uid, SQL_ADD_TO_GROUP, groupName, uid);
     }
 
     /** {@inheritDoc} */
@@ -639,17 +674,26 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
         if (groupName == null || groupName.isEmpty()) {
             throw new IllegalArgumentException("Groupname cannot be null nor empty");
         }
-        if (!exist(uid)) {
-            throw new FeatureNotFoundException(uid);
-        }
-        if (!existGroup(groupName)) {
-            throw new GroupNotFoundException(groupName);
-        }
-        Feature feat = read(uid);
-        if (feat.getGroup() != null && !feat.getGroup().equals(groupName)) {
-            throw new IllegalArgumentException("'" + uid + "' is not in group '" + groupName + "'");
+        JdbcSession session = new JdbcSession(getDataSource());
+        try {
+            if (0 == session.update(SQL_REMOVE_FROM_GROUP_IFMEMBER, uid, groupName)) {
+                // Nothing updated, find out why
+                Feature feat = findIfExists(session, uid);
+                if (feat == null) {
+                    throw new FeatureNotFoundException(uid);
+                }
+                if (!existGroup(session, groupName)) {
+                    throw new GroupNotFoundException(groupName);
+                }
+                if (feat.getGroup() != null && !feat.getGroup().equals(groupName)) {
+                    throw new IllegalArgumentException("'" + uid + "' is not in group '" + groupName + "'");
+                }
+            }
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
+        } finally {
+            session.close();
         }
-        update(SQL_ADD_TO_GROUP, "", uid);
     }
 
     /** {@inheritDoc} */
@@ -711,46 +755,48 @@ public class JdbcFeatureStore extends AbstractFeatureStore implements  JdbcStore
     }
 
     /**
-     * Build {@link PreparedStatement} from parameters
+     * Utility method to perform INSERT, UPDATE and DELETE operations on an existing feature. The statement is executed
+     * directly, existence of the feature is only checked when no row has been impacted.
      * 
+     * @param uid
+     *            feature identifier
      * @param query
-     *            query template
+     *            target query
      * @param params
-     *            current parameters
-     * @return working {@link PreparedStatement}
-     * @throws SQLException
-     *             sql error when working with statement
+     *            sql query params
      */
-    private PreparedStatement buildStatement(Connection sqlConn, String query, String... params) throws SQLException {
-        PreparedStatement ps = sqlConn.prepareStatement(query);
-        if (params != null && params.length > 0) {
-            for (int i = 0; i < params.length; i++) {
-                ps.setString(i + 1, params[i]);
+    private void updateFeature(String uid, String query, String... params) {
+        JdbcSession session = new JdbcSession(getDataSource());
+        try {
+            if (0 == session.update(query, params) && !exist(session, uid)) {
+                throw new FeatureNotFoundException(uid);
             }
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
+        } finally {
+            session.close();
         }
-        return ps;
     }
-    
+
     /**
-     * Utility method to perform UPDATE and DELETE operations.
+     * Utility method to perform UPDATE operations on an existing group. Existence is only checked when no row is
+     * impacted : some drivers (e.g. MySQL with useAffectedRows) do not count rows already holding the value.
      * 
+     * @param groupName
+     *            group name
      * @param query
-     *            target query
-     * @param params
-     *            sql query params
+     *            target query, group name as single parameter
      */
-    private void update(String query, String... params) {
-        Connection sqlConnection = null;
-        PreparedStatement ps = null;
+    private void updateGroup(String groupName, String query) {
+        JdbcSession session = new JdbcSession(getDataSource());
         try {
-            sqlConnection = dataSource.getConnection();
-            ps = buildStatement(sqlConnection, query, params);
-            ps.executeUpdate();
+            if (0 == session.update(query, groupName) && !existGroup(session, groupName)) {
+                throw new GroupNotFoundException(groupName);
+            }
         } catch (SQLException sqlEX) {
             throw new FeatureAccessException("Cannot update features database, SQL ERROR", sqlEX);
         } finally {
-            closeStatement(ps);
-            closeConnection(sqlConnection);
+            session.close();
         }
     }
 
@@ -32,6 +32,20 @@ public interface JdbcStoreConstants {
     /** sql query expression */
     String SQLQUERY_GET_FEATURE_BY_ID = "SELECT FEAT_UID,ENABLE,DESCRIPTION,STRATEGY,EXPRESSION,GROUPNAME FROM FF4J_FEATURES WHERE FEAT_UID = ?";
 
+    /** sql query expression, to be completed with the IN list. */
+    String SQLQUERY_GET_FEATURES_IN = "SELECT FEAT_UID,ENABLE,DESCRIPTION,STRATEGY,EXPRESSION,GROUPNAME FROM FF4J_FEATURES WHERE FEAT_UID IN ";
+
+    /** sql query expression, feature with its roles and custom properties (one row per role and property). */
+    String SQLQUERY_FEATURE_JOIN = "SELECT F.FEAT_UID,F.ENABLE,F.DESCRIPTION,F.STRATEGY,F.EXPRESSION,F.GROUPNAME,R.ROLE_NAME,"
+            + "P.PROPERTY_ID AS P_PROPERTY_ID,P.CLAZZ AS P_CLAZZ,P.CURRENTVALUE AS P_CURRENTVALUE,"
+            + "P.DESCRIPTION AS P_DESCRIPTION,P.FIXEDVALUES AS P_FIXEDVALUES "
+            + "FROM FF4J_FEATURES F "
+            + "LEFT JOIN FF4J_ROLES R ON R.FEAT_UID = F.FEAT_UID "
+            + "LEFT JOIN FF4J_CUSTOM_PROPERTIES P ON P.FEAT_UID = F.FEAT_UID ";
+
+    /** sql query expression */
+    String SQLQUERY_GET_FEATURE_BY_ID_JOIN = SQLQUERY_FEATURE_JOIN + "WHERE F.FEAT_UID = ?";
+
     /** sql query expression */
     String SQL_EXIST = "SELECT COUNT(FEAT_UID) FROM FF4J_FEATURES WHERE FEAT_UID = ?";
 
@@ -41,6 +55,9 @@ public interface JdbcStoreConstants {
     /** sql query expression */
     String SQL_ADD_TO_GROUP = "UPDATE FF4J_FEATURES SET GROUPNAME = ? WHERE FEAT_UID = ?";
 
+    /** sql query expression, no row updated if the feature is not in the group. */
+    String SQL_REMOVE_FROM_GROUP_IFMEMBER = "UPDATE FF4J_FEATURES SET GROUPNAME = '' WHERE FEAT_UID = ? AND GROUPNAME = ?";
+
     /** sql query expression */
     String SQL_REMOVE_FROM_GROUP = "UPDATE FF4J_FEATURES SET GROUPNAME = NULL WHERE FEAT_UID = ?";
 
@@ -71,14 +88,38 @@ public interface JdbcStoreConstants {
     /** sql query expression */
     String SQL_DELETE_ROLE = "DELETE FROM FF4J_ROLES WHERE FEAT_UID = ? AND ROLE_NAME = ?";
 
+    /** sql query expression */
+    String SQL_DELETE_ROLES = "DELETE FROM FF4J_ROLES WHERE FEAT_UID = ?";
+
     /** sql query expression */
     String SQL_GET_ROLES = "SELECT ROLE_NAME FROM FF4J_ROLES WHERE FEAT_UID = ?";
     
     /** sql query expression */
     String SQL_GET_ALLROLES = "SELECT FEAT_UID,ROLE_NAME FROM FF4J_ROLES";
     
+    /** sql query expression, to be completed with the IN list. */
+    String SQL_GET_ROLES_IN = "SELECT FEAT_UID,ROLE_NAME FROM FF4J_ROLES WHERE FEAT_UID IN ";
+    
+    /** sql query expression */
+    String SQL_GET_ROLES_GROUP = "SELECT FEAT_UID,ROLE_NAME FROM FF4J_ROLES "
+            + "WHERE FEAT_UID IN (SELECT FEAT_UID FROM FF4J_FEATURES WHERE GROUPNAME = ?)";
+    
     // ------- Properties -------------
     
+    /** sql query expression, to be completed with the IN list. */
+    String SQL_GET_CUSTOMPROPERTIES_IN = "SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES,FEAT_UID "
+            + "FROM FF4J_CUSTOM_PROPERTIES "
+            + "WHERE FEAT_UID IN ";
+    
+    /** sql query expression */
+    String SQL_GET_ALLCUSTOMPROPERTIES = "SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES,FEAT_UID "
+            + "FROM FF4J_CUSTOM_PROPERTIES";
+    
+    /** sql query expression */
+    String SQL_GET_CUSTOMPROPERTIES_GROUP = "SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES,FEAT_UID "
+            + "FROM FF4J_CUSTOM_PROPERTIES "
+            + "WHERE FEAT_UID IN (SELECT FEAT_UID FROM FF4J_FEATURES WHERE GROUPNAME = ?)";
+    
     /** sql query expression */
     String SQL_GET_CUSTOMPROPERTIES_BYFEATUREID = "SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES,FEAT_UID "
             + "FROM FF4J_CUSTOM_PROPERTIES "
@@ -97,6 +138,9 @@ public interface JdbcStoreConstants {
     
     /** sql query expression */
     String SQL_CREATE_CUSTOMPROPERTY = "INSERT INTO FF4J_CUSTOM_PROPERTIES(PROPERTY_ID, CLAZZ, CURRENTVALUE, FIXEDVALUES, FEAT_UID) VALUES(?, ?, ?, ?, ?)";
+
+    /** sql query expression */
+    String SQL_UPDATE_CUSTOMPROPERTY = "UPDATE FF4J_CUSTOM_PROPERTIES SET CLAZZ = ?, CURRENTVALUE = ?, FIXEDVALUES = ? WHERE PROPERTY_ID = ? AND FEAT_UID = ?";
     
     /** Create property. */
     String SQL_PROPERTY_CREATE = "INSERT INTO FF4J_PROPERTIES(PROPERTY_ID, CLAZZ, CURRENTVALUE, DESCRIPTION, FIXEDVALUES) VALUES(?, ?, ?, ?, ?)";
@@ -114,7 +158,7 @@ public interface JdbcStoreConstants {
     String SQL_PROPERTY_UPDATE = "UPDATE FF4J_PROPERTIES SET CURRENTVALUE = ? WHERE PROPERTY_ID = ?";
 
     /** sql query expression */
-    String SQL_PROPERTY_READALL = "SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES,FEAT_UID FROM FF4J_PROPERTIES";
+    String SQL_PROPERTY_READALL = "SELECT PROPERTY_ID,CLAZZ,CURRENTVALUE,DESCRIPTION,FIXEDVALUES FROM FF4J_PROPERTIES";
     
     // ------- AUDIT -------------
     
@@ -138,28 +182,61 @@ public interface JdbcStoreConstants {
     /** Creation. */
     String SQL_AUDIT_LISTFEATURES = "SELECT DISTINCT " + COL_EVENT_UID + " FROM " + TABLE_AUDIT;
     
-    /** Count target feature. */
-    String SQL_AUDIT_COUNTFEATURE =  "SELECT COUNT(*) FROM " + TABLE_AUDIT   + // Count
-                                     " WHERE (" + COL_EVENT_UID + " LIKE ?)" + // Select target feature
-                                     " AND   (" + COL_EVENT_TYPE + " LIKE '" + EventType.FEATURE_CHECK_ON + "') " + // only checked
+    /** Count hits per feature (in a time window), aggregated by the database. */
+    String SQL_AUDIT_COUNT_HITS_BYFEATURE = "SELECT " + COL_EVENT_UID + ", COUNT(*) AS NB FROM " + TABLE_AUDIT +
+                                     " WHERE (" + COL_EVENT_TYPE + " = '" + EventType.FEATURE_CHECK_ON + "') " + // only checked
                                      " AND   (" + COL_EVENT_TIME + "> ?) " +    // lower bound
-                                     " AND   (" + COL_EVENT_TIME + "< ?)";      // upper bound
-    /** Count target feature. */
-    String SQL_AUDIT_FEATURE_EVENTOK = "SELECT * FROM " + TABLE_AUDIT  + // Count
-                                     " WHERE (" + COL_EVENT_UID + " LIKE ?)" + // Select target feature
-                                     " AND   (" + COL_EVENT_TYPE + " LIKE '" + EventType.FEATURE_CHECK_ON + "') " + // only checked
+                                     " AND   (" + COL_EVENT_TIME + "< ?) " +    // upper bound
+                                     " GROUP BY " + COL_EVENT_UID + " ORDER BY " + COL_EVENT_UID;
+    
+    /** Count hits per feature and time slot, slot expression is built from the number of slots. */
+    String SQL_AUDIT_COUNT_HITS_BYSLOT = "SELECT " + COL_EVENT_UID + ", SLOT, COUNT(*) AS NB FROM " +
+                                     "(SELECT " + COL_EVENT_UID + ", %s AS SLOT FROM " + TABLE_AUDIT +
+                                     " WHERE (" + COL_EVENT_TYPE + " = '" + EventType.FEATURE_CHECK_ON + "') " + // only checked
                                      " AND   (" + COL_EVENT_TIME + "> ?) " +    // lower bound
-                                     " AND   (" + COL_EVENT_TIME + "< ?)";      // upper bound
+                                     " AND   (" + COL_EVENT_TIME + "< ?)) HITS " + // upper bound
+                                     " GROUP BY " + COL_EVENT_UID + ", SLOT";
     
-    /** List events for a dedicate feature (in a time window). */
-    String SQL_AUDIT_FEATURE_ALLEVENTS = "SELECT * FROM " + TABLE_AUDIT  +      // Count
-                                     " WHERE (" + COL_EVENT_UID + " LIKE ?)" +  // Select target feature
+    /** Count events per type for a dedicated feature (in a time window). */
+    String SQL_AUDIT_COUNT_EVENTS_BYTYPE = "SELECT " + COL_EVENT_TYPE + ", COUNT(*) AS NB FROM " + TABLE_AUDIT +
+                                     " WHERE (" + COL_EVENT_UID + " = ?)" +     // Select target feature
                                      " AND   (" + COL_EVENT_TIME + "> ?) " +    // lower bound
-                                     " AND   (" + COL_EVENT_TIME + "< ?)";      // upper bound
+                                     " AND   (" + COL_EVENT_TIME + "< ?) " +    // upper bound
+                                     " GROUP BY " + COL_EVENT_TYPE;
     
     /** Deletion of single entry. */
     String SQL_AUDIT_DELETE = "DELETE FROM " + TABLE_AUDIT + " WHERE (" + COL_EVENT_TIME + " = ?) AND (" + COL_EVENT_TYPE + " LIKE ? " + COL_EVENT_UID + ")";
     
+    /** table name for store version. */
+    String TABLE_STORE_VERSION = "FF4J_STORE_VERSION";
+    
+    /** table name for change log. */
+    String TABLE_CHANGELOG = "FF4J_CHANGELOG";
+    
+    /** sql column name for version (tables FF4J_STORE_VERSION and FF4J_CHANGELOG). */
+    String COL_VERSION = "VERSION";
+    
+    /** sql column name from table FF4J_CHANGELOG. */
+    String COL_CHANGE_TIME = "CHANGE_TIME";
+    
+    /** Increment store version by the number of changes, locks the row up to commit to serialize modifications. */
+    String SQL_VERSION_INCREMENT = "UPDATE " + TABLE_STORE_VERSION + " SET " + COL_VERSION + " = " + COL_VERSION + " + ?";
+    
+    /** Read store version. */
+    String SQL_VERSION_READ = "SELECT " + COL_VERSION + " FROM " + TABLE_STORE_VERSION;
+    
+    /** Record a modification. */
+    String SQL_CHANGELOG_INSERT = "INSERT INTO " + TABLE_CHANGELOG + "(" + COL_VERSION + ", FEAT_UID, " + COL_CHANGE_TIME + ") VALUES (?, ?, ?)";
+    
+    /** Read modifications after a version. */
+    String SQL_CHANGELOG_READ = "SELECT " + COL_VERSION + ", FEAT_UID FROM " + TABLE_CHANGELOG + " WHERE " + COL_VERSION + " > ? ORDER BY " + COL_VERSION;
+    
+    /** Oldest modification retained. */
+    String SQL_CHANGELOG_OLDEST = "SELECT MIN(" + COL_VERSION + ") FROM " + TABLE_CHANGELOG;
+    
+    /** Purge modifications before a version. */
+    String SQL_CHANGELOG_PURGE = "DELETE FROM " + TABLE_CHANGELOG + " WHERE " + COL_VERSION + " < ?";
+    
     // ----- Columns
 
     /** sql column name from table FF4J_FEATURES. */
@@ -203,5 +280,20 @@ public interface JdbcStoreConstants {
     
     /** sql column name from table FF4J_PROPERTIES. */
     String COL_PROPERTY_DESCRIPTION = "DESCRIPTION";
+    
+    /** sql column alias for custom properties in join queries. */
+    String COL_JOIN_PROPERTY_ID = "P_PROPERTY_ID";
+    
+    /** sql column alias for custom properties in join queries. */
+    String COL_JOIN_PROPERTY_TYPE = "P_CLAZZ";
+    
+    /** sql column alias for custom properties in join queries. */
+    String COL_JOIN_PROPERTY_VALUE = "P_CURRENTVALUE";
+    
+    /** sql column alias for custom properties in join queries. */
+    String COL_JOIN_PROPERTY_DESCRIPTION = "P_DESCRIPTION";
+    
+    /** sql column alias for custom properties in join queries. */
+    String COL_JOIN_PROPERTY_FIXED = "P_FIXEDVALUES";
    
 }
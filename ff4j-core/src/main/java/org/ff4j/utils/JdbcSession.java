@@ -0,0 +1,311 @@
+package org.ff4j.utils;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.ff4j.utils.JdbcUtils.closeConnection;
+import static org.ff4j.utils.JdbcUtils.closeResultSet;
+import static org.ff4j.utils.JdbcUtils.closeStatement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.ff4j.exception.FeatureAccessException;
+
+/**
+ * Unit of work on a single JDBC connection.
+ * 
+ * <p>
+ * The connection is picked from the {@link DataSource} on first use. Prepared statements are cached per SQL query for the
+ * lifetime of the session, so loops and multi-statement operations reuse the same cursor. Every statement and result set
+ * opened through the session is released by {@link #close()}, which should always be invoked in a <code>finally</code>
+ * block :
+ * </p>
+ * 
+ * <pre>
+ * JdbcSession session = new JdbcSession(dataSource);
+ * try {
+ *     session.begin();
+ *     session.update(SQL_ADD_ROLE, uid, role);
+ *     session.commit();
+ * } catch (SQLException sqlEX) {
+ *     session.rollback();
+ *     throw new FeatureAccessException("...", sqlEX);
+ * } finally {
+ *     session.close();
+ * }
+ * </pre>
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class JdbcSession {
+
+    /** Source of the connection. */
+    private final DataSource dataSource;
+
+    /** Current connection, opened lazily. */
+    private Connection sqlConn;
+
+    /** Prepared statements by query. */
+    private final Map<String, PreparedStatement> statements = new LinkedHashMap<String, PreparedStatement>();
+
+    /** Result sets opened within the session. */
+    private final List<ResultSet> resultSets = new ArrayList<ResultSet>();
+
+    /** Fetch size hint for new statements, 0 lets the driver decide. */
+    private int fetchSize = 0;
+
+    /** Flag if a transaction is pending. */
+    private boolean transaction = false;
+
+    /** Flag if auto commit mode has been changed on the connection. */
+    private boolean autoCommitChanged = false;
+
+    /** Auto commit mode of the connection before the first transaction. */
+    private boolean initialAutoCommit = true;
+
+    /**
+     * Constructor from DataSource.
+     * 
+     * @param dataSource
+     *            native jdbc datasource
+     */
+    public JdbcSession(DataSource dataSource) {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("DataSource (param#0) cannot be null");
+        }
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Access the connection of the session, pick it from the datasource if needed.
+     * 
+     * @return current connection
+     * @throws SQLException
+     *             error when accessing database
+     */
+    public Connection getConnection() throws SQLException {
+        if (sqlConn == null) {
+            sqlConn = dataSource.getConnection();
+        }
+        return sqlConn;
+    }
+
+    /**
+     * Retrieve statement from cache or prepare it, then bind parameters.
+     * 
+     * @param query
+     *            query template
+     * @param params
+     *            current parameters
+     * @return working {@link PreparedStatement}
+     * @throws SQLException
+     *             sql error when working with statement
+     */
+    public PreparedStatement prepare(String query, String... params) throws SQLException {
+        PreparedStatement ps = statements.get(query);
+        if (ps == null) {
+            ps = getConnection().prepareStatement(query);
+            if (fetchSize > 0) {
+                ps.setFetchSize(fetchSize);
+            }
+            statements.put(query, ps);
+        } else {
+            ps.clearParameters();
+        }
+        if (params != null) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setString(i + 1, params[i]);
+            }
+        }
+        return ps;
+    }
+
+    /**
+     * Execute a query, the result set is closed with the session.
+     * 
+     * @param query
+     *            query template
+     * @param params
+     *            current parameters
+     * @return results
+     * @throws SQLException
+     *             sql error when working with statement
+     */
+    public ResultSet query(String query, String... params) throws SQLException {
+        return executeQuery(prepare(query, params));
+    }
+
+    /**
+     * Execute a statement provided by {@link #prepare(String, String...)}, the result set is closed with the session.
+     * 
+     * @param ps
+     *            prepared statement with bound parameters
+     * @return results
+     * @throws SQLException
+     *             sql error when working with statement
+     */
+    public ResultSet executeQuery(PreparedStatement ps) throws SQLException {
+        ResultSet rs = ps.executeQuery();
+        resultSets.add(rs);
+        return rs;
+    }
+
+    /**
+     * Execute an INSERT, UPDATE or DELETE statement.
+     * 
+     * @param query
+     *            query template
+     * @param params
+     *            current parameters
+     * @return number of rows impacted
+     * @throws SQLException
+     *             sql error when working with statement
+     */
+    public int update(String query, String... params) throws SQLException {
+        return prepare(query, params).executeUpdate();
+    }
+
+    /**
+     * Add a set of parameters to the batch of a statement.
+     * 
+     * @param query
+     *            query template
+     * @param params
+     *            current parameters
+     * @throws SQLException
+     *             sql error when working with statement
+     */
+    public void addBatch(String query, String... params) throws SQLException {
+        // Parameters of previous rows are part of the batch, they must not be cleared
+        PreparedStatement ps = statements.get(query);
+        if (ps == null) {
+            ps = prepare(query, params);
+        } else if (params != null) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setString(i + 1, params[i]);
+            }
+        }
+        ps.addBatch();
+    }
+
+    /**
+     * Execute the batch of a statement, nothing is done if the statement has not been used.
+     * 
+     * @param query
+     *            query template
+     * @return number of rows impacted for each set of parameters
+     * @throws SQLException
+     *             sql error when working with statement
+     */
+    public int[] executeBatch(String query) throws SQLException {
+        PreparedStatement ps = statements.get(query);
+        if (ps == null) {
+            return new int[0];
+        }
+        return ps.executeBatch();
+    }
+
+    /**
+     * Start a transaction, statements are committed with {@link #commit()}.
+     * 
+     * @throws SQLException
+     *             error when accessing database
+     */
+    public void begin() throws SQLException {
+        Connection conn = getConnection();
+        if (!autoCommitChanged) {
+            initialAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            autoCommitChanged = true;
+        }
+        transaction = true;
+    }
+
+    /**
+     * Commit current transaction.
+     * 
+     * @throws SQLException
+     *             error when accessing database
+     */
+    public void commit() throws SQLException {
+        if (transaction) {
+            sqlConn.commit();
+            transaction = false;
+        }
+    }
+
+    /**
+     * Rollback current transaction if any, to be invoked when an operation failed.
+     */
+    public void rollback() {
+        if (transaction) {
+            transaction = false;
+            JdbcUtils.rollback(sqlConn);
+        }
+    }
+
+    /**
+     * Release result sets and statements, restore auto commit mode and return connection to pool. A transaction neither
+     * committed nor rolled back (operation interrupted by an exception) is rolled back.
+     */
+    public void close() {
+        try {
+            rollback();
+            for (ResultSet rs : resultSets) {
+                closeResultSet(rs);
+            }
+            for (PreparedStatement ps : statements.values()) {
+                closeStatement(ps);
+            }
+            if (autoCommitChanged && !sqlConn.isClosed()) {
+                sqlConn.setAutoCommit(initialAutoCommit);
+            }
+        } catch (SQLException sqlEX) {
+            throw new FeatureAccessException("An error occur when closing session", sqlEX);
+        } finally {
+            resultSets.clear();
+            statements.clear();
+            autoCommitChanged = false;
+            closeConnection(sqlConn);
+            sqlConn = null;
+        }
+    }
+
+    /**
+     * Setter accessor for attribute 'fetchSize', applied to statements prepared afterwards.
+     * 
+     * @param fetchSize
+     *            new value for 'fetchSize '
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+}
@@ -25,6 +25,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 
 import org.ff4j.exception.FeatureAccessException;
 
@@ -35,6 +36,9 @@ import org.ff4j.exception.FeatureAccessException;
  */
 public class JdbcUtils {
     
+    /** SQLState class for integrity constraint violations (duplicate key, foreign key). */
+    private static final String SQLSTATE_INTEGRITY_VIOLATION = "23";
+    
     /** Hide publie. */
     private  JdbcUtils() {
     }
@@ -123,4 +127,23 @@ public class JdbcUtils {
             throw new FeatureAccessException("Cannot rollback database, SQL ERROR", e);
         }
     }
+    
+    /**
+     * Check if an error is an integrity constraint violation, as raised when inserting a duplicate key.
+     * 
+     * @param sqlEX
+     *            error raised by the driver
+     * @return if the error, or one of the chained errors, is an integrity constraint violation
+     */
+    public static boolean isIntegrityConstraintViolation(SQLException sqlEX) {
+        for (SQLException ex = sqlEX; ex != null; ex = ex.getNextException()) {
+            if (ex instanceof SQLIntegrityConstraintViolationException) {
+                return true;
+            }
+            if (ex.getSQLState() != null && ex.getSQLState().startsWith(SQLSTATE_INTEGRITY_VIOLATION)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -45,3 +45,20 @@ CREATE TABLE FF4J_AUDIT (
   PRIMARY KEY("EVT_TIME", "EVT_TYPE", "FEAT_UID")
 );
 
+
+-- Backs time-window aggregations of the monitoring charts (filtered on type, then time)
+CREATE INDEX IDX_FF4J_AUDIT_TIME ON FF4J_AUDIT("EVT_TYPE", "EVT_TIME", "FEAT_UID");
+
+-- @see JdbcFeatureChangeLog (store version, single row)
+CREATE TABLE FF4J_STORE_VERSION (
+  "VERSION" BIGINT NOT NULL
+);
+INSERT INTO FF4J_STORE_VERSION("VERSION") VALUES (0);
+
+-- @see JdbcFeatureChangeLog (modified features by version)
+CREATE TABLE FF4J_CHANGELOG (
+  "VERSION"     BIGINT NOT NULL,
+  "FEAT_UID"    VARCHAR(100) NOT NULL,
+  "CHANGE_TIME" TIMESTAMP NOT NULL,
+  PRIMARY KEY("VERSION")
+);
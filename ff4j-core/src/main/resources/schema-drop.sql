@@ -1,3 +1,5 @@
+DROP TABLE FF4J_CHANGELOG;
+DROP TABLE FF4J_STORE_VERSION;
 DROP TABLE FF4J_AUDIT;
 DROP TABLE FF4J_PROPERTIES;
 DROP TABLE FF4J_CUSTOM_PROPERTIES;
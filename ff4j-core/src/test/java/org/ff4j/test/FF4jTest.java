@@ -26,6 +26,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Map;
 
 import org.junit.Assert;
 
@@ -154,6 +155,52 @@ public class FF4jTest extends AbstractFf4jTest {
         Assert.assertFalse(ff4j.checkOveridingStrategy("cocorico", mockFlipStrategy));
     }
     
+    @Test
+    public void testCheckOrDefault() {
+        FF4j ff4j = new FF4j("ff4j.xml").autoCreate(true);
+        Assert.assertTrue(ff4j.checkOrDefault("first", false));
+        Assert.assertFalse(ff4j.checkOrDefault("second", true));
+        Assert.assertTrue(ff4j.checkOrDefault("does-not-exist", true));
+        Assert.assertFalse(ff4j.checkOrDefault("does-not-exist", false));
+        // Not created even with autocreate
+        Assert.assertFalse(ff4j.exist("does-not-exist"));
+        ff4j.enableSnapshot();
+        Assert.assertTrue(ff4j.checkOrDefault("first", false));
+        Assert.assertTrue(ff4j.checkOrDefault("does-not-exist", true));
+    }
+
+    @Test
+    public void testCheckAll() {
+        FF4j ff4j = new FF4j("ff4j.xml");
+        Map<String, Boolean> statuses = ff4j.checkAll(Arrays.asList("first", "second", "first"));
+        Assert.assertEquals(2, statuses.size());
+        Assert.assertTrue(statuses.get("first"));
+        Assert.assertFalse(statuses.get("second"));
+        Assert.assertEquals("first", statuses.keySet().iterator().next());
+        // Same result through snapshot
+        ff4j.enableSnapshot();
+        Assert.assertEquals(statuses, ff4j.checkAll(Arrays.asList("first", "second")));
+    }
+
+    @Test
+    public void testCheckAllAutoCreate() {
+        FF4j ff4j = new FF4j("ff4j.xml").autoCreate(true);
+        Map<String, Boolean> statuses = ff4j.checkAll(Arrays.asList("first", "checkAllCreated"));
+        Assert.assertTrue(statuses.get("first"));
+        Assert.assertFalse(statuses.get("checkAllCreated"));
+        Assert.assertTrue(ff4j.exist("checkAllCreated"));
+    }
+
+    @Test(expected = FeatureNotFoundException.class)
+    public void testCheckAllNotFound() {
+        new FF4j("ff4j.xml").checkAll(Arrays.asList("first", "does-not-exist"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCheckAllNull() {
+        ff4j.checkAll(null);
+    }
+
     @Test
     public void testToString() {
         Assert.assertTrue(ff4j.toString().contains(InMemoryFeatureStore.class.getCanonicalName()));
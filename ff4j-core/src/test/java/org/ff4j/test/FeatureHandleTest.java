@@ -0,0 +1,82 @@
+package org.ff4j.test;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.ff4j.FF4j;
+import org.ff4j.FeatureHandle;
+import org.ff4j.exception.FeatureNotFoundException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Testing class of {@link FeatureHandle} class.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureHandleTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHandleNull() {
+        new FF4j("ff4j.xml").handle(null);
+    }
+
+    @Test
+    public void testHandleWithoutSnapshot() {
+        FF4j ff4j = new FF4j("ff4j.xml");
+        FeatureHandle handle = ff4j.handle("first");
+        Assert.assertTrue(handle.check());
+        Assert.assertEquals(-1, handle.getResolvedVersion());
+        ff4j.disable("first");
+        Assert.assertFalse(handle.check());
+    }
+
+    @Test
+    public void testHandleResolvedOncePerSnapshot() {
+        // Given
+        FF4j ff4j = new FF4j("ff4j.xml").enableSnapshot();
+        FeatureHandle handle = ff4j.handle("first");
+        Assert.assertTrue(handle.check());
+        long version = handle.getResolvedVersion();
+        Assert.assertEquals(ff4j.getFeatureSnapshot().getVersion(), version);
+        Assert.assertTrue(handle.check());
+        Assert.assertEquals(version, handle.getResolvedVersion());
+        // When
+        ff4j.disable("first");
+        // Then
+        Assert.assertFalse(handle.check());
+        Assert.assertTrue(handle.getResolvedVersion() > version);
+    }
+
+    @Test
+    public void testHandleAutoCreate() {
+        FF4j ff4j = new FF4j("ff4j.xml").enableSnapshot();
+        ff4j.setAutocreate(true);
+        FeatureHandle handle = ff4j.handle("handle-autocreate");
+        Assert.assertFalse(handle.check());
+        Assert.assertTrue(ff4j.exist("handle-autocreate"));
+    }
+
+    @Test(expected = FeatureNotFoundException.class)
+    public void testHandleNotFound() {
+        new FF4j("ff4j.xml").enableSnapshot().handle("does-not-exist").check();
+    }
+
+}
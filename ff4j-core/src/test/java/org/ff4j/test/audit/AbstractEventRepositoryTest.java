@@ -20,6 +20,8 @@ package org.ff4j.test.audit;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import org.ff4j.audit.Event;
@@ -76,6 +78,21 @@ public abstract class AbstractEventRepositoryTest {
         Assert.assertEquals(limit, repo.getTotalEventCount());
     }
     
+    @Test
+    public void testSaveEvents() {
+        // Given
+        Assert.assertEquals(0, repo.getTotalEventCount());
+        List<Event> events = new ArrayList<Event>();
+        for (int i = 0; i < 30; i++) {
+            events.add(new Event("aer" + (i % 3), EventType.FEATURE_CHECK_ON));
+        }
+        // When
+        Assert.assertTrue(repo.saveEvents(events));
+        // Then
+        Assert.assertEquals(30, repo.getTotalEventCount());
+        Assert.assertEquals(3, repo.getFeatureNames().size());
+    }
+    
     @Test
     public void testSaveEventThroughPublisher() throws InterruptedException {
         
@@ -177,5 +194,30 @@ public abstract class AbstractEventRepositoryTest {
     }
     
 
+    @Test
+    public void testHitsPieChartWithoutHits() throws InterruptedException {
+        // Given
+        repo.saveEvent(new Event("evt1", EventType.FEATURE_CHECK_ON));
+        repo.saveEvent(new Event("evt1", EventType.FEATURE_CHECK_ON));
+        repo.saveEvent(new Event("evt2", EventType.FEATURE_CHECK_OFF));
+        Thread.sleep(2);
+        long endTime = System.currentTimeMillis() + 1;
+        long startTime = endTime - 1000;
+        
+        // When
+        PieChart pc = repo.getHitsPieChart(startTime, endTime);
+        
+        // Then, a feature without hit still gets its (empty) sector
+        Assert.assertEquals(2, pc.getSectors().size());
+        for (PieSector sector : pc.getSectors()) {
+            if ("evt1".equals(sector.getLabel())) {
+                Assert.assertEquals(2, sector.getValue(), 0);
+            } else {
+                Assert.assertEquals("evt2", sector.getLabel());
+                Assert.assertEquals(0, sector.getValue(), 0);
+            }
+        }
+    }
+    
 }
 
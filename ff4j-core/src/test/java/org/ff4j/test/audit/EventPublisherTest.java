@@ -0,0 +1,124 @@
+package org.ff4j.test.audit;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.ff4j.FF4j;
+import org.ff4j.audit.Event;
+import org.ff4j.audit.EventPublisher;
+import org.ff4j.audit.EventType;
+import org.ff4j.audit.repository.InMemoryEventRepository;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Testing class of {@link EventPublisher} class.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class EventPublisherTest {
+
+    /**
+     * Repository slow to save events.
+     */
+    private static class SlowEventRepository extends InMemoryEventRepository {
+        /** {@inheritDoc} */
+        @Override
+        public boolean saveEvent(Event e) {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return super.saveEvent(e);
+        }
+    }
+
+    @Test
+    public void testPublishDoesNotWaitForRepository() {
+        EventPublisher publisher = new EventPublisher(new SlowEventRepository());
+        long start = System.currentTimeMillis();
+        publisher.publish(new Event("aer", EventType.FEATURE_CHECK_ON));
+        Assert.assertTrue(System.currentTimeMillis() - start < 150);
+        Assert.assertEquals(1, publisher.getPublishedCount());
+        publisher.stop();
+    }
+
+    @Test
+    public void testSaturatedPublisherDropsEvents() {
+        EventPublisher publisher = new EventPublisher(1, 1, new SlowEventRepository());
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            publisher.publish("aer", true);
+        }
+        Assert.assertTrue(System.currentTimeMillis() - start < 150);
+        Assert.assertTrue(publisher.getRejectedCount() > 0);
+        Assert.assertEquals(10, publisher.getPublishedCount() + publisher.getRejectedCount());
+        Assert.assertTrue(publisher.getQueueDepth() <= 1);
+        Assert.assertTrue(publisher.getMaxEnqueueLatencyNanos() >= publisher.getAverageEnqueueLatencyNanos());
+        publisher.stop();
+    }
+
+    @Test
+    public void testSavedCount() throws InterruptedException {
+        InMemoryEventRepository repo = new InMemoryEventRepository();
+        EventPublisher publisher = new EventPublisher(repo);
+        for (int i = 0; i < 10; i++) {
+            publisher.publish("aer", false);
+        }
+        for (int i = 0; i < 100 && publisher.getSavedCount() < 10; i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(10, publisher.getSavedCount());
+        Assert.assertEquals(0, publisher.getFailedCount());
+        Assert.assertEquals(10, repo.getTotalEventCount());
+        publisher.stop();
+    }
+
+    @Test
+    public void testSinglePublisherCreated() throws InterruptedException {
+        final FF4j ff4j = new FF4j();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(8);
+        final ConcurrentHashMap<EventPublisher, Boolean> seen = new ConcurrentHashMap<EventPublisher, Boolean>();
+        for (int i = 0; i < 8; i++) {
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                        seen.put(ff4j.getEventPublisher(), Boolean.TRUE);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        Assert.assertEquals(1, seen.size());
+        ff4j.stop();
+    }
+
+}
@@ -20,8 +20,12 @@ package org.ff4j.test.audit;
  * #L%
  */
 
+import java.util.concurrent.CountDownLatch;
+
 import org.ff4j.audit.Event;
 import org.ff4j.audit.EventType;
+import org.ff4j.audit.graph.BarChart;
+import org.ff4j.audit.graph.PieChart;
 import org.ff4j.audit.repository.EventRepository;
 import org.ff4j.audit.repository.InMemoryEventRepository;
 import org.junit.Assert;
@@ -50,4 +54,91 @@ public class InMemoryEventRepositoryTest extends AbstractEventRepositoryTest {
         }
         Assert.assertEquals(limit, repo.getTotalEventCount());
     }  
+    
+    @Test
+    public void testChartsFromTimeBuckets() {
+        // Given 1 hit per minute for 2 hours, more than queue capacity
+        long now = System.currentTimeMillis();
+        int nbEvent = 2 * limit;
+        for (int i = 0; i < nbEvent; i++) {
+            repo.saveEvent(new Event("bucket", EventType.FEATURE_CHECK_ON, now - i * 60000L));
+        }
+        long startTime = now - nbEvent * 60000L;
+        long endTime   = now + 1;
+        // When
+        PieChart pie = repo.getHitsPieChart(startTime, endTime);
+        BarChart bar = repo.getHitsBarChart(startTime, endTime, 12);
+        // Then
+        Assert.assertEquals(limit, repo.getTotalEventCount());
+        Assert.assertEquals(nbEvent, pie.getSectors().get(0).getValue(), 0);
+        double total = 0;
+        for (Double slotValue : bar.getSeries().get("bucket").getValues()) {
+            total += slotValue;
+        }
+        Assert.assertEquals(nbEvent, total, 0);
+    }
+    
+    @Test
+    public void testConcurrentSaveSameFeature() throws InterruptedException {
+        // Given
+        final int nbThreads = 4;
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final CountDownLatch doneSignal  = new CountDownLatch(nbThreads);
+        for (int t = 0; t < nbThreads; t++) {
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        startSignal.await();
+                        for (int i = 0; i < 10; i++) {
+                            repo.saveEvent(new Event("race", EventType.FEATURE_CHECK_ON));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        doneSignal.countDown();
+                    }
+                }
+            }).start();
+        }
+        // When
+        startSignal.countDown();
+        doneSignal.await();
+        // Then, no event lost when registering the feature
+        Assert.assertEquals(nbThreads * 10, repo.getTotalEventCount());
+        Assert.assertEquals(1, repo.getFeatureNames().size());
+    }
+    
+    @Test
+    public void testConcurrentCountersNoHitLost() throws InterruptedException {
+        // Given
+        final int nbThreads = 4;
+        final int nbEvents  = 5000;
+        final long now = System.currentTimeMillis();
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final CountDownLatch doneSignal  = new CountDownLatch(nbThreads);
+        for (int t = 0; t < nbThreads; t++) {
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        startSignal.await();
+                        for (int i = 0; i < nbEvents; i++) {
+                            // Spread over 10 buckets of 10s, recycled slots are raced
+                            repo.saveEvent(new Event("counter", EventType.FEATURE_CHECK_ON, now - (i % 10) * 10000L));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        doneSignal.countDown();
+                    }
+                }
+            }).start();
+        }
+        // When
+        startSignal.countDown();
+        doneSignal.await();
+        PieChart pie = repo.getHitsPieChart(now - 600000L, now + 1);
+        // Then, ring keeps the last events but counters keep them all
+        Assert.assertEquals(limit, repo.getTotalEventCount());
+        Assert.assertEquals(nbThreads * nbEvents, pie.getSectors().get(0).getValue(), 0);
+    }
 }
@@ -0,0 +1,181 @@
+package org.ff4j.test.audit;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.CountDownLatch;
+
+import org.ff4j.audit.Event;
+import org.ff4j.audit.EventType;
+import org.ff4j.audit.OverflowPolicy;
+import org.ff4j.audit.RingBufferEventPublisher;
+import org.ff4j.audit.repository.InMemoryEventRepository;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Testing class of {@link RingBufferEventPublisher} class.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class RingBufferEventPublisherTest {
+
+    /**
+     * Repository blocked until latch is released.
+     */
+    private static class BlockedEventRepository extends InMemoryEventRepository {
+        /** Release consumer. */
+        private final CountDownLatch latch = new CountDownLatch(1);
+        /** {@inheritDoc} */
+        @Override
+        public boolean saveEvent(Event e) {
+            try {
+                latch.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return super.saveEvent(e);
+        }
+    }
+
+    /**
+     * Wait for the publisher to save expected events.
+     */
+    private void waitForSaved(RingBufferEventPublisher publisher, long expected) throws InterruptedException {
+        for (int i = 0; i < 200 && publisher.getSavedCount() < expected; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new RingBufferEventPublisher(new InMemoryEventRepository(), 1, 10, OverflowPolicy.DROP_NEWEST);
+    }
+
+    @Test
+    public void testCapacityRoundedToPowerOfTwo() {
+        RingBufferEventPublisher publisher = new RingBufferEventPublisher(new InMemoryEventRepository(), 1000, 10,
+                OverflowPolicy.DROP_NEWEST);
+        Assert.assertEquals(1024, publisher.getCapacity());
+        publisher.stop();
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        InMemoryEventRepository repo = new InMemoryEventRepository();
+        final RingBufferEventPublisher publisher = new RingBufferEventPublisher(repo, 4096, 32,
+                OverflowPolicy.BLOCK_WITH_DEADLINE);
+        publisher.setMaxBlockNanos(1000000000L);
+        final CountDownLatch done = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            final String featureName = "F" + t;
+            new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < 50; i++) {
+                        publisher.publish(featureName, true);
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await();
+        waitForSaved(publisher, 200);
+        Assert.assertEquals(200, publisher.getPublishedCount());
+        Assert.assertEquals(200, publisher.getSavedCount());
+        Assert.assertEquals(200, repo.getTotalEventCount());
+        Assert.assertEquals(0, publisher.getRejectedCount());
+        publisher.stop();
+    }
+
+    @Test
+    public void testDropNewest() throws InterruptedException {
+        BlockedEventRepository repo = new BlockedEventRepository();
+        RingBufferEventPublisher publisher = new RingBufferEventPublisher(repo, 4, 1, OverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 20; i++) {
+            publisher.publish(new Event("aer", EventType.FEATURE_CHECK_ON));
+        }
+        // One event held by consumer, 4 in buffer
+        Assert.assertTrue(publisher.getDroppedNewestCount() >= 15);
+        Assert.assertEquals(20, publisher.getPublishedCount() + publisher.getRejectedCount());
+        repo.latch.countDown();
+        waitForSaved(publisher, publisher.getPublishedCount());
+        Assert.assertEquals(publisher.getPublishedCount(), publisher.getSavedCount());
+        publisher.stop();
+    }
+
+    @Test
+    public void testDropOldest() throws InterruptedException {
+        BlockedEventRepository repo = new BlockedEventRepository();
+        RingBufferEventPublisher publisher = new RingBufferEventPublisher(repo, 4, 1, OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 20; i++) {
+            publisher.publish(new Event("aer", EventType.FEATURE_CHECK_ON));
+        }
+        Assert.assertEquals(20, publisher.getPublishedCount());
+        Assert.assertTrue(publisher.getDroppedOldestCount() >= 15);
+        Assert.assertEquals(0, publisher.getDroppedNewestCount());
+        repo.latch.countDown();
+        publisher.stop();
+    }
+
+    @Test
+    public void testSample() {
+        BlockedEventRepository repo = new BlockedEventRepository();
+        RingBufferEventPublisher publisher = new RingBufferEventPublisher(repo, 64, 1, OverflowPolicy.SAMPLE);
+        publisher.setSampleRate(5);
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(new Event("aer", EventType.FEATURE_CHECK_ON));
+        }
+        Assert.assertTrue(publisher.getSampledOutCount() > 0);
+        Assert.assertEquals(100, publisher.getPublishedCount() + publisher.getRejectedCount());
+        repo.latch.countDown();
+        publisher.stop();
+    }
+
+    @Test
+    public void testBlockWithDeadline() {
+        BlockedEventRepository repo = new BlockedEventRepository();
+        RingBufferEventPublisher publisher = new RingBufferEventPublisher(repo, 2, 1, OverflowPolicy.BLOCK_WITH_DEADLINE);
+        publisher.setMaxBlockNanos(5000000L);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(new Event("aer", EventType.FEATURE_CHECK_ON));
+        }
+        Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+        Assert.assertTrue(publisher.getDeadlineExpiredCount() > 0);
+        repo.latch.countDown();
+        publisher.stop();
+    }
+
+    @Test
+    public void testStopDrainsPendingEvents() throws InterruptedException {
+        InMemoryEventRepository repo = new InMemoryEventRepository();
+        RingBufferEventPublisher publisher = new RingBufferEventPublisher(repo);
+        for (int i = 0; i < 10; i++) {
+            publisher.publish("aer", false);
+        }
+        // Stop waits for pending events
+        Assert.assertTrue(publisher.stop(5000));
+        Assert.assertEquals(10, publisher.getSavedCount());
+        Assert.assertEquals(10, repo.getTotalEventCount());
+        publisher.publish("aer", false);
+        Assert.assertEquals(1, publisher.getRejectedCount());
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.ff4j.test.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ff4j.cache.ConcurrentInMemoryCacheManager;
+import org.ff4j.cache.FeatureStoreCacheProxy;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.store.InMemoryFeatureStore;
+import org.ff4j.test.store.AbstractStoreTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Testing class of {@link ConcurrentInMemoryCacheManager} class.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class ConcurrentInMemoryCacheTest extends AbstractStoreTest {
+
+    /** {@inheritDoc} */
+    @Override
+    public FeatureStore initStore() {
+        return new FeatureStoreCacheProxy(new InMemoryFeatureStore("ff4j.xml"), new ConcurrentInMemoryCacheManager());
+    }
+
+    @Test
+    public void testInitializations() {
+        ConcurrentInMemoryCacheManager fcm = new ConcurrentInMemoryCacheManager(100, 10);
+        Assert.assertEquals(10, fcm.getTtl());
+        Assert.assertEquals(100, fcm.getMaximumSize());
+        Assert.assertNotNull(fcm.getNativeCache());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaximumSize() {
+        new ConcurrentInMemoryCacheManager(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutNullisIlegal() {
+        new ConcurrentInMemoryCacheManager().put(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutEmptyFeatureId() {
+        Feature f = new Feature("a");
+        f.setUid("");
+        new ConcurrentInMemoryCacheManager().put(f);
+    }
+    
+    @Test
+    public void testSizeIsBounded() {
+        ConcurrentInMemoryCacheManager fcm = new ConcurrentInMemoryCacheManager(10);
+        for (int i = 0; i < 50; i++) {
+            fcm.put(new Feature("f" + i));
+        }
+        Assert.assertEquals(10, fcm.size());
+        Assert.assertEquals(10, fcm.listCachedFeatureNames().size());
+        Assert.assertNull(fcm.get("f0"));
+        Assert.assertNotNull(fcm.get("f49"));
+    }
+    
+    @Test
+    public void testFrequentlyReadSurvivesScan() {
+        ConcurrentInMemoryCacheManager fcm = new ConcurrentInMemoryCacheManager(10);
+        fcm.put(new Feature("hot"));
+        // Promoted to protected segment
+        Assert.assertNotNull(fcm.get("hot"));
+        for (int i = 0; i < 50; i++) {
+            fcm.put(new Feature("scan" + i));
+        }
+        Assert.assertNotNull(fcm.get("hot"));
+        Assert.assertEquals(10, fcm.size());
+    }
+    
+    @Test
+    public void testExpireAfterWrite() throws InterruptedException {
+        ConcurrentInMemoryCacheManager fcm = new ConcurrentInMemoryCacheManager(10, 1);
+        fcm.put(new Feature("ttl"));
+        Assert.assertNotNull(fcm.get("ttl"));
+        Thread.sleep(1100);
+        Assert.assertNull(fcm.get("ttl"));
+        Assert.assertEquals(0, fcm.size());
+    }
+    
+    @Test
+    public void testEvictAndClear() {
+        ConcurrentInMemoryCacheManager fcm = new ConcurrentInMemoryCacheManager(10);
+        fcm.put(new Feature("a"));
+        fcm.put(new Feature("b"));
+        fcm.evict("a");
+        Assert.assertNull(fcm.get("a"));
+        Assert.assertNotNull(fcm.get("b"));
+        fcm.clear();
+        Assert.assertEquals(0, fcm.size());
+        fcm.put(new Feature("c"));
+        Assert.assertNotNull(fcm.get("c"));
+    }
+    
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        final ConcurrentInMemoryCacheManager fcm = new ConcurrentInMemoryCacheManager(50);
+        final int nbThreads = 4;
+        final CountDownLatch doneSignal = new CountDownLatch(nbThreads);
+        final AtomicInteger errors = new AtomicInteger(0);
+        for (int t = 0; t < nbThreads; t++) {
+            final int offset = t;
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < 2000; i++) {
+                            String uid = "f" + ((i * (offset + 1)) % 120);
+                            fcm.put(new Feature(uid));
+                            fcm.get(uid);
+                            if (i % 7 == 0) {
+                                fcm.evict(uid);
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        doneSignal.countDown();
+                    }
+                }
+            }).start();
+        }
+        doneSignal.await();
+        Assert.assertEquals(0, errors.get());
+        Assert.assertTrue(fcm.size() <= 50);
+    }
+}
@@ -0,0 +1,203 @@
+package org.ff4j.test.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.ff4j.cache.FeatureChangeLog;
+import org.ff4j.cache.FeatureChangeLogPoller;
+import org.ff4j.cache.FeatureStoreCacheProxy;
+import org.ff4j.cache.InMemoryCacheManager;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.store.InMemoryFeatureStore;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing class of {@link FeatureChangeLogPoller} class.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureChangeLogPollerTest {
+
+    /** Store shared by nodes. */
+    private FeatureStore sharedStore;
+
+    /** Log shared by nodes. */
+    private InMemoryChangeLog changeLog;
+
+    /** Cache of first node. */
+    private FeatureStoreCacheProxy nodeA;
+
+    /** Cache of second node. */
+    private FeatureStoreCacheProxy nodeB;
+
+    @Before
+    public void initNodes() {
+        sharedStore = new InMemoryFeatureStore("ff4j.xml");
+        changeLog   = new InMemoryChangeLog();
+        nodeA = new FeatureStoreCacheProxy(sharedStore, new InMemoryCacheManager());
+        nodeA.setChangeLog(changeLog);
+        nodeB = new FeatureStoreCacheProxy(sharedStore, new InMemoryCacheManager());
+        nodeB.setChangeLog(changeLog);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequiredChangeLog() {
+        new FeatureChangeLogPoller(null, nodeB);
+    }
+
+    @Test
+    public void testModificationEvictsOtherNode() {
+        // Given
+        FeatureChangeLogPoller pollerB = new FeatureChangeLogPoller(changeLog, nodeB);
+        nodeB.read("first");
+        nodeB.read("forth");
+        // When
+        nodeA.disable("first");
+        // Then, still in cache of B until next poll
+        Assert.assertEquals(1, changeLog.getCurrentVersion());
+        Assert.assertNotNull(nodeB.getCacheManager().get("first"));
+        pollerB.poll();
+        Assert.assertEquals(1, pollerB.getLastVersion());
+        Assert.assertNull(nodeB.getCacheManager().get("first"));
+        Assert.assertFalse(nodeB.read("first").isEnable());
+        Assert.assertNotNull(nodeB.getCacheManager().get("forth"));
+    }
+
+    @Test
+    public void testPurgedLogClearsCache() {
+        // Given
+        FeatureChangeLogPoller pollerB = new FeatureChangeLogPoller(changeLog, nodeB);
+        nodeB.read("first");
+        nodeB.read("forth");
+        // When
+        nodeA.disable("first");
+        nodeA.disable("forth");
+        changeLog.purge(3);
+        pollerB.poll();
+        // Then
+        Assert.assertEquals(2, pollerB.getLastVersion());
+        Assert.assertNull(nodeB.getCacheManager().get("first"));
+        Assert.assertNull(nodeB.getCacheManager().get("forth"));
+    }
+
+    @Test
+    public void testMissingVersionIsAwaitedThenCacheCleared() {
+        // Given
+        FeatureChangeLogPoller pollerB = new FeatureChangeLogPoller(changeLog, nodeB);
+        nodeB.read("first");
+        nodeB.read("forth");
+        // When, version 1 allocated but not recorded yet
+        changeLog.allocateVersion();
+        changeLog.recordChange("forth");
+        pollerB.poll();
+        // Then
+        Assert.assertEquals(0, pollerB.getLastVersion());
+        Assert.assertNotNull(nodeB.getCacheManager().get("forth"));
+        for (int i = 1; i < FeatureChangeLogPoller.MAX_GAP_POLLS; i++) {
+            pollerB.poll();
+        }
+        Assert.assertEquals(2, pollerB.getLastVersion());
+        Assert.assertNull(nodeB.getCacheManager().get("first"));
+        Assert.assertNull(nodeB.getCacheManager().get("forth"));
+    }
+
+    @Test
+    public void testGroupModificationRecordedOnce() {
+        // Given
+        FeatureChangeLogPoller pollerB = new FeatureChangeLogPoller(changeLog, nodeB);
+        nodeB.read("third");
+        nodeB.read("forth");
+        // When
+        nodeA.disableGroup("GRP1");
+        pollerB.poll();
+        // Then, a version per member but a single record
+        Assert.assertEquals(1, changeLog.nbRecords);
+        Assert.assertEquals(2, pollerB.getLastVersion());
+        Assert.assertNull(nodeB.getCacheManager().get("third"));
+        Assert.assertNull(nodeB.getCacheManager().get("forth"));
+    }
+
+    /**
+     * Change log shared in memory between nodes.
+     */
+    private static final class InMemoryChangeLog implements FeatureChangeLog {
+
+        /** Current version. */
+        private long current = 0;
+
+        /** First version not purged. */
+        private long oldest = 1;
+
+        /** Recorded changes. */
+        private final TreeMap<Long, String> changes = new TreeMap<Long, String>();
+
+        /** Number of records (calls). */
+        private int nbRecords = 0;
+
+        /** Allocate a version without recording the change. */
+        public synchronized long allocateVersion() {
+            return ++current;
+        }
+
+        /** {@inheritDoc} */
+        public synchronized long recordChange(String featureUid) {
+            nbRecords++;
+            changes.put(++current, featureUid);
+            return current;
+        }
+
+        /** {@inheritDoc} */
+        public synchronized long recordChanges(Collection<String> featureUids) {
+            nbRecords++;
+            for (String featureUid : featureUids) {
+                changes.put(++current, featureUid);
+            }
+            return current;
+        }
+
+        /** {@inheritDoc} */
+        public synchronized long getCurrentVersion() {
+            return current;
+        }
+
+        /** {@inheritDoc} */
+        public synchronized long getOldestVersion() {
+            return oldest;
+        }
+
+        /** {@inheritDoc} */
+        public synchronized SortedMap<Long, String> readChanges(long sinceVersion) {
+            return new TreeMap<Long, String>(changes.tailMap(sinceVersion + 1));
+        }
+
+        /** {@inheritDoc} */
+        public synchronized void purge(long beforeVersion) {
+            changes.headMap(beforeVersion).clear();
+            oldest = Math.max(oldest, beforeVersion);
+        }
+    }
+
+}
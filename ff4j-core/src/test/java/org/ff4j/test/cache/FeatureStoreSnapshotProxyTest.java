@@ -0,0 +1,100 @@
+package org.ff4j.test.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.ff4j.FF4j;
+import org.ff4j.cache.FeatureSnapshot;
+import org.ff4j.cache.FeatureStoreSnapshotProxy;
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.store.InMemoryFeatureStore;
+import org.ff4j.test.store.AbstractStoreTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Testing class of {@link FeatureStoreSnapshotProxy} class.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureStoreSnapshotProxyTest extends AbstractStoreTest {
+
+    /** {@inheritDoc} */
+    @Override
+    public FeatureStore initStore() {
+        return new FeatureStoreSnapshotProxy(new InMemoryFeatureStore("ff4j.xml"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequiredArgumentTarget() {
+        new FeatureStoreSnapshotProxy().getTarget();
+    }
+
+    @Test
+    public void testSnapshotSwappedOnWrite() {
+        // Given
+        FeatureStoreSnapshotProxy proxy = (FeatureStoreSnapshotProxy) testedStore;
+        FeatureSnapshot before = proxy.getSnapshot();
+        Assert.assertTrue(before.isEnable(before.slotOf(F1)));
+        // When
+        testedStore.disable(F1);
+        // Then
+        FeatureSnapshot after = proxy.getSnapshot();
+        Assert.assertNotSame(before, after);
+        Assert.assertTrue(after.getVersion() > before.getVersion());
+        Assert.assertFalse(after.isEnable(after.slotOf(F1)));
+        // Previous snapshot is immutable
+        Assert.assertTrue(before.isEnable(before.slotOf(F1)));
+        Assert.assertTrue(before.getFeature(before.slotOf(F1)).isEnable());
+    }
+
+    @Test
+    public void testReadReturnsCopies() {
+        // Given
+        FeatureStoreSnapshotProxy proxy = (FeatureStoreSnapshotProxy) testedStore;
+        // When
+        testedStore.read(F1).setEnable(false);
+        testedStore.readAll().get(F1).getPermissions().add("HACKER");
+        // Then, snapshot is not altered
+        FeatureSnapshot current = proxy.getSnapshot();
+        Assert.assertTrue(current.isEnable(current.slotOf(F1)));
+        Assert.assertTrue(testedStore.read(F1).isEnable());
+        Assert.assertFalse(testedStore.read(F1).getPermissions().contains("HACKER"));
+        Assert.assertFalse(testedStore.isCached());
+        Assert.assertNull(testedStore.getCacheProvider());
+    }
+
+    @Test
+    public void testCheckThroughSnapshot() {
+        // Given
+        FF4j ff4j = new FF4j("ff4j.xml").enableSnapshot();
+        Assert.assertNotNull(ff4j.getFeatureSnapshot());
+        Assert.assertTrue(ff4j.check(F1));
+        // When
+        ff4j.disable(F1);
+        ff4j.create(new Feature("snapshot", true));
+        // Then
+        Assert.assertFalse(ff4j.check(F1));
+        Assert.assertTrue(ff4j.check("snapshot"));
+        Assert.assertEquals(-1, ff4j.getFeatureSnapshot().slotOf(F_DOESNOTEXIST));
+    }
+
+}
@@ -20,8 +20,13 @@ package org.ff4j.test.cache;
  * #L%
  */
 
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Assert;
 
+import org.ff4j.cache.CacheStatistics;
 import org.ff4j.cache.FeatureStoreCacheProxy;
 import org.ff4j.cache.InMemoryCacheManager;
 import org.ff4j.core.Feature;
@@ -90,5 +95,203 @@ public class InMemoryCacheTest extends AbstractStoreTest {
         Assert.assertTrue(fscp.exist("first"));
         Assert.assertTrue(fscp.exist("first"));
     }
+    
+    @Test
+    public void testReadAllServedFromSnapshot() {
+        // Given
+        final int[] nbReadAll = {0};
+        FeatureStore target = new InMemoryFeatureStore("ff4j.xml") {
+            public Map<String, Feature> readAll() {
+                nbReadAll[0]++;
+                return super.readAll();
+            }
+        };
+        FeatureStoreCacheProxy fscp = new FeatureStoreCacheProxy(target, new InMemoryCacheManager());
+        // Snapshot is opt-in
+        Assert.assertEquals(0, fscp.getSnapshotTtl());
+        fscp.readAll();
+        fscp.readAll();
+        Assert.assertEquals(2, nbReadAll[0]);
+        nbReadAll[0] = 0;
+        fscp.setSnapshotTtl(60);
+        // When
+        int nbFeatures = fscp.readAll().size();
+        fscp.readAll();
+        fscp.readAllGroups();
+        fscp.readGroup("GRP1");
+        Assert.assertTrue(fscp.existGroup("GRP0"));
+        // Then
+        Assert.assertEquals(1, nbReadAll[0]);
+        // Modification invalidate snapshot
+        fscp.create(new Feature("snapshotNew", true, null, "GRP0"));
+        Assert.assertEquals(nbFeatures + 1, fscp.readAll().size());
+        Assert.assertTrue(fscp.readGroup("GRP0").containsKey("snapshotNew"));
+        Assert.assertEquals(2, nbReadAll[0]);
+    }
+    
+    @Test
+    public void testEnableGroupClearsCache() {
+        // Given
+        final int[] nbReadGroup = {0};
+        InMemoryCacheManager cache = new InMemoryCacheManager();
+        FeatureStore target = new InMemoryFeatureStore("ff4j.xml") {
+            public Map<String, Feature> readGroup(String groupName) {
+                nbReadGroup[0]++;
+                return super.readGroup(groupName);
+            }
+        };
+        FeatureStoreCacheProxy fscp = new FeatureStoreCacheProxy(target, cache);
+        fscp.read("first");
+        fscp.read("second");
+        Assert.assertFalse(fscp.read("second").isEnable());
+        // When
+        fscp.enableGroup("GRP0");
+        // Then, members are not read without change log
+        Assert.assertEquals(0, nbReadGroup[0]);
+        Assert.assertNull(cache.get("first"));
+        Assert.assertNull(cache.get("second"));
+        Assert.assertTrue(fscp.read("second").isEnable());
+    }
+    
+    @Test
+    public void testRefreshAhead() throws InterruptedException {
+        // Given
+        final AtomicInteger nbReads = new AtomicInteger(0);
+        FeatureStore target = new InMemoryFeatureStore("ff4j.xml") {
+            public Feature findIfExists(String uid) {
+                nbReads.incrementAndGet();
+                return super.findIfExists(uid);
+            }
+        };
+        FeatureStoreCacheProxy fscp = new FeatureStoreCacheProxy(target, new InMemoryCacheManager());
+        fscp.setRefreshAfter(1);
+        Assert.assertNotNull(fscp.findIfExists("first"));
+        Assert.assertEquals(1, nbReads.get());
+        // When
+        Thread.sleep(1100);
+        Assert.assertNotNull(fscp.findIfExists("first"));
+        Thread.sleep(200);
+        // Then, reloaded in background and served from cache
+        Assert.assertEquals(2, nbReads.get());
+        Assert.assertNotNull(fscp.findIfExists("first"));
+        Assert.assertEquals(2, nbReads.get());
+    }
+    
+    @Test
+    public void testStaleWhileRevalidate() throws InterruptedException {
+        // Given
+        InMemoryCacheManager cache = new InMemoryCacheManager();
+        cache.setTtl(1);
+        FeatureStoreCacheProxy fscp = new FeatureStoreCacheProxy(new InMemoryFeatureStore("ff4j.xml"), cache);
+        fscp.setMaxStaleness(10);
+        Feature first = fscp.read("first");
+        // When
+        Thread.sleep(1100);
+        Assert.assertNull(cache.get("first"));
+        // Then, previous value is served and reloaded in background
+        Assert.assertSame(first, fscp.read("first"));
+        Thread.sleep(200);
+        Assert.assertNotNull(cache.get("first"));
+        // Modifications are never hidden by stale values
+        fscp.disable("first");
+        Assert.assertFalse(fscp.read("first").isEnable());
+    }
+    
+    @Test
+    public void testConcurrentMissesShareSingleLoad() throws InterruptedException {
+        // Given a slow target
+        final AtomicInteger nbReads = new AtomicInteger(0);
+        FeatureStore target = new InMemoryFeatureStore("ff4j.xml") {
+            public Feature findIfExists(String uid) {
+                nbReads.incrementAndGet();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findIfExists(uid);
+            }
+        };
+        final FeatureStoreCacheProxy fscp = new FeatureStoreCacheProxy(target, new InMemoryCacheManager());
+        final int nbThreads = 8;
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final CountDownLatch doneSignal  = new CountDownLatch(nbThreads);
+        final AtomicInteger nbFound = new AtomicInteger(0);
+        for (int i = 0; i < nbThreads; i++) {
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        startSignal.await();
+                        if (fscp.read("first") != null) {
+                            nbFound.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        doneSignal.countDown();
+                    }
+                }
+            }).start();
+        }
+        // When
+        startSignal.countDown();
+        doneSignal.await();
+        // Then
+        Assert.assertEquals(nbThreads, nbFound.get());
+        Assert.assertEquals(1, nbReads.get());
+    }
+    
+    @Test
+    public void testMissingFeatureIsCached() {
+        // Given
+        final AtomicInteger nbExist = new AtomicInteger(0);
+        FeatureStore target = new InMemoryFeatureStore("ff4j.xml") {
+            public boolean exist(String uid) {
+                nbExist.incrementAndGet();
+                return super.exist(uid);
+            }
+        };
+        FeatureStoreCacheProxy fscp = new FeatureStoreCacheProxy(target, new InMemoryCacheManager());
+        // When
+        Assert.assertFalse(fscp.exist("missing"));
+        Assert.assertFalse(fscp.exist("missing"));
+        Assert.assertNull(fscp.findIfExists("missing"));
+        Assert.assertNull(fscp.findIfExists("missing"));
+        // Then
+        Assert.assertEquals(1, nbExist.get());
+        // Creation invalidates negative entry
+        fscp.create(new Feature("missing", true));
+        Assert.assertTrue(fscp.exist("missing"));
+        Assert.assertNotNull(fscp.findIfExists("missing"));
+    }
+
+    @Test
+    public void testCacheStatistics() {
+        // Given
+        FeatureStoreCacheProxy fscp = new FeatureStoreCacheProxy(new InMemoryFeatureStore("ff4j.xml"), new InMemoryCacheManager());
+        CacheStatistics stats = fscp.getCacheStatistics();
+        Assert.assertEquals(0, stats.getRequestCount());
+        // When
+        fscp.read("first");
+        fscp.read("first");
+        fscp.findIfExists("missing");
+        fscp.findIfExists("missing");
+        fscp.disable("first");
+        // Then
+        Assert.assertEquals(2, stats.getHitCount());
+        Assert.assertEquals(2, stats.getMissCount());
+        Assert.assertEquals(0.5, stats.getHitRate(), 0.0);
+        Assert.assertEquals(2, stats.getLoadSuccessCount());
+        Assert.assertEquals(0, stats.getLoadFailureCount());
+        Assert.assertEquals(1, stats.getEvictionCount());
+        Assert.assertEquals(0, stats.getSize());
+        long histogramTotal = 0;
+        for (Long count : stats.getLoadTimeHistogram().values()) {
+            histogramTotal += count;
+        }
+        Assert.assertEquals(2, histogramTotal);
+        stats.reset();
+        Assert.assertEquals(0, stats.getRequestCount());
+    }
 
 }
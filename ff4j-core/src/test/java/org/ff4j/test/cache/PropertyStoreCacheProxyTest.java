@@ -0,0 +1,89 @@
+package org.ff4j.test.cache;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ff4j.cache.PropertyStoreCacheProxy;
+import org.ff4j.exception.PropertyNotFoundException;
+import org.ff4j.property.Property;
+import org.ff4j.property.store.InMemoryPropertyStore;
+import org.ff4j.property.store.PropertyStore;
+import org.ff4j.test.property.AbstractPropertyStoreJunitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Testing class of {@link PropertyStoreCacheProxy} class.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class PropertyStoreCacheProxyTest extends AbstractPropertyStoreJunitTest {
+
+    /** {@inheritDoc} */
+    @Override
+    protected PropertyStore initPropertyStore() {
+        return new PropertyStoreCacheProxy(new InMemoryPropertyStore("ff4j.xml"));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequiredArgumentTarget() {
+        new PropertyStoreCacheProxy().getTarget();
+    }
+    
+    @Test
+    public void testMissingPropertyIsCached() {
+        // Given
+        final AtomicInteger nbExist = new AtomicInteger(0);
+        PropertyStore target = new InMemoryPropertyStore("ff4j.xml") {
+            public boolean exist(String name) {
+                nbExist.incrementAndGet();
+                return super.exist(name);
+            }
+        };
+        PropertyStoreCacheProxy proxy = new PropertyStoreCacheProxy(target);
+        // When
+        Assert.assertFalse(proxy.exist("missing"));
+        Assert.assertFalse(proxy.exist("missing"));
+        try {
+            proxy.read("missing");
+            Assert.fail();
+        } catch (PropertyNotFoundException pnfe) {
+            // expected
+        }
+        // Then
+        Assert.assertEquals(1, nbExist.get());
+        // Creation invalidates negative entry
+        proxy.create(new Property("missing", "value"));
+        Assert.assertTrue(proxy.exist("missing"));
+        Assert.assertEquals("value", proxy.read("missing").getValue());
+    }
+    
+    @Test
+    public void testNegativeCacheDisabled() {
+        PropertyStoreCacheProxy proxy = new PropertyStoreCacheProxy(new InMemoryPropertyStore("ff4j.xml"));
+        proxy.setNegativeTtl(0);
+        Assert.assertEquals(0, proxy.getNegativeTtl());
+        Assert.assertFalse(proxy.exist("missing"));
+        proxy.getTarget().create(new Property("missing", "value"));
+        Assert.assertTrue(proxy.exist("missing"));
+    }
+}
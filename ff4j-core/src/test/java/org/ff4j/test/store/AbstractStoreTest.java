@@ -96,6 +96,67 @@ public abstract class AbstractStoreTest implements TestConstantsFF4j {
         Assert.assertTrue("no authorizations", f.getPermissions() != null && !f.getPermissions().isEmpty());
         assertFf4j.assertThatFeatureHasRole(F4, ROLE_ADMIN);
         assertFf4j.assertThatFeatureIsInGroup(F4, G1);
+        // Then custom properties are loaded as well
+        Assert.assertTrue(features.get(F1).getCustomProperties().containsKey("ppint"));
+        Assert.assertEquals("12", features.get(F1).getCustomProperties().get("ppint").asString());
+    }
+
+    /**
+     * TDD.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindIfExistsNull() {
+        // Given
+        // When
+        testedStore.findIfExists(null);
+        // Then, expected error...
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testFindIfExists() {
+        // Given
+        assertFf4j.assertThatFeatureExist(F4);
+        assertFf4j.assertThatFeatureDoesNotExist(F_DOESNOTEXIST);
+        // When
+        Feature f = testedStore.findIfExists(F4);
+        // Then
+        Assert.assertEquals(F4, f.getUid());
+        Assert.assertTrue(f.getPermissions().contains(ROLE_ADMIN));
+        Assert.assertNull(testedStore.findIfExists(F_DOESNOTEXIST));
+    }
+
+    /**
+     * TDD.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadManyNull() {
+        // Given
+        // When
+        testedStore.readMany(null);
+        // Then, expected error...
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testReadMany() {
+        // Given
+        assertFf4j.assertThatFeatureExist(F1);
+        assertFf4j.assertThatFeatureExist(F4);
+        assertFf4j.assertThatFeatureDoesNotExist(F_DOESNOTEXIST);
+        // When
+        Map<String, Feature> features = testedStore.readMany(new HashSet<String>(Arrays.asList(F1, F4, F_DOESNOTEXIST)));
+        // Then
+        Assert.assertEquals(2, features.size());
+        Assert.assertEquals(F1, features.get(F1).getUid());
+        Assert.assertFalse(features.containsKey(F_DOESNOTEXIST));
+        Assert.assertTrue(features.get(F4).getPermissions().contains(ROLE_ADMIN));
+        Assert.assertEquals(G1, features.get(F4).getGroup());
+        Assert.assertTrue(testedStore.readMany(new HashSet<String>()).isEmpty());
     }
 
     /**
@@ -587,6 +648,25 @@ public abstract class AbstractStoreTest implements TestConstantsFF4j {
         Assert.assertFalse(fpBis.getCustomProperties().containsKey("ppint"));
     }
 
+    /**
+     * TDD.
+     */
+    @Test
+    public void testUpdateUnchangedFeature() {
+        // Given
+        assertFf4j.assertThatFeatureExist(F1);
+        Feature fpBis = testedStore.read(F1);
+        int nbRoles = fpBis.getPermissions().size();
+        int nbProperties = fpBis.getCustomProperties().size();
+        // When
+        testedStore.update(fpBis);
+        // Then
+        fpBis = testedStore.read(F1);
+        Assert.assertEquals(nbRoles, fpBis.getPermissions().size());
+        Assert.assertEquals(nbProperties, fpBis.getCustomProperties().size());
+        Assert.assertEquals("12", fpBis.getCustomProperties().get("ppint").asString());
+    }
+
     /**
      * TDD.
      */
@@ -0,0 +1,116 @@
+package org.ff4j.test.store;
+
+/*
+ * #%L ff4j-core $Id:$ $HeadURL:$ %% Copyright (C) 2013 Ff4J %% Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License. #L%
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
+import org.ff4j.store.ConcurrentInMemoryFeatureStore;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * All TEST LOGIC is in super class to be processed on EACH STORE.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class ConcurrentInMemoryStoreTest extends AbstractStoreTest {
+
+    /** {@inheritDoc} */
+    @Override
+    public FeatureStore initStore() {
+        ConcurrentInMemoryFeatureStore imfs = new ConcurrentInMemoryFeatureStore();
+        imfs.setLocation("ff4j.xml");
+        return imfs;
+    }
+
+    @Test
+    public void testUnitFeatureInitialization() {
+        LinkedHashMap<String, Feature> map1 = new LinkedHashMap<String, Feature>();
+        map1.put("new", new Feature("new", true, "description", "grp1"));
+        map1.put("old", new Feature("old", true, "description"));
+        ConcurrentInMemoryFeatureStore imfs = new ConcurrentInMemoryFeatureStore(map1);
+        Assert.assertEquals(2, imfs.readAll().size());
+        Assert.assertTrue(imfs.existGroup("grp1"));
+        // Store works on copies
+        map1.get("old").disable();
+        Assert.assertTrue(imfs.read("old").isEnable());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnitFeatureInitializationInvalid() {
+        new ConcurrentInMemoryFeatureStore("invalid.xml");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadAllIsReadOnly() {
+        testedStore.readAll().remove(F1);
+    }
+
+    @Test
+    public void testViewsAreSnapshots() {
+        // Given
+        Map<String, Feature> before = testedStore.readAll();
+        Feature f1 = testedStore.read(F1);
+        Assert.assertSame(before, testedStore.readAll());
+        // When
+        testedStore.disable(F1);
+        testedStore.addToGroup(F1, "newGroup");
+        // Then
+        Assert.assertTrue(before.get(F1).isEnable());
+        Assert.assertTrue(f1.isEnable());
+        Assert.assertNotSame(before, testedStore.readAll());
+        Assert.assertFalse(testedStore.readAll().get(F1).isEnable());
+        Assert.assertTrue(testedStore.readGroup("newGroup").containsKey(F1));
+        testedStore.removeFromGroup(F1, "newGroup");
+        Assert.assertFalse(testedStore.existGroup("newGroup"));
+    }
+
+    @Test
+    public void testConcurrentReadsAndWrites() throws InterruptedException {
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        final CountDownLatch done = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            final boolean writer = (t == 0);
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < 2000; i++) {
+                            if (writer) {
+                                testedStore.create(new Feature("concurrent" + i, true, null, G1));
+                                testedStore.disableGroup(G1);
+                            } else {
+                                for (Feature f : testedStore.readAll().values()) {
+                                    Assert.assertNotNull(f.getUid());
+                                }
+                                testedStore.readGroup(G1).size();
+                            }
+                        }
+                    } catch (Throwable ex) {
+                        error.set(ex);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        done.await();
+        Assert.assertNull(error.get());
+        Assert.assertEquals(2000 + EXPECTED_FEATURES_NUMBERS, testedStore.readAll().size());
+        Assert.assertFalse(testedStore.read("concurrent1999").isEnable());
+    }
+
+}
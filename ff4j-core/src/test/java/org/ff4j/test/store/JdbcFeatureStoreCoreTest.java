@@ -11,10 +11,17 @@ package org.ff4j.test.store;
  * governing permissions and limitations under the License. #L%
  */
 
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
 import org.ff4j.store.JdbcFeatureStore;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Test;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
@@ -56,4 +63,20 @@ public class JdbcFeatureStoreCoreTest extends AbstractStoreTest {
     public void tearDown() throws Exception {
         db.shutdown();
     }
+
+    @Test
+    public void testReadManyOverInListLimit() {
+        // Given, more identifiers than a single IN list accepts on some databases
+        Set<String> featureIds = new HashSet<String>();
+        for (int i = 0; i < 1500; i++) {
+            featureIds.add("missing" + i);
+        }
+        featureIds.add(F1);
+        featureIds.add(F4);
+        // When
+        Map<String, Feature> features = testedStore.readMany(featureIds);
+        // Then, results of all chunks are merged
+        Assert.assertEquals(2, features.size());
+        Assert.assertTrue(features.get(F4).getPermissions().contains(ROLE_ADMIN));
+    }
 }
@@ -0,0 +1,310 @@
+package org.ff4j.test.utils;
+
+/*
+ * #%L
+ * ff4j-core
+ * %%
+ * Copyright (C) 2013 - 2015 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.ff4j.utils.JdbcSession;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link JdbcSession} against a recording JDBC driver.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class JdbcSessionTest {
+    
+    /** Sample query. */
+    private static final String SQL_ADD_ROLE = "INSERT INTO FF4J_ROLES(FEAT_UID, ROLE_NAME) VALUES (?,?)";
+    
+    /** Sample query. */
+    private static final String SQL_GET_ROLES = "SELECT ROLE_NAME FROM FF4J_ROLES WHERE FEAT_UID = ?";
+    
+    /** Recording driver. */
+    private RecordingDriver driver;
+    
+    /** Initialize driver. */
+    @Before
+    public void initDriver() {
+        driver = new RecordingDriver();
+    }
+
+    /** TDD. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullDataSource() {
+        new JdbcSession(null);
+    }
+    
+    /** TDD. */
+    @Test
+    public void testConnectionOpenedOnFirstUse() throws Exception {
+        new JdbcSession(driver.dataSource()).close();
+        Assert.assertEquals(0, driver.connections);
+    }
+    
+    /** TDD. */
+    @Test
+    public void testStatementPreparedOncePerQuery() throws Exception {
+        JdbcSession session = new JdbcSession(driver.dataSource());
+        try {
+            session.update(SQL_ADD_ROLE, "f1", "USER");
+            session.update(SQL_ADD_ROLE, "f1", "ADMIN");
+            session.query(SQL_GET_ROLES, "f1");
+            session.query(SQL_GET_ROLES, "f2");
+        } finally {
+            session.close();
+        }
+        Assert.assertEquals(1, driver.connections);
+        Assert.assertEquals(2, driver.statements.size());
+        Assert.assertEquals(2, driver.executions);
+    }
+    
+    /** TDD. */
+    @Test
+    public void testCloseReleasesEverything() throws Exception {
+        JdbcSession session = new JdbcSession(driver.dataSource());
+        session.update(SQL_ADD_ROLE, "f1", "USER");
+        session.query(SQL_GET_ROLES, "f1");
+        session.query(SQL_GET_ROLES, "f2");
+        session.close();
+        Assert.assertEquals(0, driver.openStatements());
+        Assert.assertEquals(0, driver.openResultSets);
+        Assert.assertTrue(driver.connectionClosed);
+    }
+    
+    /** TDD. */
+    @Test
+    public void testBatchExecutedOnce() throws Exception {
+        JdbcSession session = new JdbcSession(driver.dataSource());
+        try {
+            session.addBatch(SQL_ADD_ROLE, "f1", "USER");
+            session.addBatch(SQL_ADD_ROLE, "f1", "ADMIN");
+            Assert.assertEquals(2, session.executeBatch(SQL_ADD_ROLE).length);
+            Assert.assertEquals(0, session.executeBatch(SQL_GET_ROLES).length);
+        } finally {
+            session.close();
+        }
+        Assert.assertEquals(1, driver.statements.size());
+        Assert.assertEquals(1, driver.batches);
+    }
+    
+    /** TDD. */
+    @Test
+    public void testCommitRestoresAutoCommit() throws Exception {
+        JdbcSession session = new JdbcSession(driver.dataSource());
+        try {
+            session.begin();
+            Assert.assertFalse(driver.autoCommit);
+            session.update(SQL_ADD_ROLE, "f1", "USER");
+            session.commit();
+        } finally {
+            session.close();
+        }
+        Assert.assertEquals(1, driver.commits);
+        Assert.assertEquals(0, driver.rollbacks);
+        Assert.assertTrue(driver.autoCommit);
+    }
+    
+    /** TDD. */
+    @Test
+    public void testPendingTransactionRolledBackOnClose() throws Exception {
+        JdbcSession session = new JdbcSession(driver.dataSource());
+        try {
+            session.begin();
+            session.update(SQL_ADD_ROLE, "f1", "USER");
+            throw new IllegalStateException("interrupted");
+        } catch (IllegalStateException ise) {
+            // expected
+        } finally {
+            session.close();
+        }
+        Assert.assertEquals(0, driver.commits);
+        Assert.assertEquals(1, driver.rollbacks);
+        Assert.assertTrue(driver.autoCommit);
+    }
+    
+    /**
+     * Fake driver recording calls.
+     */
+    private static class RecordingDriver {
+        
+        /** Connections picked. */
+        private int connections = 0;
+        
+        /** Statements prepared. */
+        private List<PreparedStatement> statements = new ArrayList<PreparedStatement>();
+        
+        /** Statements closed. */
+        private int closedStatements = 0;
+        
+        /** Result sets opened and not closed. */
+        private int openResultSets = 0;
+        
+        /** Updates executed. */
+        private int executions = 0;
+        
+        /** Batches executed. */
+        private int batches = 0;
+        
+        /** Commits. */
+        private int commits = 0;
+        
+        /** Rollbacks. */
+        private int rollbacks = 0;
+        
+        /** Connection auto commit. */
+        private boolean autoCommit = true;
+        
+        /** Connection state. */
+        private boolean connectionClosed = false;
+        
+        /**
+         * Statements not closed.
+         *
+         * @return number of statements
+         */
+        private int openStatements() {
+            return statements.size() - closedStatements;
+        }
+        
+        /**
+         * Create fake {@link DataSource}.
+         *
+         * @return datasource
+         */
+        private DataSource dataSource() {
+            return proxy(DataSource.class, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if ("getConnection".equals(method.getName())) {
+                        connections++;
+                        return connection();
+                    }
+                    return null;
+                }
+            });
+        }
+        
+        /**
+         * Create fake {@link Connection}.
+         *
+         * @return connection
+         */
+        private Connection connection() {
+            return proxy(Connection.class, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    String name = method.getName();
+                    if ("prepareStatement".equals(name)) {
+                        PreparedStatement ps = statement();
+                        statements.add(ps);
+                        return ps;
+                    } else if ("getAutoCommit".equals(name)) {
+                        return autoCommit;
+                    } else if ("setAutoCommit".equals(name)) {
+                        autoCommit = (Boolean) args[0];
+                    } else if ("commit".equals(name)) {
+                        commits++;
+                    } else if ("rollback".equals(name)) {
+                        rollbacks++;
+                    } else if ("isClosed".equals(name)) {
+                        return connectionClosed;
+                    } else if ("close".equals(name)) {
+                        connectionClosed = true;
+                    }
+                    return null;
+                }
+            });
+        }
+        
+        /**
+         * Create fake {@link PreparedStatement}.
+         *
+         * @return statement
+         */
+        private PreparedStatement statement() {
+            return proxy(PreparedStatement.class, new InvocationHandler() {
+                private int pendingBatch = 0;
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    String name = method.getName();
+                    if ("executeQuery".equals(name)) {
+                        openResultSets++;
+                        return resultSet();
+                    } else if ("executeUpdate".equals(name)) {
+                        executions++;
+                        return 1;
+                    } else if ("addBatch".equals(name)) {
+                        pendingBatch++;
+                    } else if ("executeBatch".equals(name)) {
+                        batches++;
+                        int[] counts = new int[pendingBatch];
+                        pendingBatch = 0;
+                        return counts;
+                    } else if ("close".equals(name)) {
+                        closedStatements++;
+                    }
+                    return null;
+                }
+            });
+        }
+        
+        /**
+         * Create fake empty {@link ResultSet}.
+         *
+         * @return result set
+         */
+        private ResultSet resultSet() {
+            return proxy(ResultSet.class, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    String name = method.getName();
+                    if ("next".equals(name)) {
+                        return false;
+                    } else if ("close".equals(name)) {
+                        openResultSets--;
+                    }
+                    return null;
+                }
+            });
+        }
+        
+        /**
+         * Build dynamic proxy.
+         *
+         * @param clazz
+         *            target interface
+         * @param handler
+         *            invocation handler
+         * @return proxy
+         */
+        private static <T> T proxy(Class<T> clazz, InvocationHandler handler) {
+            return clazz.cast(Proxy.newProxyInstance(JdbcSessionTest.class.getClassLoader(), new Class<?>[] {clazz}, handler));
+        }
+    }
+}
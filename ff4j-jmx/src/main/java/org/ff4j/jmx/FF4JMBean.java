@@ -21,12 +21,16 @@ package org.ff4j.jmx;
  */
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import org.ff4j.FF4j;
+import org.ff4j.cache.CacheStatistics;
+import org.ff4j.cache.FeatureStoreCacheProxy;
 import org.ff4j.core.Feature;
+import org.ff4j.core.FeatureStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedOperation;
@@ -127,6 +131,73 @@ public class FF4JMBean {
         getFf4j().getFeatureStore().removeRoleFromFeature(featureId, authRole);
     }
 
+    /**
+     * Publication of cache counters through JMX.
+     * 
+     * @return map of counters, empty if store is not cached.
+     */
+    @ManagedAttribute(description = "Returns cache hits, misses, loads, evictions and size if store is cached")
+    public Map<String, Long> getCacheStatistics() {
+        Map<String, Long> counters = new LinkedHashMap<String, Long>();
+        CacheStatistics stats = findCacheStatistics();
+        if (stats != null) {
+            counters.put("hitCount", stats.getHitCount());
+            counters.put("missCount", stats.getMissCount());
+            counters.put("loadSuccessCount", stats.getLoadSuccessCount());
+            counters.put("loadFailureCount", stats.getLoadFailureCount());
+            counters.put("totalLoadTime", stats.getTotalLoadTime());
+            counters.put("evictionCount", stats.getEvictionCount());
+            counters.put("size", stats.getSize());
+        }
+        return counters;
+    }
+
+    /**
+     * Publication of cache hit rate through JMX.
+     * 
+     * @return hit rate between 0 and 1, 0 if store is not cached.
+     */
+    @ManagedAttribute(description = "Returns ratio of features served from cache")
+    public double getCacheHitRate() {
+        CacheStatistics stats = findCacheStatistics();
+        return (stats == null) ? 0 : stats.getHitRate();
+    }
+
+    /**
+     * Publication of cache load time histogram through JMX.
+     * 
+     * @return number of loads per duration, empty if store is not cached.
+     */
+    @ManagedAttribute(description = "Returns number of loads from target store per duration")
+    public Map<String, Long> getCacheLoadTimeHistogram() {
+        CacheStatistics stats = findCacheStatistics();
+        return (stats == null) ? new LinkedHashMap<String, Long>() : stats.getLoadTimeHistogram();
+    }
+
+    /**
+     * Reset cache counters.
+     */
+    @ManagedOperation(description = "Reset cache statistics")
+    public void resetCacheStatistics() {
+        CacheStatistics stats = findCacheStatistics();
+        if (stats != null) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * Retrieve statistics of cache if feature store is cached.
+     * 
+     * @return statistics or null
+     */
+    private CacheStatistics findCacheStatistics() {
+        FeatureStore store = getFf4j().getFeatureStore();
+        if (store instanceof FeatureStoreCacheProxy) {
+            return ((FeatureStoreCacheProxy) store).getCacheStatistics();
+        }
+        return null;
+    }
+
     /**
      * Getter accessor for attribute 'ff4j'.
      * 
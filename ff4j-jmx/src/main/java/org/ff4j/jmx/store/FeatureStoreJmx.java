@@ -1,5 +1,6 @@
 package org.ff4j.jmx.store;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -64,6 +65,27 @@ public class FeatureStoreJmx implements FeatureStore {
         return null;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Feature findIfExists(String featureUid) {
+        return exist(featureUid) ? read(featureUid) : null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readMany(Set<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        for (String uid : featureIds) {
+            if (uid != null && !uid.isEmpty() && exist(uid)) {
+                features.put(uid, read(uid));
+            }
+        }
+        return features;
+    }
+
     @Override
     public void delete(String fpId) {
         // TODO Auto-generated method stub
@@ -112,6 +112,15 @@ public class FF4JMBeanTest {
         Assert.assertEquals(3, fs.size());
     }
 
+    @Test
+    public void should_retrieve_empty_cache_statistics_when_not_cached() throws Exception {
+        ObjectName objectName = new ObjectName(FF4J_OBJECT_NAME);
+        @SuppressWarnings("unchecked")
+        Map<String, Long> stats = (Map<String, Long>) mbServConn.getAttribute(objectName, "CacheStatistics");
+        Assert.assertTrue(stats.isEmpty());
+        Assert.assertEquals(0.0, (Double) mbServConn.getAttribute(objectName, "CacheHitRate"), 0.0);
+    }
+
     @Test
     public void should_enable_feature() throws Exception {
         ObjectName objectName = new ObjectName(FF4J_OBJECT_NAME);
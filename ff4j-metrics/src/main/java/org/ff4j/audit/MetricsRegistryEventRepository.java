@@ -21,6 +21,7 @@ package org.ff4j.audit;
  */
 
 
+import java.util.List;
 import java.util.Set;
 
 import org.ff4j.audit.graph.BarChart;
@@ -38,6 +39,15 @@ public class MetricsRegistryEventRepository extends MetricRegistry implements Ev
         return false;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public boolean saveEvents(List<Event> events) {
+        for (Event e : events) {
+            saveEvent(e);
+        }
+        return false;
+    }
+
     /** {@inheritDoc} */
     @Override
     public PieChart getHitsPieChart(long startTime, long endTime) {
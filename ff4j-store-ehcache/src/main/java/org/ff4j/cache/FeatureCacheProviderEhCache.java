@@ -48,6 +48,9 @@ public class FeatureCacheProviderEhCache implements FeatureCacheManager {
     /** Eh Cache - cache-aside mode utlization. */
     private Cache cache = null;
 
+    /** Usage of cache. */
+    private final CacheStatistics statistics = new CacheStatistics(this);
+
     /**
      * Default constructor to allow IoC.
      */
@@ -62,7 +65,9 @@ public class FeatureCacheProviderEhCache implements FeatureCacheManager {
     /** {@inheritDoc} */
     @Override
     public void evict(String featureId) {
-        getCache().remove(featureId);
+        if (getCache().remove(featureId)) {
+            statistics.recordEviction();
+        }
     }
 
     /** {@inheritDoc} */
@@ -100,6 +105,12 @@ public class FeatureCacheProviderEhCache implements FeatureCacheManager {
         return "EHCACHE";
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        return statistics;
+    }
+
     /**
      * Retrieve cache. If not exist, created default cache
      * 
@@ -0,0 +1,148 @@
+package org.ff4j.store;
+
+/*
+ * #%L ff4j-store-jdbc %% Copyright (C) 2013 Ff4J %% Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License. #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.bson.Document;
+import org.ff4j.cache.FeatureChangeLog;
+import org.ff4j.store.mongodb.FeatureStoreMongoConstants;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+
+/**
+ * Implementation of {@link FeatureChangeLog} to work with MongoDB. A version document holds the current store version,
+ * each modification is a document identified by its version.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureChangeLogMongo implements FeatureChangeLog, FeatureStoreMongoConstants {
+
+    /** MongoDB collection. */
+    private final MongoCollection<Document> collection;
+
+    /**
+     * Parameterized constructor with collection.
+     * 
+     * @param collection
+     *            the collection to set
+     */
+    public FeatureChangeLogMongo(MongoCollection<Document> collection) {
+        this.collection = collection;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long recordChange(String featureUid) {
+        if (featureUid == null || featureUid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
+        }
+        return recordChanges(Collections.singletonList(featureUid));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long recordChanges(Collection<String> featureUids) {
+        if (featureUids == null) {
+            throw new IllegalArgumentException("Feature identifiers cannot be null");
+        }
+        if (featureUids.isEmpty()) {
+            return getCurrentVersion();
+        }
+        for (String featureUid : featureUids) {
+            if (featureUid == null || featureUid.isEmpty()) {
+                throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
+            }
+        }
+        // All versions are allocated with a single increment, changes are then inserted together
+        Document versionDoc = collection.findOneAndUpdate(getVersionId(),
+                new Document(MONGO_INC, new Document(CHANGELOG_CURRENT, (long) featureUids.size())),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        long version = ((Number) versionDoc.get(CHANGELOG_CURRENT)).longValue();
+        long changeVersion = version - featureUids.size();
+        long changeTime = System.currentTimeMillis();
+        List<Document> changes = new ArrayList<Document>(featureUids.size());
+        for (String featureUid : featureUids) {
+            changes.add(new Document(UUID, ++changeVersion)
+                    .append(CHANGELOG_FEATURE, featureUid)
+                    .append(CHANGELOG_TIME, changeTime));
+        }
+        collection.insertMany(changes);
+        return version;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getCurrentVersion() {
+        return readVersionField(CHANGELOG_CURRENT, 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getOldestVersion() {
+        // Versions are allocated before being recorded, oldest is the purge mark and not the first document
+        return readVersionField(CHANGELOG_PURGED, 1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SortedMap<Long, String> readChanges(long sinceVersion) {
+        SortedMap<Long, String> changes = new TreeMap<Long, String>();
+        for (Document change : collection.find(new Document(UUID, new Document(MONGO_GT, sinceVersion)))) {
+            changes.put(((Number) change.get(UUID)).longValue(), change.getString(CHANGELOG_FEATURE));
+        }
+        return changes;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void purge(long beforeVersion) {
+        collection.updateOne(getVersionId(), new Document(MONGO_MAX, new Document(CHANGELOG_PURGED, beforeVersion)));
+        collection.deleteMany(new Document(UUID, new Document(MONGO_LT, beforeVersion)));
+    }
+
+    /**
+     * Read a field of the version document.
+     *
+     * @param field
+     *            field name
+     * @param defaultValue
+     *            value if version document or field does not exist
+     * @return
+     *            field value
+     */
+    private long readVersionField(String field, long defaultValue) {
+        Document versionDoc = collection.find(getVersionId()).first();
+        if (versionDoc == null || versionDoc.get(field) == null) {
+            return defaultValue;
+        }
+        return ((Number) versionDoc.get(field)).longValue();
+    }
+
+    /**
+     * Filter on version document.
+     *
+     * @return
+     *            filter
+     */
+    private Document getVersionId() {
+        return new Document(UUID, CHANGELOG_VERSION_ID);
+    }
+
+}
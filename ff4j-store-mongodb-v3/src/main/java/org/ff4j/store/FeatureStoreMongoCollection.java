@@ -116,6 +116,16 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
         return MAPPER.mapFeature(object);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Feature findIfExists(String uid) {
+        if (uid == null || uid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
+        }
+        Document object = collection.find(BUILDER.getFeatUid(uid)).first();
+        return (object == null) ? null : MAPPER.mapFeature(object);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void create(Feature fp) {
@@ -181,6 +191,23 @@ public class FeatureStoreMongoCollection extends AbstractFeatureStore implements
         return mapFP;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readMany(Set<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        if (featureIds.isEmpty()) {
+            return mapFP;
+        }
+        for(Document document : collection.find(BUILDER.getFeatUids(featureIds))) {
+            Feature feature = MAPPER.mapFeature(document);
+            mapFP.put(feature.getUid(), feature);
+        }
+        return mapFP;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void update(Feature fp) {
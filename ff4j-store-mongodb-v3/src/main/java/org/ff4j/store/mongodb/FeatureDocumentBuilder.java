@@ -46,6 +46,18 @@ public final class FeatureDocumentBuilder implements FeatureStoreMongoConstants
         return new Document(UUID, value);
     }
 
+    /**
+     * Mongo internal object matching any of the identifiers.
+     *
+     * @param values
+     *      target identifiers
+     * @return
+     *      internal mongo object
+     */
+    public Document getFeatUids(Set<String> values) {
+        return new Document(UUID, new Document(MONGO_IN, new ArrayList<String>(values)));
+    }
+
     /**
      * Chain add to build object.
      *
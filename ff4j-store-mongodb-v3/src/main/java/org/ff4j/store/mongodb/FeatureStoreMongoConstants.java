@@ -49,4 +49,34 @@ public interface FeatureStoreMongoConstants {
     String ROLES = "roles";
 
     String MONGO_SET = "$set";
+
+    /** Operator to match any value of a list. */
+    String MONGO_IN = "$in";
+
+    /** Operator to increment a value. */
+    String MONGO_INC = "$inc";
+
+    /** Operator to keep the greatest value. */
+    String MONGO_MAX = "$max";
+
+    /** Operator greater than. */
+    String MONGO_GT = "$gt";
+
+    /** Operator lower than. */
+    String MONGO_LT = "$lt";
+
+    /** Identifier of the store version document in change log. */
+    String CHANGELOG_VERSION_ID = "storeVersion";
+
+    /** Current store version. */
+    String CHANGELOG_CURRENT = "current";
+
+    /** First version not purged. */
+    String CHANGELOG_PURGED = "purged";
+
+    /** Modified feature. */
+    String CHANGELOG_FEATURE = "featureUid";
+
+    /** Date of modification. */
+    String CHANGELOG_TIME = "changeTime";
 }
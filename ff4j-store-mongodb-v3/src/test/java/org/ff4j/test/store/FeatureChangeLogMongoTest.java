@@ -0,0 +1,95 @@
+package org.ff4j.test.store;
+
+/*
+ * #%L ff4j-store-jdbc %% Copyright (C) 2013 Ff4J %% Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License. #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SortedMap;
+
+import org.ff4j.cache.FeatureChangeLog;
+import org.ff4j.store.FeatureChangeLogMongo;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.fakemongo.junit.FongoRule;
+
+/**
+ * Unit testing of MongoDB implementation of {@link FeatureChangeLog}.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureChangeLogMongoTest {
+
+    /**
+     * DataBase.
+     */
+    @Rule
+    public FongoRule fongoRule = new FongoRule(false);
+
+    /** Tested log. */
+    private FeatureChangeLog changeLog;
+
+    @Before
+    public void setUp() {
+        changeLog = new FeatureChangeLogMongo(fongoRule.getDatabase().getCollection("ff4j_changelog"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRecordChangeEmptyUid() {
+        changeLog.recordChange("");
+    }
+
+    @Test
+    public void testRecordAndReadChanges() {
+        Assert.assertEquals(0, changeLog.getCurrentVersion());
+        Assert.assertEquals(1, changeLog.getOldestVersion());
+        Assert.assertEquals(1, changeLog.recordChange("first"));
+        Assert.assertEquals(2, changeLog.recordChange("second"));
+        Assert.assertEquals(3, changeLog.recordChange("first"));
+        Assert.assertEquals(3, changeLog.getCurrentVersion());
+        SortedMap<Long, String> changes = changeLog.readChanges(1);
+        Assert.assertEquals(2, changes.size());
+        Assert.assertEquals("second", changes.get(2L));
+        Assert.assertEquals("first", changes.get(3L));
+    }
+
+    @Test
+    public void testRecordChanges() {
+        changeLog.recordChange("first");
+        Assert.assertEquals(3, changeLog.recordChanges(Arrays.asList("second", "third")));
+        Assert.assertEquals(3, changeLog.recordChanges(new ArrayList<String>()));
+        SortedMap<Long, String> changes = changeLog.readChanges(1);
+        Assert.assertEquals(2, changes.size());
+        Assert.assertEquals("second", changes.get(2L));
+        Assert.assertEquals("third", changes.get(3L));
+    }
+
+    @Test
+    public void testPurge() {
+        changeLog.recordChange("first");
+        changeLog.recordChange("second");
+        changeLog.recordChange("third");
+        changeLog.purge(3);
+        Assert.assertEquals(3, changeLog.getOldestVersion());
+        Assert.assertEquals(1, changeLog.readChanges(0).size());
+        // Purge mark never moves back
+        changeLog.purge(2);
+        Assert.assertEquals(3, changeLog.getOldestVersion());
+        changeLog.purge(4);
+        Assert.assertEquals(4, changeLog.getOldestVersion());
+        Assert.assertTrue(changeLog.readChanges(0).isEmpty());
+        Assert.assertEquals(3, changeLog.getCurrentVersion());
+    }
+
+}
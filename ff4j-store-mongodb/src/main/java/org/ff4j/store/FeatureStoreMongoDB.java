@@ -119,6 +119,16 @@ public class FeatureStoreMongoDB extends AbstractFeatureStore implements Feature
         return MAPPER.mapFeature(object);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Feature findIfExists(String uid) {
+        if (uid == null || uid.isEmpty()) {
+            throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
+        }
+        DBObject object = collection.findOne(BUILDER.getFeatUid(uid));
+        return (object == null) ? null : MAPPER.mapFeature(object);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void create(Feature fp) {
@@ -184,6 +194,23 @@ public class FeatureStoreMongoDB extends AbstractFeatureStore implements Feature
         return mapFP;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readMany(Set<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        if (featureIds.isEmpty()) {
+            return mapFP;
+        }
+        for(DBObject dbObject : collection.find(BUILDER.getFeatUids(featureIds))) {
+            Feature feature = MAPPER.mapFeature(dbObject);
+            mapFP.put(feature.getUid(), feature);
+        }
+        return mapFP;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void update(Feature fp) {
@@ -23,6 +23,7 @@ package org.ff4j.store.mongodb;
 import java.util.Set;
 
 import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
 import com.mongodb.BasicDBObjectBuilder;
 import com.mongodb.DBObject;
 
@@ -50,6 +51,20 @@ public final class FeatureDBObjectBuilder implements FeatureStoreMongoConstants
         return new BasicDBObjectBuilder().add(UUID, value).get();
     }
 
+    /**
+     * Mongo internal object matching any of the identifiers.
+     *
+     * @param values
+     *      target identifiers
+     * @return
+     *      internal mongo object
+     */
+    public DBObject getFeatUids(Set<String> values) {
+        BasicDBList list = new BasicDBList();
+        list.addAll(values);
+        return new BasicDBObjectBuilder().add(UUID, new BasicDBObject(MONGO_IN, list)).get();
+    }
+
     /**
      * Chain add to build object.
      * 
@@ -49,4 +49,7 @@ public interface FeatureStoreMongoConstants {
     String ROLES = "roles";
 
     String MONGO_SET = "$set";
+
+    /** Operator to match any value of a list. */
+    String MONGO_IN = "$in";
 }
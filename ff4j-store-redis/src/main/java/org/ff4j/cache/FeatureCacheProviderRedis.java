@@ -20,21 +20,39 @@ package org.ff4j.cache;
  * #L%
  */
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.ff4j.core.Feature;
 import org.ff4j.redis.FF4JRedisConstants;
+import org.ff4j.utils.JsonUtils;
 import org.ff4j.utils.json.FeatureJsonParser;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.exceptions.JedisConnectionException;
 
 /**
  * Implementation of ditributed cache to limit overhead, with REDIS (JEDIS).
  * 
+ * Connections are taken from a pool, keys are prefixed so that the cache can share a server with other data : clearing
+ * the cache only removes its own keys.
+ * 
  * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
  */
 public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedisConstants {
     
+    /** Start and end value of SCAN cursor. */
+    private static final String SCAN_START = "0";
+
     /** redis host. */
     protected String redisHost = DEFAULT_REDIS_HOST;
 
@@ -44,14 +62,20 @@ public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedis
     /** time to live. */
     protected int timeToLive = DEFAULT_TTL;
     
-    /** Java Redis CLIENT. */
-    protected Jedis jedis;
+    /** prefix of cache keys. */
+    protected String keyPrefix = PREFIX_CACHE_KEY;
+    
+    /** Pool of Java Redis CLIENTs. */
+    protected JedisPool jedisPool;
+
+    /** Usage of cache. */
+    private final CacheStatistics statistics = new CacheStatistics(this);
     
     /**
      * Default Constructor.
      */
     public FeatureCacheProviderRedis() {
-        jedis = new Jedis(redisHost, redisport);
+        this(DEFAULT_REDIS_HOST, DEFAULT_REDIS_PORT);
     }
 
     /**
@@ -63,13 +87,49 @@ public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedis
      *            target redis port
      */
     public FeatureCacheProviderRedis(String host, int port) {
-        jedis = new Jedis(redisHost, redisport);
+        this.redisHost = host;
+        this.redisport = port;
+        this.jedisPool = new JedisPool(new JedisPoolConfig(), host, port);
+    }
+
+    /**
+     * Use an existing pool of connections.
+     * 
+     * @param pool
+     *            pool of connections to redis server
+     */
+    public FeatureCacheProviderRedis(JedisPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Redis pool cannot be null");
+        }
+        this.jedisPool = pool;
     }
 
     /** {@inheritDoc} */
     @Override
     public void clear() {
-        jedis.flushAll();
+        Jedis jedis = jedisPool.getResource();
+        boolean broken = false;
+        try {
+            // Remove only cache keys, page per page
+            String cursor = SCAN_START;
+            do {
+                ScanResult<String> page = jedis.scan(cursor, scanParams());
+                List<String> keys = page.getResult();
+                if (!keys.isEmpty()) {
+                    Long deleted = jedis.del(keys.toArray(new String[keys.size()]));
+                    if (deleted != null) {
+                        statistics.recordEvictions(deleted);
+                    }
+                }
+                cursor = page.getStringCursor();
+            } while (!SCAN_START.equals(cursor));
+        } catch (JedisConnectionException jce) {
+            broken = true;
+            throw jce;
+        } finally {
+            release(jedis, broken);
+        }
     }
 
     /** {@inheritDoc} */
@@ -78,7 +138,19 @@ public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedis
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        jedis.del(uid);
+        Jedis jedis = jedisPool.getResource();
+        boolean broken = false;
+        try {
+            Long deleted = jedis.del(keyPrefix + uid);
+            if (deleted != null) {
+                statistics.recordEvictions(deleted);
+            }
+        } catch (JedisConnectionException jce) {
+            broken = true;
+            throw jce;
+        } finally {
+            release(jedis, broken);
+        }
     }
 
     /** {@inheritDoc} */
@@ -87,8 +159,45 @@ public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedis
         if (fp == null) {
             throw new IllegalArgumentException("Feature cannot be null nor empty");
         }
-        jedis.set(fp.getUid(), fp.toJson());
-        jedis.expire(fp.getUid(), timeToLive);
+        Jedis jedis = jedisPool.getResource();
+        boolean broken = false;
+        try {
+            jedis.setex(keyPrefix + fp.getUid(), timeToLive, serialize(fp));
+        } catch (JedisConnectionException jce) {
+            broken = true;
+            throw jce;
+        } finally {
+            release(jedis, broken);
+        }
+    }
+
+    /**
+     * Add several features to cache in a single round trip.
+     * 
+     * @param features
+     *            features to be cached
+     */
+    public void putAll(Collection<Feature> features) {
+        if (features == null) {
+            throw new IllegalArgumentException("Features cannot be null");
+        }
+        if (features.isEmpty()) {
+            return;
+        }
+        Jedis jedis = jedisPool.getResource();
+        boolean broken = false;
+        try {
+            Pipeline pipeline = jedis.pipelined();
+            for (Feature fp : features) {
+                pipeline.setex(keyPrefix + fp.getUid(), timeToLive, serialize(fp));
+            }
+            pipeline.sync();
+        } catch (JedisConnectionException jce) {
+            broken = true;
+            throw jce;
+        } finally {
+            release(jedis, broken);
+        }
     }
 
     /** {@inheritDoc} */
@@ -97,23 +206,87 @@ public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedis
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
-        String value = jedis.get(uid);
-        if (value != null) {
-            return FeatureJsonParser.parseFeature(value);
+        Jedis jedis = jedisPool.getResource();
+        boolean broken = false;
+        try {
+            String value = jedis.get(keyPrefix + uid);
+            return (value == null) ? null : FeatureJsonParser.parseFeature(value);
+        } catch (JedisConnectionException jce) {
+            broken = true;
+            throw jce;
+        } finally {
+            release(jedis, broken);
+        }
+    }
+
+    /**
+     * Read several features from cache in a single round trip.
+     * 
+     * @param uids
+     *            feature identifiers
+     * @return
+     *            features found in cache, missing ones are not in map
+     */
+    public Map<String, Feature> getMany(Set<String> uids) {
+        if (uids == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        Map<String, Feature> features = new LinkedHashMap<String, Feature>();
+        if (uids.isEmpty()) {
+            return features;
+        }
+        String[] keys = new String[uids.size()];
+        int idx = 0;
+        for (String uid : uids) {
+            keys[idx++] = keyPrefix + uid;
+        }
+        Jedis jedis = jedisPool.getResource();
+        boolean broken = false;
+        try {
+            for (String value : jedis.mget(keys)) {
+                if (value != null) {
+                    Feature fp = FeatureJsonParser.parseFeature(value);
+                    features.put(fp.getUid(), fp);
+                }
+            }
+            return features;
+        } catch (JedisConnectionException jce) {
+            broken = true;
+            throw jce;
+        } finally {
+            release(jedis, broken);
         }
-        return null;
     }
     
     /** {@inheritDoc} */
     @Override
     public Set<String> listCachedFeatureNames() {
-        return jedis.keys(PREFIX_KEY + "*");
+        Set<String> names = new HashSet<String>();
+        Jedis jedis = jedisPool.getResource();
+        boolean broken = false;
+        try {
+            // SCAN does not block server as KEYS does
+            String cursor = SCAN_START;
+            do {
+                ScanResult<String> page = jedis.scan(cursor, scanParams());
+                for (String key : page.getResult()) {
+                    names.add(key.substring(keyPrefix.length()));
+                }
+                cursor = page.getStringCursor();
+            } while (!SCAN_START.equals(cursor));
+            return names;
+        } catch (JedisConnectionException jce) {
+            broken = true;
+            throw jce;
+        } finally {
+            release(jedis, broken);
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public Object getNativeCache() {
-        return jedis;
+        return jedisPool;
     }
 
     /** {@inheritDoc} */
@@ -122,6 +295,70 @@ public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedis
         return "REDIS";
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Serialize feature without null and empty attributes.
+     * 
+     * @param fp
+     *            feature
+     * @return
+     *            compact json expression
+     */
+    protected String serialize(Feature fp) {
+        StringBuilder json = new StringBuilder("{\"uid\":\"").append(fp.getUid()).append("\"");
+        json.append(",\"enable\":").append(fp.isEnable());
+        if (fp.getDescription() != null) {
+            json.append(",\"description\":\"").append(fp.getDescription()).append("\"");
+        }
+        if (fp.getGroup() != null) {
+            json.append(",\"group\":\"").append(fp.getGroup()).append("\"");
+        }
+        if (fp.getPermissions() != null && !fp.getPermissions().isEmpty()) {
+            json.append(",\"permissions\":").append(JsonUtils.permissionsAsJson(fp.getPermissions()));
+        }
+        if (fp.getFlippingStrategy() != null) {
+            json.append(",\"flippingStrategy\":").append(JsonUtils.flippingStrategyAsJson(fp.getFlippingStrategy()));
+        }
+        if (fp.getCustomProperties() != null && !fp.getCustomProperties().isEmpty()) {
+            json.append(",\"customProperties\":").append(JsonUtils.customPropertiesAsJson(fp.getCustomProperties()));
+        }
+        return json.append("}").toString();
+    }
+
+    /**
+     * Parameters to iterate over cache keys.
+     * 
+     * @return
+     *            scan parameters
+     */
+    private ScanParams scanParams() {
+        ScanParams params = new ScanParams();
+        params.match(keyPrefix + "*");
+        params.count(SCAN_COUNT);
+        return params;
+    }
+
+    /**
+     * Give back connection to the pool.
+     * 
+     * @param jedis
+     *            connection
+     * @param broken
+     *            if connection has been lost
+     */
+    private void release(Jedis jedis, boolean broken) {
+        if (broken) {
+            jedisPool.returnBrokenResource(jedis);
+        } else {
+            jedisPool.returnResource(jedis);
+        }
+    }
+
     /**
      * Getter accessor for attribute 'redisHost'.
      * 
@@ -149,6 +386,36 @@ public class FeatureCacheProviderRedis implements FeatureCacheManager, FF4JRedis
         return timeToLive;
     }
 
-    
+    /**
+     * Setter accessor for attribute 'timeToLive'.
+     * 
+     * @param timeToLive
+     *            new value for 'timeToLive ' in seconds
+     */
+    public void setTimeToLive(int timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Getter accessor for attribute 'keyPrefix'.
+     * 
+     * @return current value of 'keyPrefix'
+     */
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    /**
+     * Setter accessor for attribute 'keyPrefix'.
+     * 
+     * @param keyPrefix
+     *            new value for 'keyPrefix '
+     */
+    public void setKeyPrefix(String keyPrefix) {
+        if (keyPrefix == null || keyPrefix.isEmpty()) {
+            throw new IllegalArgumentException("Key prefix cannot be null nor empty");
+        }
+        this.keyPrefix = keyPrefix;
+    }
 
 }
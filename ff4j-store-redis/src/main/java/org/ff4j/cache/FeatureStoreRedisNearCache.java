@@ -0,0 +1,275 @@
+package org.ff4j.cache;
+
+/*
+ * #%L
+ * ff4j-cache-redis
+ * %%
+ * Copyright (C) 2013 - 2014 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.UUID;
+
+import org.ff4j.core.FeatureStore;
+import org.ff4j.redis.FF4JRedisConstants;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * In-process near cache in front of a shared store (e.g. {@link org.ff4j.store.FeatureStoreRedis}). Features are read
+ * from local memory, each modification is published on a REDIS channel and evicted from the near cache of every node
+ * subscribed to it. Invalidations of other nodes are received once {@link #start()} has been called, {@link #close()}
+ * stops listening and releases connections.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureStoreRedisNearCache extends FeatureStoreCacheProxy implements FF4JRedisConstants {
+
+    /** Delay before subscribing again after a connection loss, in milliseconds. */
+    private static final long RECONNECT_DELAY = 1000L;
+
+    /** Feature identifier of the message clearing the whole near cache, feature identifiers cannot be empty. */
+    private static final String INVALIDATE_ALL = "";
+
+    /** Identifier of this node, its own messages are ignored. */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** redis host. */
+    protected String redisHost = DEFAULT_REDIS_HOST;
+
+    /** redis port. */
+    protected int redisport = DEFAULT_REDIS_PORT;
+
+    /** Java Redis CLIENT to publish invalidations. */
+    private Jedis publisher;
+
+    /** Listener of invalidations. */
+    private final InvalidationListener listener = new InvalidationListener();
+
+    /** Thread blocked on subscription. */
+    private Thread subscriberThread;
+
+    /** Flag to stop subscription. */
+    private volatile boolean running = false;
+
+    /**
+     * Near cache on default redis server.
+     * 
+     * @param target
+     *            shared store
+     */
+    public FeatureStoreRedisNearCache(FeatureStore target) {
+        this(target, DEFAULT_REDIS_HOST, DEFAULT_REDIS_PORT);
+    }
+
+    /**
+     * Near cache with invalidations through remote redis server.
+     * 
+     * @param target
+     *            shared store
+     * @param host
+     *            target redis host
+     * @param port
+     *            target redis port
+     */
+    public FeatureStoreRedisNearCache(FeatureStore target, String host, int port) {
+        this(target, host, port, new ConcurrentInMemoryCacheManager());
+    }
+
+    /**
+     * Near cache with invalidations through remote redis server.
+     * 
+     * @param target
+     *            shared store
+     * @param host
+     *            target redis host
+     * @param port
+     *            target redis port
+     * @param localCache
+     *            in-process cache
+     */
+    public FeatureStoreRedisNearCache(FeatureStore target, String host, int port, FeatureCacheManager localCache) {
+        super(target, localCache);
+        this.redisHost = host;
+        this.redisport = port;
+        this.publisher = new Jedis(host, port);
+    }
+
+    /**
+     * Subscribe to invalidations in a daemon thread, subscription is restored after connection loss.
+     */
+    public synchronized void start() {
+        if (subscriberThread != null) {
+            return;
+        }
+        running = true;
+        subscriberThread = new Thread(new Runnable() {
+            public void run() {
+                subscribe();
+            }
+        }, "ff4j-redis-invalidation");
+        subscriberThread.setDaemon(true);
+        subscriberThread.start();
+    }
+
+    /**
+     * Blocking subscription loop.
+     */
+    private void subscribe() {
+        while (running) {
+            Jedis subscriber = new Jedis(redisHost, redisport);
+            try {
+                // Blocks until unsubscribed
+                subscriber.subscribe(listener, INVALIDATION_CHANNEL);
+            } catch (RuntimeException re) {
+                if (!running) {
+                    return;
+                }
+                // Messages may have been lost while disconnected or failing
+                invalidateAll();
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                try {
+                    subscriber.disconnect();
+                } catch (RuntimeException re) {
+                    // connection already lost
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop listening invalidations and release connections.
+     */
+    public synchronized void close() {
+        running = false;
+        if (listener.isSubscribed()) {
+            listener.unsubscribe();
+        }
+        if (subscriberThread != null) {
+            subscriberThread.interrupt();
+            subscriberThread = null;
+        }
+        publisher.disconnect();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void modified(String featureId) {
+        super.modified(featureId);
+        if (featureId != null) {
+            publish(featureId);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void modifiedGroup(String groupName) {
+        super.modifiedGroup(groupName);
+        // Members are unknown, other nodes clear their near cache
+        publish(INVALIDATE_ALL);
+    }
+
+    /**
+     * Notify other nodes of a modification, connection is opened again once if lost. The shared store has already
+     * been modified : a failure is logged and does not fail the operation, other nodes rely on their cache TTL.
+     * 
+     * @param featureId
+     *            modified feature identifier, empty to clear every near cache
+     */
+    private synchronized void publish(String featureId) {
+        String message = nodeId + INVALIDATION_SEPARATOR + featureId;
+        try {
+            try {
+                publisher.publish(INVALIDATION_CHANNEL, message);
+            } catch (JedisConnectionException jce) {
+                publisher.disconnect();
+                publisher = new Jedis(redisHost, redisport);
+                publisher.publish(INVALIDATION_CHANNEL, message);
+            }
+        } catch (RuntimeException re) {
+            System.err.println("Cannot publish invalidation of feature " + featureId + " : " + re.getMessage());
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'nodeId'.
+     *
+     * @return
+     *       current value of 'nodeId'
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Evict features modified by other nodes.
+     */
+    private final class InvalidationListener extends JedisPubSub {
+
+        /** {@inheritDoc} */
+        @Override
+        public void onMessage(String channel, String message) {
+            int idx = message.indexOf(INVALIDATION_SEPARATOR);
+            if (idx < 0) {
+                return;
+            }
+            if (!nodeId.equals(message.substring(0, idx))) {
+                String featureId = message.substring(idx + INVALIDATION_SEPARATOR.length());
+                if (INVALIDATE_ALL.equals(featureId)) {
+                    invalidateAll();
+                } else {
+                    invalidate(featureId);
+                }
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onSubscribe(String channel, int subscribedChannels) {
+            // Modifications done before subscription are unknown
+            invalidateAll();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onPMessage(String pattern, String channel, String message) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onUnsubscribe(String channel, int subscribedChannels) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onPUnsubscribe(String pattern, int subscribedChannels) {
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onPSubscribe(String pattern, int subscribedChannels) {
+        }
+    }
+
+}
@@ -39,4 +39,16 @@ public interface FF4JRedisConstants {
     /** default ttl. */
     public int DEFAULT_TTL = 900000000;
 
+    /** prefix of keys in cache, distinct from store keys to share a server. */
+    public String PREFIX_CACHE_KEY = "FF4J_CACHE_";
+
+    /** number of keys per SCAN iteration. */
+    public int SCAN_COUNT = 100;
+
+    /** channel where modified features are published. */
+    public String INVALIDATION_CHANNEL = "FF4J_INVALIDATION";
+
+    /** separator between node and feature identifiers in invalidation messages. */
+    public String INVALIDATION_SEPARATOR = "|";
+
 }
@@ -22,6 +22,8 @@ package org.ff4j.store;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -107,10 +109,19 @@ public class FeatureStoreRedis extends AbstractFeatureStore implements FF4JRedis
     /** {@inheritDoc} */
     @Override
     public Feature read(String uid) {
-        if (!exist(uid)) {
+        Feature feature = findIfExists(uid);
+        if (feature == null) {
             throw new FeatureNotFoundException(uid);
         }
-        return FeatureJsonParser.parseFeature(jedis.get(PREFIX_KEY + uid));
+        return feature;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature findIfExists(String uid) {
+        Util.assertParamNotNull(uid, "Feature identifier");
+        String json = jedis.get(PREFIX_KEY + uid);
+        return (json == null) ? null : FeatureJsonParser.parseFeature(json);
     }
     
     /** {@inheritDoc} */
@@ -175,6 +186,32 @@ public class FeatureStoreRedis extends AbstractFeatureStore implements FF4JRedis
         return myMap;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readMany(Set<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        Map<String, Feature> myMap = new LinkedHashMap<String, Feature>();
+        if (featureIds.isEmpty()) {
+            return myMap;
+        }
+        // Single MGET, missing keys are returned as null
+        String[] keys = new String[featureIds.size()];
+        int idx = 0;
+        for (String uid : featureIds) {
+            keys[idx++] = PREFIX_KEY + uid;
+        }
+        List<String> values = jedis.mget(keys);
+        for (String json : values) {
+            if (json != null) {
+                Feature feature = FeatureJsonParser.parseFeature(json);
+                myMap.put(feature.getUid(), feature);
+            }
+        }
+        return myMap;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void delete(String fpId) {
@@ -1,5 +1,8 @@
 package org.ff4j.cache;
 
+import java.util.HashSet;
+import java.util.Map;
+
 import org.ff4j.core.Feature;
 import org.ff4j.core.FeatureStore;
 import org.ff4j.store.InMemoryFeatureStore;
@@ -8,6 +11,8 @@ import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import redis.clients.jedis.Jedis;
+
 /*
  * #%L
  * ff4j-cache-redis
@@ -49,4 +54,24 @@ public class RedisCacheManagerTestIT implements TestsFf4jConstants {
         Assert.assertEquals(fcached.getPermissions(), fold.getPermissions());
 
     }
+
+    @Test
+    public void testClearOnlyRemovesCacheKeys() {
+        // Given
+        FeatureCacheProviderRedis cache = new FeatureCacheProviderRedis();
+        FeatureStore store = new InMemoryFeatureStore(TEST_FEATURES_FILE);
+        cache.putAll(store.readAll().values());
+        Jedis jedis = new Jedis(cache.getRedisHost(), cache.getRedisport());
+        jedis.set("OTHER_KEY", "value");
+        Assert.assertTrue(cache.listCachedFeatureNames().contains(F4));
+        Map<String, Feature> cached = cache.getMany(new HashSet<String>(store.readAll().keySet()));
+        Assert.assertEquals(store.readAll().size(), cached.size());
+        // When
+        cache.clear();
+        // Then
+        Assert.assertTrue(cache.listCachedFeatureNames().isEmpty());
+        Assert.assertEquals("value", jedis.get("OTHER_KEY"));
+        jedis.del("OTHER_KEY");
+        jedis.disconnect();
+    }
 }
@@ -0,0 +1,87 @@
+package org.ff4j.cache.it;
+
+/*
+ * #%L
+ * ff4j-cache-redis
+ * %%
+ * Copyright (C) 2013 - 2014 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+
+import org.ff4j.cache.FeatureStoreRedisNearCache;
+import org.ff4j.core.Feature;
+import org.ff4j.store.FeatureStoreRedis;
+import org.ff4j.test.TestsFf4jConstants;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * Class to test the REDIS {@link FeatureStoreRedisNearCache}, requires a local redis-server.
+ * 
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+@Ignore
+public class FeatureStoreRedisNearCacheTestIT implements TestsFf4jConstants {
+
+    /** Shared store. */
+    private FeatureStoreRedis redisStore;
+
+    /** Near cache of first node. */
+    private FeatureStoreRedisNearCache nodeA;
+
+    /** Near cache of second node. */
+    private FeatureStoreRedisNearCache nodeB;
+
+    @Before
+    public void initNodes() {
+        redisStore = new FeatureStoreRedis("ff4j.xml");
+        nodeA = new FeatureStoreRedisNearCache(redisStore);
+        nodeB = new FeatureStoreRedisNearCache(new FeatureStoreRedis());
+        nodeA.start();
+        nodeB.start();
+    }
+
+    @After
+    public void cleanStore() {
+        nodeA.close();
+        nodeB.close();
+        Map < String, Feature > f = redisStore.readAll();
+        for (String key : f.keySet()) {
+            redisStore.delete(key);
+        }
+    }
+
+    @Test
+    public void testModificationInvalidatesOtherNode() throws InterruptedException {
+        // Given
+        Assert.assertTrue(nodeB.read(F1).isEnable());
+        Assert.assertNotNull(nodeB.getCacheManager().get(F1));
+        // When
+        nodeA.disable(F1);
+        // Then
+        long timeout = System.currentTimeMillis() + 2000;
+        while (nodeB.getCacheManager().get(F1) != null && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        Assert.assertNull(nodeB.getCacheManager().get(F1));
+        Assert.assertFalse(nodeB.read(F1).isEnable());
+    }
+
+}
@@ -11,6 +11,8 @@ package org.ff4j.store;
  * governing permissions and limitations under the License. #L%
  */
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -31,6 +33,7 @@ import org.ff4j.store.rowmapper.RoleRowMapper;
 import org.ff4j.utils.ParameterUtils;
 import org.springframework.beans.factory.annotation.Required;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -92,12 +95,22 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
     /** {@inheritDoc} */
     @Override
     public Feature read(String uid) {
+        Feature fp = findIfExists(uid);
+        if (fp == null) {
+            throw new FeatureNotFoundException(uid);
+        }
+        return fp;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature findIfExists(String uid) {
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier (param#0) cannot be null nor empty");
         }
         List<Feature> dbFlips = getJdbcTemplate().query(SQLQUERY_GET_FEATURE_BY_ID, MAPPER, uid);
         if (dbFlips.isEmpty()) {
-            throw new FeatureNotFoundException(uid);
+            return null;
         }
         Feature fp = dbFlips.get(0);
 
@@ -304,6 +317,51 @@ public class FeatureStoreSpringJDBC extends AbstractFeatureStore implements Jdbc
         return mapFP;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Feature> readMany(Set<String> featureIds) {
+        if (featureIds == null) {
+            throw new IllegalArgumentException("Feature identifiers (param#0) cannot be null");
+        }
+        final LinkedHashMap<String, Feature> mapFP = new LinkedHashMap<String, Feature>();
+        if (featureIds.isEmpty()) {
+            return mapFP;
+        }
+        Object[] uids = featureIds.toArray();
+        StringBuilder inList = new StringBuilder("(");
+        for (int i = 0; i < uids.length; i++) {
+            inList.append(i > 0 ? ",?" : "?");
+        }
+        inList.append(")");
+        List<Feature> lFp = getJdbcTemplate().query(SQLQUERY_GET_FEATURES_IN + inList, MAPPER, uids);
+        for (Feature flipPoint : lFp) {
+            mapFP.put(flipPoint.getUid(), flipPoint);
+        }
+        if (mapFP.isEmpty()) {
+            return mapFP;
+        }
+        // Populating Roles
+        RoleRowMapper rrm = new RoleRowMapper();
+        getJdbcTemplate().query(SQL_GET_ROLES_IN + inList, rrm, uids);
+        Map<String, Set<String>> roles = rrm.getRoles();
+        for (String featId : roles.keySet()) {
+            if (mapFP.containsKey(featId)) {
+                mapFP.get(featId).getPermissions().addAll(roles.get(featId));
+            }
+        }
+        // Populating custom properties
+        getJdbcTemplate().query(SQL_GET_CUSTOMPROPERTIES_IN + inList, uids, new RowCallbackHandler() {
+            public void processRow(ResultSet rs) throws SQLException {
+                Feature fp = mapFP.get(rs.getString(COL_FEAT_UID));
+                if (fp != null) {
+                    AbstractProperty<?> ap = JDBC_PROPERTY_MAPPER.mapRow(rs, rs.getRow());
+                    fp.getCustomProperties().put(ap.getName(), ap);
+                }
+            }
+        });
+        return mapFP;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Set<String> readAllGroups() {
@@ -99,6 +99,64 @@ public abstract class AbstractStoreJUnitTest implements TestsFf4jConstants {
         assertFf4j.assertThatFeatureIsInGroup(F4, G1);
     }
 
+    /**
+     * TDD.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindIfExistsNull() {
+        // Given
+        // When
+        testedStore.findIfExists(null);
+        // Then, expected error...
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testFindIfExists() {
+        // Given
+        assertFf4j.assertThatFeatureExist(F4);
+        assertFf4j.assertThatFeatureDoesNotExist(F_DOESNOTEXIST);
+        // When
+        Feature f = testedStore.findIfExists(F4);
+        // Then
+        Assert.assertEquals(F4, f.getUid());
+        Assert.assertTrue(f.getPermissions().contains(ROLE_ADMIN));
+        Assert.assertNull(testedStore.findIfExists(F_DOESNOTEXIST));
+    }
+
+    /**
+     * TDD.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadManyNull() {
+        // Given
+        // When
+        testedStore.readMany(null);
+        // Then, expected error...
+    }
+
+    /**
+     * TDD.
+     */
+    @Test
+    public void testReadMany() {
+        // Given
+        assertFf4j.assertThatFeatureExist(F1);
+        assertFf4j.assertThatFeatureExist(F4);
+        assertFf4j.assertThatFeatureDoesNotExist(F_DOESNOTEXIST);
+        // When
+        Map<String, Feature> features = testedStore.readMany(new HashSet<String>(Arrays.asList(F1, F4, F_DOESNOTEXIST)));
+        // Then
+        Assert.assertEquals(2, features.size());
+        Assert.assertEquals(F1, features.get(F1).getUid());
+        Assert.assertFalse(features.containsKey(F_DOESNOTEXIST));
+        Assert.assertTrue(features.get(F4).getPermissions().contains(ROLE_ADMIN));
+        Assert.assertEquals(G1, features.get(F4).getGroup());
+        Assert.assertTrue(testedStore.readMany(new HashSet<String>()).isEmpty());
+    }
+
     /**
      * TDD.
      */
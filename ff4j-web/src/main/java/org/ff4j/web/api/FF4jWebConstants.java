@@ -75,6 +75,9 @@ public interface FF4jWebConstants {
     /** relative path for cache. */
     String RESOURCE_CACHE = "cache";
 
+    /** relative path for cache statistics. */
+    String RESOURCE_STATISTICS = "statistics";
+
     /** relative path. */
     String RESOURCE_FF4J = "ff4j";
 
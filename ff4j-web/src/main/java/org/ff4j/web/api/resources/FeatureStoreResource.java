@@ -37,6 +37,7 @@ import org.ff4j.cache.FeatureStoreCacheProxy;
 import org.ff4j.core.Feature;
 import org.ff4j.web.api.FF4jWebConstants;
 import org.ff4j.web.api.resources.domain.CacheApiBean;
+import org.ff4j.web.api.resources.domain.CacheStatisticsApiBean;
 import org.ff4j.web.api.resources.domain.EventRepositoryApiBean;
 import org.ff4j.web.api.resources.domain.FeatureApiBean;
 import org.ff4j.web.api.resources.domain.FeatureStoreApiBean;
@@ -145,6 +146,25 @@ public class FeatureStoreResource extends AbstractResource {
         return Response.ok(new CacheApiBean(getFeatureStore())).build();
     }
     
+    /**
+     * Display usage of cache : hits, misses, loads and evictions.
+     * 
+     * @return statistics of cache
+     */
+    @GET
+    @Path("/" + RESOURCE_CACHE + "/" + RESOURCE_STATISTICS)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value= "Display statistics of <b>Cache</b>")
+    @ApiResponses({ @ApiResponse(code = 200, message= "statistics of cache", response=CacheStatisticsApiBean.class),
+                    @ApiResponse(code = 404, message= "no cache content provided") })
+    public Response getStatistics() {
+        if (!(getFeatureStore() instanceof FeatureStoreCacheProxy)) {
+            return Response.status(Response.Status.NOT_FOUND).entity("Current Store is not cached").build();
+        }
+        FeatureStoreCacheProxy cacheProxy = (FeatureStoreCacheProxy) getFeatureStore();
+        return Response.ok(new CacheStatisticsApiBean(cacheProxy.getCacheStatistics())).build();
+    }
+    
     /**
      * POST Operation to clean cache.
      */
@@ -155,10 +175,10 @@ public class FeatureStoreResource extends AbstractResource {
     @ApiResponses({ @ApiResponse(code = 200, message= "cache is cleard"),
                     @ApiResponse(code = 404, message= "no cache content provided") })
     public Response clear() {
-        if (!getFeatureStore().isCached()) {
+        if (!(getFeatureStore() instanceof FeatureStoreCacheProxy)) {
             return Response.status(Response.Status.NOT_FOUND).entity("Current Store is not cached").build();
         }
-        ((FeatureStoreCacheProxy) getFeatureStore()).getCacheManager().clear();;
+        ((FeatureStoreCacheProxy) getFeatureStore()).getCacheManager().clear();
         return Response.ok("Cache has been cleared").build();
     }
 
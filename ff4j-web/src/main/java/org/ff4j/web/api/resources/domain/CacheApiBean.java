@@ -65,7 +65,9 @@ public class CacheApiBean {
         if (featureStore.isCached()) {
             cacheStore    = featureStore.getCachedTargetStore();
             cacheProvider = featureStore.getCacheProvider();
-            featureNames  = ((FeatureStoreCacheProxy) featureStore).getCacheManager().listCachedFeatureNames();
+            if (featureStore instanceof FeatureStoreCacheProxy) {
+                featureNames = ((FeatureStoreCacheProxy) featureStore).getCacheManager().listCachedFeatureNames();
+            }
         }
     }
     
@@ -0,0 +1,283 @@
+package org.ff4j.web.api.resources.domain;
+
+/*
+ * #%L
+ * ff4j-web
+ * %%
+ * Copyright (C) 2013 - 2014 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.codehaus.jackson.annotate.JsonProperty;
+import org.ff4j.cache.CacheStatistics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.wordnik.swagger.annotations.ApiModel;
+import com.wordnik.swagger.annotations.ApiModelProperty;
+
+/**
+ * Usage of Cache.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+@JsonInclude(Include.NON_NULL)
+@ApiModel( value = "cacheStatisticsApiBean", description = "cache statistics resource representation" )
+public class CacheStatisticsApiBean {
+    
+    /** hitCount. */
+    @JsonProperty("hitCount")
+    @ApiModelProperty( value = "number of features served from cache", required = false )
+    private long hitCount;
+    
+    /** missCount. */
+    @JsonProperty("missCount")
+    @ApiModelProperty( value = "number of features not found in cache", required = false )
+    private long missCount;
+    
+    /** hitRate. */
+    @JsonProperty("hitRate")
+    @ApiModelProperty( value = "ratio of features served from cache", required = false )
+    private double hitRate;
+    
+    /** loadSuccessCount. */
+    @JsonProperty("loadSuccessCount")
+    @ApiModelProperty( value = "number of successful loads from target store", required = false )
+    private long loadSuccessCount;
+    
+    /** loadFailureCount. */
+    @JsonProperty("loadFailureCount")
+    @ApiModelProperty( value = "number of failed loads from target store", required = false )
+    private long loadFailureCount;
+    
+    /** averageLoadTime. */
+    @JsonProperty("averageLoadTime")
+    @ApiModelProperty( value = "average load time in milliseconds", required = false )
+    private double averageLoadTime;
+    
+    /** loadTimeHistogram. */
+    @JsonProperty("loadTimeHistogram")
+    @ApiModelProperty( value = "number of loads per duration", required = false )
+    private Map < String, Long > loadTimeHistogram = new LinkedHashMap<String, Long>();
+    
+    /** evictionCount. */
+    @JsonProperty("evictionCount")
+    @ApiModelProperty( value = "number of features removed from cache", required = false )
+    private long evictionCount;
+    
+    /** size. */
+    @JsonProperty("size")
+    @ApiModelProperty( value = "number of features in cache, -1 if unknown", required = false )
+    private long size;
+    
+    /**
+     * Default constructor.
+     */
+    public CacheStatisticsApiBean() {
+    }
+
+    /**
+     * Constructor from statistics of cache.
+     *
+     * @param stats
+     *      current statistics
+     */
+    public CacheStatisticsApiBean(CacheStatistics stats) {
+        hitCount          = stats.getHitCount();
+        missCount         = stats.getMissCount();
+        hitRate           = stats.getHitRate();
+        loadSuccessCount  = stats.getLoadSuccessCount();
+        loadFailureCount  = stats.getLoadFailureCount();
+        averageLoadTime   = stats.getAverageLoadTime();
+        loadTimeHistogram = stats.getLoadTimeHistogram();
+        evictionCount     = stats.getEvictionCount();
+        size              = stats.getSize();
+    }
+
+    /**
+     * Getter accessor for attribute 'hitCount'.
+     *
+     * @return
+     *       current value of 'hitCount'
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'hitCount'.
+     * @param hitCount
+     * 		new value for 'hitCount '
+     */
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'missCount'.
+     *
+     * @return
+     *       current value of 'missCount'
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'missCount'.
+     * @param missCount
+     * 		new value for 'missCount '
+     */
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'hitRate'.
+     *
+     * @return
+     *       current value of 'hitRate'
+     */
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    /**
+     * Setter accessor for attribute 'hitRate'.
+     * @param hitRate
+     * 		new value for 'hitRate '
+     */
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    /**
+     * Getter accessor for attribute 'loadSuccessCount'.
+     *
+     * @return
+     *       current value of 'loadSuccessCount'
+     */
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'loadSuccessCount'.
+     * @param loadSuccessCount
+     * 		new value for 'loadSuccessCount '
+     */
+    public void setLoadSuccessCount(long loadSuccessCount) {
+        this.loadSuccessCount = loadSuccessCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'loadFailureCount'.
+     *
+     * @return
+     *       current value of 'loadFailureCount'
+     */
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'loadFailureCount'.
+     * @param loadFailureCount
+     * 		new value for 'loadFailureCount '
+     */
+    public void setLoadFailureCount(long loadFailureCount) {
+        this.loadFailureCount = loadFailureCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'averageLoadTime'.
+     *
+     * @return
+     *       current value of 'averageLoadTime'
+     */
+    public double getAverageLoadTime() {
+        return averageLoadTime;
+    }
+
+    /**
+     * Setter accessor for attribute 'averageLoadTime'.
+     * @param averageLoadTime
+     * 		new value for 'averageLoadTime '
+     */
+    public void setAverageLoadTime(double averageLoadTime) {
+        this.averageLoadTime = averageLoadTime;
+    }
+
+    /**
+     * Getter accessor for attribute 'loadTimeHistogram'.
+     *
+     * @return
+     *       current value of 'loadTimeHistogram'
+     */
+    public Map<String, Long> getLoadTimeHistogram() {
+        return loadTimeHistogram;
+    }
+
+    /**
+     * Setter accessor for attribute 'loadTimeHistogram'.
+     * @param loadTimeHistogram
+     * 		new value for 'loadTimeHistogram '
+     */
+    public void setLoadTimeHistogram(Map<String, Long> loadTimeHistogram) {
+        this.loadTimeHistogram = loadTimeHistogram;
+    }
+
+    /**
+     * Getter accessor for attribute 'evictionCount'.
+     *
+     * @return
+     *       current value of 'evictionCount'
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'evictionCount'.
+     * @param evictionCount
+     * 		new value for 'evictionCount '
+     */
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'size'.
+     *
+     * @return
+     *       current value of 'size'
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Setter accessor for attribute 'size'.
+     * @param size
+     * 		new value for 'size '
+     */
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+}
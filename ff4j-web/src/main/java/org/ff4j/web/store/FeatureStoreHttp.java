@@ -169,12 +169,25 @@ public class FeatureStoreHttp extends AbstractFeatureStore implements FF4jWebCon
     /** {@inheritDoc} */
     @Override
     public Feature read(String uid) {
+        Feature fp = findIfExists(uid);
+        if (fp == null) {
+            throw new FeatureNotFoundException(uid);
+        }
+        return fp;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Feature findIfExists(String uid) {
         if (uid == null || uid.isEmpty()) {
             throw new IllegalArgumentException("Feature identifier cannot be null nor empty");
         }
         ClientResponse cRes = getStore().path(uid).get(ClientResponse.class);
         if (Status.NOT_FOUND.getStatusCode() == cRes.getStatus()) {
-            throw new FeatureNotFoundException(uid);
+            return null;
+        }
+        if (Status.OK.getStatusCode() != cRes.getStatus()) {
+            throw new FeatureAccessException("Cannot read feature, an HTTP error " + cRes.getStatus() + " occured.");
         }
         return parseFeature(cRes.getEntity(String.class));
     }
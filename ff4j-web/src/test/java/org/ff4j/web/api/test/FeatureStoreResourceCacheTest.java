@@ -0,0 +1,90 @@
+package org.ff4j.web.api.test;
+
+/*
+ * #%L
+ * ff4j-web
+ * %%
+ * Copyright (C) 2013 - 2014 Ff4J
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import javax.ws.rs.core.Response.Status;
+
+import org.ff4j.FF4j;
+import org.ff4j.cache.FeatureStoreCacheProxy;
+import org.ff4j.cache.InMemoryCacheManager;
+import org.ff4j.store.InMemoryFeatureStore;
+import org.ff4j.web.api.resources.FeatureStoreResource;
+import org.ff4j.web.api.resources.domain.CacheApiBean;
+import org.ff4j.web.api.resources.domain.FeatureStoreApiBean;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Cache part of the store resource, with a cache proxy or a snapshot in front of the store.
+ *
+ * @author <a href="mailto:cedrick.lunven@gmail.com">Cedrick LUNVEN</a>
+ */
+public class FeatureStoreResourceCacheTest {
+
+    /** Features of tests. */
+    private static final String FEATURES_FILE = "test-ff4j-features.xml";
+
+    /**
+     * Resource working on target ff4j.
+     *
+     * @param target
+     *            current ff4j
+     * @return
+     *            store resource
+     */
+    private FeatureStoreResource resourceStore(final FF4j target) {
+        return new FeatureStoreResource() {{
+            ff4j = target;
+        }};
+    }
+
+    @Test
+    public void testCacheWithSnapshot() {
+        // Given
+        FF4j snapshotFF4j = new FF4j(FEATURES_FILE).enableSnapshot();
+        FeatureStoreResource resource = resourceStore(snapshotFF4j);
+        // When
+        FeatureStoreApiBean storeBean = resource.get();
+        // Then, snapshot is not a cache
+        Assert.assertNull(storeBean.getCache());
+        Assert.assertTrue(new CacheApiBean(snapshotFF4j.getFeatureStore()).getFeatureNames().isEmpty());
+        Assert.assertEquals(Status.NOT_FOUND.getStatusCode(), resource.getStatus().getStatus());
+        Assert.assertEquals(Status.NOT_FOUND.getStatusCode(), resource.getStatistics().getStatus());
+        Assert.assertEquals(Status.NOT_FOUND.getStatusCode(), resource.clear().getStatus());
+    }
+
+    @Test
+    public void testCacheWithCacheProxy() {
+        // Given
+        FF4j cachedFF4j = new FF4j();
+        cachedFF4j.setFeatureStore(new FeatureStoreCacheProxy(
+                new InMemoryFeatureStore(FEATURES_FILE), new InMemoryCacheManager()));
+        FeatureStoreResource resource = resourceStore(cachedFF4j);
+        // When
+        FeatureStoreApiBean storeBean = resource.get();
+        // Then
+        Assert.assertNotNull(storeBean.getCache());
+        Assert.assertEquals(Status.OK.getStatusCode(), resource.getStatus().getStatus());
+        Assert.assertEquals(Status.OK.getStatusCode(), resource.getStatistics().getStatus());
+        Assert.assertEquals(Status.OK.getStatusCode(), resource.clear().getStatus());
+    }
+
+}